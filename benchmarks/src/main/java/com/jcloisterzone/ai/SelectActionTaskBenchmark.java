@@ -0,0 +1,75 @@
+package com.jcloisterzone.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.benchmark.BenchmarkGames;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.game.Game;
+
+/**
+ * Measures AI search of one turn. Search runs on game copy, so loaded game stays untouched.
+ * Placed in ai package because search entry point is package private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectActionTaskBenchmark {
+
+    private RankingAiPlayer aiPlayer;
+    private SelectActionEvent rootEv;
+    private GameRanking ranking;
+
+    @Setup
+    public void setUp() throws Exception {
+        Game game = BenchmarkGames.createGame(BenchmarkGames.TILE_PHASE);
+        game.getEventBus().register(this);
+        game.getPhase().enter();
+        game.flushEventQueue();
+        game.getEventBus().unregister(this);
+        if (rootEv == null) {
+            throw new IllegalStateException("Select action event expected");
+        }
+        aiPlayer = new LegacyAiPlayer();
+        aiPlayer.setGame(game);
+        aiPlayer.setPlayer(game.getActivePlayer());
+    }
+
+    /** player's own ranking caches final rankings across searches, each search starts with empty cache */
+    @Setup(Level.Invocation)
+    public void createRanking() {
+        ranking = aiPlayer.createSearchRanking();
+    }
+
+    @Subscribe
+    public void handleSelectAction(SelectActionEvent ev) {
+        rootEv = ev;
+    }
+
+    @Benchmark
+    public AiChoice search() {
+        return new SelectActionTask(aiPlayer, rootEv, ranking, null).search();
+    }
+
+    @Benchmark
+    public AiChoice parallelSearch() {
+        return new ParallelSelectActionTask(aiPlayer, rootEv, Runtime.getRuntime().availableProcessors()).search();
+    }
+}
@@ -0,0 +1,64 @@
+package com.jcloisterzone.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.phase.LoadGamePhase;
+
+/**
+ * Loads saved games used as benchmark inputs. Games are same as integration tests use.
+ */
+public final class BenchmarkGames {
+
+    public static final String TILE_PHASE = "/saved-games/tilePhase.jcz";
+    public static final String ACTION_PHASE = "/saved-games/actionPhase.jcz";
+
+    private BenchmarkGames() {
+    }
+
+    /** returns plain xml of saved game, gzipped saves are unpacked */
+    public static String readSnapshot(String resource) throws IOException {
+        InputStream resourceStream = BenchmarkGames.class.getResourceAsStream(resource);
+        if (resourceStream == null) {
+            throw new IOException("Saved game " + resource + " not found");
+        }
+        InputStream is = new BufferedInputStream(resourceStream);
+        try {
+            is.mark(2);
+            int magic = is.read() | (is.read() << 8);
+            is.reset();
+            if (magic == GZIPInputStream.GZIP_MAGIC) {
+                is = new GZIPInputStream(is);
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                baos.write(buffer, 0, n);
+            }
+            return baos.toString("UTF-8");
+        } finally {
+            is.close();
+        }
+    }
+
+    public static Game createGame(Snapshot snapshot) {
+        Game game = snapshot.asGame("1");
+        LoadGamePhase phase = new LoadGamePhase(game, snapshot, null);
+        game.getPhases().put(phase.getClass(), phase);
+        game.setPhase(phase);
+        phase.setSlots(new PlayerSlot[0]);
+        phase.startGame();
+        return game;
+    }
+
+    public static Game createGame(String resource) throws IOException {
+        return createGame(new Snapshot(readSnapshot(resource)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.game.Game;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private Board board;
+    private Tile tile;
+
+    @Setup
+    public void setUp() throws Exception {
+        Game game = BenchmarkGames.createGame(BenchmarkGames.TILE_PHASE);
+        board = game.getBoard();
+        tile = game.getCurrentTile();
+    }
+
+    @Benchmark
+    public Map<Position, Set<Rotation>> refreshAvailablePlacements() {
+        board.refreshAvailablePlacements(tile);
+        return board.getAvailablePlacements();
+    }
+
+    @Benchmark
+    public int getAdjacentTiles() {
+        int count = 0;
+        for (Tile placed : board.getAllTiles()) {
+            count += board.getAdjacentTilesMap(placed.getPosition()).size();
+        }
+        return count;
+    }
+}
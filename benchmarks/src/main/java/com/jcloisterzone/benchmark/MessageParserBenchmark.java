@@ -0,0 +1,66 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParserBenchmark {
+
+    private MessageParser parser;
+    private RmiMessage message;
+    private RmiMessage legacyMessage;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        parser = new MessageParser();
+        message = new RmiMessage("1", "placeTile", new Object[] { Rotation.R90, new Position(-2, 0) });
+        legacyMessage = message.toLegacy();
+        json = parser.toJson(message);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return parser.toJson(message);
+    }
+
+    @Benchmark
+    public WsMessage fromJson() {
+        return parser.fromJson(json);
+    }
+
+    /** full round trip including decoding of rmi arguments */
+    @Benchmark
+    public Object[] roundTrip() {
+        RmiMessage msg = (RmiMessage) parser.fromJson(parser.toJson(message));
+        return msg.getArguments();
+    }
+
+    /** round trip of message with Java serialized arguments */
+    @Benchmark
+    public Object[] legacyRoundTrip() {
+        RmiMessage msg = (RmiMessage) parser.fromJson(parser.toJson(legacyMessage));
+        return msg.getArguments();
+    }
+}
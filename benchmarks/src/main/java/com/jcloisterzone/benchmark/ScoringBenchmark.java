@@ -0,0 +1,109 @@
+package com.jcloisterzone.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.City;
+import com.jcloisterzone.feature.Completable;
+import com.jcloisterzone.feature.Farm;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.score.ScoreAllCallback;
+import com.jcloisterzone.feature.score.ScoreAllFeatureFinder;
+import com.jcloisterzone.feature.visitor.score.CityScoreContext;
+import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
+import com.jcloisterzone.feature.visitor.score.FarmScoreContext;
+import com.jcloisterzone.figure.Barn;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Game;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private Game game;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = BenchmarkGames.createGame(BenchmarkGames.ACTION_PHASE);
+    }
+
+    /** walks every placed feature with its score context */
+    @Benchmark
+    public int walkScoreContexts() {
+        int points = 0;
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Feature feature : tile.getFeatures()) {
+                if (feature instanceof Completable) {
+                    CompletableScoreContext ctx = ((Completable) feature).getScoreContext();
+                    feature.walk(ctx);
+                    points += ctx.getPoints();
+                } else if (feature instanceof Farm) {
+                    FarmScoreContext ctx = ((Farm) feature).getScoreContext();
+                    ctx.setCityCache(new HashMap<City, CityScoreContext>());
+                    feature.walk(ctx);
+                    points += ctx.getBarnPoints();
+                }
+            }
+        }
+        return points;
+    }
+
+    @Benchmark
+    public int scoreAll() {
+        PointsCollector callback = new PointsCollector();
+        new ScoreAllFeatureFinder().scoreAll(game, callback);
+        return callback.points;
+    }
+
+    static class PointsCollector implements ScoreAllCallback {
+
+        int points;
+
+        @Override
+        public void scoreCompletableFeature(CompletableScoreContext ctx) {
+            points += ctx.getPoints();
+        }
+
+        @Override
+        public void scoreFarm(FarmScoreContext ctx, Player player) {
+            points += ctx.getPoints(player);
+        }
+
+        @Override
+        public void scoreBarn(FarmScoreContext ctx, Barn meeple) {
+            points += ctx.getBarnPoints();
+        }
+
+        @Override
+        public void scoreCastle(Meeple meeple, Castle castle) {
+        }
+
+        @Override
+        public CompletableScoreContext getCompletableScoreContext(Completable completable) {
+            return completable.getScoreContext();
+        }
+
+        @Override
+        public FarmScoreContext getFarmScoreContext(Farm farm) {
+            return farm.getScoreContext();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.jcloisterzone.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.Snapshot;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private String xml;
+    private Game game;
+
+    @Setup
+    public void setUp() throws Exception {
+        xml = BenchmarkGames.readSnapshot(BenchmarkGames.ACTION_PHASE);
+        game = BenchmarkGames.createGame(new Snapshot(xml));
+    }
+
+    @Benchmark
+    public byte[] save() throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new Snapshot(game).save(os, false);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public Game load() throws Exception {
+        return BenchmarkGames.createGame(new Snapshot(xml));
+    }
+
+    @Benchmark
+    public Game copy() {
+        return game.copy(null);
+    }
+}
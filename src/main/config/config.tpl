@@ -9,6 +9,8 @@ locale: ${locale}
 
 score_display_duration: ${score_display_duration} # seconds
 ai_place_tile_delay: ${ai_place_tile_delay} # miliseconds to wait before computer player place tile
+ai_search_threads: ${ai_search_threads} # threads used by computer player to explore its moves, 1 = sequential search, 0 = all CPU cores
+ai_search_budget: ${ai_search_budget} # miliseconds computer player can spend exploring its move, best move found so far is played then, 0 = unlimited
 
 beep_alert: ${beep_alert}
 confirm: ${confirm}
@@ -14,7 +14,9 @@ public interface Application {
     public String VERSION = DEV_VERSION;
     public String BUILD_DATE = "";
 
-    public String PROTCOL_VERSION = "3.1";
+    public String PROTCOL_VERSION = "3.2";
+    /** older protocol still accepted by server, differs only by Java serialized RMI arguments */
+    public String LEGACY_PROTOCOL_VERSION = "3.1";
 
     public static final String ILLEGAL_STATE_MSG = "Method '{}' called in invalid state";
 }
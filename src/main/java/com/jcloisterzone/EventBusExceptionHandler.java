@@ -1,5 +1,7 @@
 package com.jcloisterzone;
 
+import java.lang.reflect.Method;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +20,10 @@ public class EventBusExceptionHandler implements SubscriberExceptionHandler {
 
     @Override
     public void handleException(Throwable exception, SubscriberExceptionContext context) {
-        logger.error(name + " > Could not dispatch event: " + context.getSubscriber() + " to " + context.getSubscriberMethod(), exception);
+        handleException(exception, context.getSubscriber(), context.getSubscriberMethod());
+    }
+
+    public void handleException(Throwable exception, Object subscriber, Method subscriberMethod) {
+        logger.error(name + " > Could not dispatch event: " + subscriber + " to " + subscriberMethod, exception);
     }
 }
@@ -60,6 +60,32 @@ public abstract class AiPlayer {
         return gc;
     }
 
+    /** Returns time limit of single search in ms from config, 0 if search is not limited. */
+    protected long getSearchBudget() {
+        Integer budget = gc == null ? null : gc.getConfig().getAi_search_budget();
+        return budget == null || budget < 0 ? 0 : budget;
+    }
+
+    /** Returns count of search threads from config, zero or negative value means all processors. */
+    protected int getSearchThreads() {
+        Integer threads = gc == null ? null : gc.getConfig().getAi_search_threads();
+        if (threads == null) return 1;
+        if (threads <= 0) return Runtime.getRuntime().availableProcessors();
+        return threads;
+    }
+
+    /**
+     * Creates copy of game for search. Copy is silent, only given listener is notified
+     * about its events.
+     */
+    protected Game copyGame(Object gameListener) {
+        Game copy = game.copy(getGameController());
+        //simulated game, only search listeners are notified
+        copy.getEventBus().setSilent(true);
+        copy.getEventBus().registerCore(gameListener);
+        return copy;
+    }
+
     // dummy implementations
 
     protected final void selectDummyAction(List<? extends PlayerAction<?>> actions, boolean canPass) {
@@ -0,0 +1,88 @@
+package com.jcloisterzone.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.StateHash;
+
+/**
+ * Transposition table for final rankings. Search can reach same game state by different
+ * choice chains (eg. meeple placed on symmetric tile in different rotations), such states
+ * are ranked only once. States are identified by {@link StateHash}, least recently used
+ * rankings are evicted when capacity is reached.
+ *
+ * As wrapped ranking, instance is not thread safe.
+ */
+public class CachingGameRanking implements GameRanking {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private final GameRanking ranking;
+    private final Map<Long, Double> cache;
+
+    private boolean hashSupported = true;
+    private long hits, misses;
+
+    public CachingGameRanking(GameRanking ranking) {
+        this(ranking, DEFAULT_CAPACITY);
+    }
+
+    public CachingGameRanking(GameRanking ranking, final int capacity) {
+        this.ranking = ranking;
+        this.cache = new LinkedHashMap<Long, Double>(capacity * 4 / 3 + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public double getPartialAfterTilePlacement(Game game, Tile tile) {
+        return ranking.getPartialAfterTilePlacement(game, tile);
+    }
+
+    @Override
+    public double getFinal(Game game) {
+        if (!hashSupported) {
+            return ranking.getFinal(game);
+        }
+        long key;
+        try {
+            key = StateHash.hash(game);
+        } catch (UnsupportedOperationException e) {
+            //some capability can't backup its state (eg. castles)
+            hashSupported = false;
+            return ranking.getFinal(game);
+        }
+        Double cached = cache.get(key);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        double value = ranking.getFinal(game);
+        cache.put(key, value);
+        return value;
+    }
+
+    public GameRanking getRanking() {
+        return ranking;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,169 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.board.TilePlacement;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Splits root tile placements across fork-join pool. Each worker explores its part
+ * of choice tree on own game copy and best chains are merged at the end.
+ *
+ * Placements are distributed to partitions by their natural order and ties in ranking
+ * are resolved in favour of lower partition, so result doesn't depend on thread scheduling.
+ */
+public class ParallelSelectActionTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    /** how many partitions are created per worker thread, more partitions gives better load balancing */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private static ForkJoinPool pool;
+
+    private final RankingAiPlayer aiPlayer;
+    private final SelectActionEvent rootEv;
+    private final int parallelism;
+    /** search time limit in ms shared by all workers, 0 means unlimited */
+    private long budget;
+    private Long deadline;
+
+    public ParallelSelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, int parallelism) {
+        this.aiPlayer = aiPlayer;
+        this.rootEv = rootEv;
+        this.parallelism = parallelism;
+    }
+
+    /** @see SelectActionTask#setBudget(long) */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    private SelectActionTask createTask(GameRanking gameRanking, Set<TilePlacement> rootPlacements) {
+        SelectActionTask task = new SelectActionTask(aiPlayer, rootEv, gameRanking, rootPlacements);
+        if (deadline != null) {
+            task.setDeadline(deadline);
+        }
+        return task;
+    }
+
+    private static synchronized ForkJoinPool getPool(int parallelism) {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Returns sorted root placements or null if root event contains also another
+     * actions then tile placement and must be explored sequentially.
+     */
+    private List<TilePlacement> getRootPlacements() {
+        if (rootEv.isPassAllowed() || rootEv.getActions().size() != 1) return null;
+        PlayerAction<?> action = rootEv.getActions().get(0);
+        if (!(action instanceof TilePlacementAction)) return null;
+        List<TilePlacement> placements = new ArrayList<>(SelectActionTask.getDistinctPlacements((TilePlacementAction) action));
+        Collections.sort(placements);
+        return placements;
+    }
+
+    @Override
+    public void run() {
+        AiChoice best = null;
+        try {
+            best = search();
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+        SelectActionTask.selectChain(aiPlayer, rootEv, best);
+    }
+
+    AiChoice search() {
+        if (budget > 0) {
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+        }
+        List<TilePlacement> placements = getRootPlacements();
+        if (parallelism < 2 || placements == null || placements.size() < 2) {
+            return createTask(aiPlayer.getGameRanking(), null).search();
+        }
+
+        int partitionCount = Math.min(placements.size(), parallelism * PARTITIONS_PER_THREAD);
+        List<Set<TilePlacement>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new HashSet<TilePlacement>());
+        }
+        //round robin - neighbouring positions are usually similarly expensive
+        for (int i = 0; i < placements.size(); i++) {
+            partitions.get(i % partitionCount).add(placements.get(i));
+        }
+
+        return getPool(parallelism).invoke(new SearchTask(partitions, 0, partitionCount)).chain;
+    }
+
+    static class SearchResult {
+        final AiChoice chain;
+        final double ranking;
+
+        SearchResult(AiChoice chain, double ranking) {
+            this.chain = chain;
+            this.ranking = ranking;
+        }
+
+        /** left operand is preferred on equal ranking to keep result deterministic */
+        static SearchResult merge(SearchResult left, SearchResult right) {
+            if (right.chain == null) return left;
+            if (left.chain == null) return right;
+            return right.ranking > left.ranking ? right : left;
+        }
+    }
+
+    class SearchTask extends RecursiveTask<SearchResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Set<TilePlacement>> partitions;
+        private final int from, to;
+
+        SearchTask(List<Set<TilePlacement>> partitions, int from, int to) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SearchResult compute() {
+            if (to - from == 1) {
+                //each worker has own ranking instance, ranking holds per evaluation state
+                SelectActionTask task = createTask(aiPlayer.createSearchRanking(), partitions.get(from));
+                try {
+                    task.search();
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                }
+                return new SearchResult(task.getBestSoFar(), task.getBestSoFarRanking());
+            }
+            int middle = (from + to) / 2;
+            SearchTask left = new SearchTask(partitions, from, middle);
+            SearchTask right = new SearchTask(partitions, middle, to);
+            right.fork();
+            SearchResult leftResult = left.compute();
+            return SearchResult.merge(leftResult, right.join());
+        }
+    }
+}
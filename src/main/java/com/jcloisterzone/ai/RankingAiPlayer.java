@@ -2,6 +2,7 @@ package com.jcloisterzone.ai;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
@@ -13,14 +14,11 @@ import com.jcloisterzone.ai.choice.AiChoice;
 import com.jcloisterzone.config.Config.DebugConfig;
 import com.jcloisterzone.event.SelectActionEvent;
 import com.jcloisterzone.event.SelectDragonMoveEvent;
-import com.jcloisterzone.game.Game;
-import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.Snapshot;
-import com.jcloisterzone.game.phase.LoadGamePhase;
 
 public abstract class RankingAiPlayer extends AiPlayer {
 
-    private static ExecutorService executor = Executors.newFixedThreadPool(1);
+    private static ExecutorService defaultExecutor = Executors.newFixedThreadPool(1);
 
     //private Map<Feature, AiScoreContext> scoreCache = new HashMap<>();
     //private List<PositionLocation> hopefulGatePlacements = new ArrayList<PositionLocation>();
@@ -31,19 +29,38 @@ public abstract class RankingAiPlayer extends AiPlayer {
 
     private final GameRanking gameRanking;
     private final AtomicReference<AiChoice> bestChain = new AtomicReference<>();
+    private Executor executor = defaultExecutor;
 
 
     public RankingAiPlayer() {
-        gameRanking = createGameRanking();
+        gameRanking = createSearchRanking();
     }
 
+    /**
+     * Creates new ranking instance. Ranking is not required to be thread safe,
+     * each concurrently running search must use own instance.
+     */
     abstract protected GameRanking createGameRanking();
 
+    /**
+     * Creates ranking used by search, final rankings of equal game states are cached.
+     */
+    GameRanking createSearchRanking() {
+        return new CachingGameRanking(createGameRanking());
+    }
+
     public GameRanking getGameRanking() {
         return gameRanking;
     }
 
 
+    /**
+     * Sets executor running search tasks. Single thread executor shared by all players is used by default.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     public AiChoice getBestChain() {
         return bestChain.get();
     }
@@ -78,6 +95,9 @@ public abstract class RankingAiPlayer extends AiPlayer {
             if ("plain".equals(debugConfig.getSave_format())) {
                 snapshot.setGzipOutput(false);
             }
+            if ("binary".equals(debugConfig.getSave_format())) {
+                snapshot.setFormat(Snapshot.Format.BINARY);
+            }
             try {
                 snapshot.save(new FileOutputStream(debugConfig.getAutosave()));
             } catch (TransformerException | IOException e) {
@@ -94,7 +114,7 @@ public abstract class RankingAiPlayer extends AiPlayer {
                 popActionChain();
             } else {
                 autosave();
-                executor.submit(new SelectActionTask(this, ev));
+                executor.execute(createSelectActionTask(ev));
             }
         } else {
             if (getBestChain() != null) {
@@ -104,23 +124,22 @@ public abstract class RankingAiPlayer extends AiPlayer {
         }
     }
 
+    protected Runnable createSelectActionTask(SelectActionEvent ev) {
+        int threads = getSearchThreads();
+        if (threads > 1) {
+            ParallelSelectActionTask task = new ParallelSelectActionTask(this, ev, threads);
+            task.setBudget(getSearchBudget());
+            return task;
+        }
+        SelectActionTask task = new SelectActionTask(this, ev);
+        task.setBudget(getSearchBudget());
+        return task;
+    }
+
     @Subscribe
     public void selectDragonMove(SelectDragonMoveEvent ev) {
         if (getPlayer().equals(ev.getTargetPlayer())) {
              new Thread(new SelectDragonMoveTask(this, ev), "AI-selectDragonMove").start();
         }
     }
-
-    //TODO is there faster game copying without snapshot? or without re-creating board and tile instances
-    protected Game copyGame(Object gameListener) {
-        Snapshot snapshot = new Snapshot(game);
-        Game copy = snapshot.asGame(game.getGameId());
-        copy.getEventBus().register(gameListener);
-        LoadGamePhase phase = new LoadGamePhase(copy, snapshot, getGameController());
-        phase.setSlots(new PlayerSlot[0]);
-        copy.getPhases().put(phase.getClass(), phase);
-        copy.setPhase(phase);
-        phase.startGame();
-        return copy;
-    }
 }
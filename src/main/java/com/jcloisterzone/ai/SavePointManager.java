@@ -23,6 +23,8 @@ public class SavePointManager {
     private final Game game;
     protected Deque<Undoable> operations = new ArrayDeque<Undoable>();
     private OperationRecorder operationRecorder = new OperationRecorder();
+    /** recorder stays registered during restore, undone operations must not be recorded */
+    private boolean restoring;
 
     private static final boolean DEBUG_VERIFY_SAVE_POINT = false;
 
@@ -40,7 +42,7 @@ public class SavePointManager {
 
     public void startRecording() {
         game.flushEventQueue();
-        game.getEventBus().register(operationRecorder);
+        game.getEventBus().registerCore(operationRecorder);
     }
 
     public void stopRecording() {
@@ -64,7 +66,7 @@ public class SavePointManager {
 
     public void restore(SavePoint sp) {
         game.flushEventQueue();
-        game.getEventBus().unregister(operationRecorder);
+        restoring = true;
         Undoable target = sp.getOperation();
         //assert target == null || operations.contains(target);
         while (operations.peekLast() != target) {
@@ -78,7 +80,7 @@ public class SavePointManager {
         Phase phase = sp.getPhase();
         game.setPhase(phase);
         phase.setEntered(true);
-        game.getEventBus().register(operationRecorder);
+        restoring = false;
 
         if (DEBUG_VERIFY_SAVE_POINT) {
             try {
@@ -100,6 +102,7 @@ public class SavePointManager {
     class OperationRecorder  {
         @Subscribe
         public void record(Undoable u) {
+            if (restoring) return;
             operations.addLast(u);
         }
     }
@@ -3,10 +3,15 @@ package com.jcloisterzone.ai;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,12 +54,25 @@ public class SelectActionTask implements Runnable {
 
     private final RankingAiPlayer aiPlayer;
     private final SelectActionEvent rootEv;
+    private final GameRanking gameRanking;
+    /** restricts root tile placements explored by this task, null means all placements */
+    private final Set<TilePlacement> rootPlacements;
     private final Deque<AiChoice> queue = new LinkedList<>();
 
     private AiChoice choice = null;
     private AiChoice bestSoFar = null;
     private double bestSoFarRanking = Double.NEGATIVE_INFINITY;
 
+    /** search time limit in ms, 0 means whole tree is explored */
+    private long budget;
+    /** absolute deadline (System.nanoTime), computed from budget when search starts if not set */
+    private Long deadline;
+    /** set while root placements are ranked for ordering, nested actions are not expanded */
+    private boolean probing;
+    private boolean budgetExceeded;
+    private int explored;
+    private int probed;
+
     private SavePointManager spm;
     private Game game;
 
@@ -62,8 +80,18 @@ public class SelectActionTask implements Runnable {
     private static final List<Class<? extends Phase>> ALLOWED_IN_PHASE_LOOP = Lists.newArrayList(ActionPhase.class, EscapePhase.class, TowerCapturePhase.class, WagonPhase.class);
 
     public SelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv) {
+        this(aiPlayer, rootEv, aiPlayer.getGameRanking(), null);
+    }
+
+    /**
+     * Creates task exploring only subtree of given root placements.
+     * Ranking instance must not be shared with another concurrently running task.
+     */
+    SelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, GameRanking gameRanking, Set<TilePlacement> rootPlacements) {
         this.aiPlayer = aiPlayer;
         this.rootEv = rootEv;
+        this.gameRanking = gameRanking;
+        this.rootPlacements = rootPlacements;
     }
 
     private void dbgPringHeader() {
@@ -111,38 +139,160 @@ public class SelectActionTask implements Runnable {
     @Override
     public void run() {
         //logger.info("Select action task started " + aiPlayer.getClientStub().getGame().getTilePack().size() + " " + rootEv.getPlayer() + " > " + rootEv.getActions().toString());
-        boolean dbgPrint = false;
         try {
-            this.game = aiPlayer.copyGame(this);
-            if (dbgPrint) dbgPringHeader();
-
-            spm = new SavePointManager(game);
-            spm.startRecording();
-
-            handleActionEvent(rootEv);
-
-            while (!queue.isEmpty()) {
-                choice = queue.pop();
-                spm.restore(choice.getSavePoint());
-                choice.perform(game.getPhase());
-                boolean isFinal = phaseLoop();
-                choice.rankPartial(aiPlayer.getGameRanking(), game);
-                if (isFinal) {
-                    rankFinal(choice);
-                }
-                if (dbgPrint) dbgPringStep(choice, isFinal);
-            }
-            if (dbgPrint) dbgPringFooter();
+            search();
             //logger.info("Select action task finished "  + game.getTilePack().size() + " " + rootEv.getPlayer() + " > " + rootEv.getActions().toString() + " " + bestSoFar.chainToString());
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
         }
-        if (bestSoFar == null) {
+        selectChain(aiPlayer, rootEv, bestSoFar);
+    }
+
+    /**
+     * Limits search time. Root tile placements are explored from best partial ranking
+     * and search returns best chain found so far when budget runs out. At least one chain
+     * is always fully ranked, so budget can be exceeded on expensive trees.
+     * @param budget time limit in milliseconds, 0 for unlimited search
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /** Sets absolute deadline (as System.nanoTime) shared by tasks searching same move. */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    private boolean isBudgeted() {
+        return budget > 0 || deadline != null;
+    }
+
+    /**
+     * Explores all choices reachable from root event on own game copy.
+     * @return best ranked chain (reversed) or null if no final state was reached
+     */
+    AiChoice search() {
+        boolean dbgPrint = false;
+        if (budget > 0 && deadline == null) {
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+        }
+        this.game = aiPlayer.copyGame(this);
+        if (dbgPrint) dbgPringHeader();
+
+        spm = new SavePointManager(game);
+        spm.startRecording();
+
+        handleActionEvent(rootEv);
+        if (isBudgeted()) {
+            orderRootChoices();
+        }
+
+        while (!queue.isEmpty()) {
+            if (isBudgeted() && bestSoFar != null && System.nanoTime() - deadline > 0) {
+                budgetExceeded = true;
+                logger.info("Search budget exceeded, explored {} choices, {} left unexplored", explored, queue.size());
+                break;
+            }
+            explored++;
+            choice = queue.pop();
+            spm.restore(choice.getSavePoint());
+            choice.perform(game.getPhase());
+            boolean isFinal = phaseLoop();
+            choice.rankPartial(gameRanking, game);
+            if (isFinal) {
+                rankFinal(choice);
+            }
+            if (dbgPrint) dbgPringStep(choice, isFinal);
+        }
+        if (dbgPrint) dbgPringFooter();
+        return bestSoFar;
+    }
+
+    /**
+     * Ranks root tile placements after placement and reorders queue to explore
+     * most promising placements first. Probing stops at deadline, placements
+     * which were not ranked are explored last in original order.
+     */
+    private void orderRootChoices() {
+        List<AiChoice> roots = new ArrayList<>(queue);
+        for (AiChoice root : roots) {
+            if (!(root instanceof TilePlacementChoice)) return;
+        }
+        final Map<AiChoice, Double> partial = new IdentityHashMap<>();
+        probing = true;
+        try {
+            for (AiChoice root : roots) {
+                if (System.nanoTime() - deadline > 0) break;
+                probed++;
+                spm.restore(root.getSavePoint());
+                root.perform(game.getPhase());
+                phaseLoop();
+                root.rankPartial(gameRanking, game);
+                partial.put(root, root.getRanking());
+                root.setRanking(0.0);
+            }
+        } finally {
+            probing = false;
+        }
+        List<AiChoice> ranked = new ArrayList<>();
+        List<AiChoice> unranked = new ArrayList<>();
+        for (AiChoice root : roots) {
+            if (partial.containsKey(root)) {
+                ranked.add(root);
+            } else {
+                unranked.add(root);
+            }
+        }
+        Collections.sort(ranked, new Comparator<AiChoice>() {
+            @Override
+            public int compare(AiChoice o1, AiChoice o2) {
+                return Double.compare(partial.get(o1), partial.get(o2));
+            }
+        });
+        //queue is LIFO, unranked choices are pushed first in reverse order, best choice last
+        queue.clear();
+        for (int i = unranked.size() - 1; i >= 0; i--) {
+            queue.push(unranked.get(i));
+        }
+        for (AiChoice root : ranked) {
+            queue.push(root);
+        }
+    }
+
+    boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    /** number of choices performed and ranked by search */
+    int getExplored() {
+        return explored;
+    }
+
+    /** number of root placements ranked for ordering */
+    int getProbed() {
+        return probed;
+    }
+
+    /** number of choices left in queue when search was stopped */
+    int getUnexplored() {
+        return queue.size();
+    }
+
+    AiChoice getBestSoFar() {
+        return bestSoFar;
+    }
+
+    double getBestSoFarRanking() {
+        return bestSoFarRanking;
+    }
+
+    static void selectChain(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, AiChoice best) {
+        if (best == null) {
             //in perfect world it should never happen
             aiPlayer.setBestChain(null);
             aiPlayer.selectDummyAction(rootEv.getActions(), rootEv.isPassAllowed());
         } else {
-            aiPlayer.setBestChain(bestSoFar);
+            aiPlayer.setBestChain(best);
             aiPlayer.popActionChain();
         }
     }
@@ -163,7 +313,7 @@ public class SelectActionTask implements Runnable {
     }
 
     private void rankFinal(AiChoice step) {
-        step.setRanking(step.getRanking() + aiPlayer.getGameRanking().getFinal(game));
+        step.setRanking(step.getRanking() + gameRanking.getFinal(game));
         double currChainRanking = step.getChainRanking();
         if (currChainRanking > bestSoFarRanking) {
             bestSoFar = step;
@@ -180,6 +330,9 @@ public class SelectActionTask implements Runnable {
 
     @Subscribe
     public void handleActionEvent(SelectActionEvent ev) {
+        if (probing) {
+            return;
+        }
         if (!game.getActivePlayer().equals(aiPlayer.getPlayer())) {
             return; //e.g. wagon move of other player
         }
@@ -213,22 +366,32 @@ public class SelectActionTask implements Runnable {
     }
 
     protected void handleTilePlacementAction(SavePoint savePoint, TilePlacementAction action) {
+        for (TilePlacement tp : getDistinctPlacements(action)) {
+            if (choice == null && rootPlacements != null && !rootPlacements.contains(tp)) {
+                continue; //explored by another task
+            }
+            queue.push(new TilePlacementChoice(choice, savePoint, action, tp));
+        }
+    }
+
+    /** Returns action options without placements which are equivalent thanks to tile symmetry. */
+    public static Collection<TilePlacement> getDistinctPlacements(TilePlacementAction action) {
         TileSymmetry sym = action.getTile().getSymmetry();
         //do not symmetric tiles
         if (sym == TileSymmetry.S4) {
             List<TilePlacement> options = new ArrayList<>(action.getOptions());
             Collections.sort(options);
+            List<TilePlacement> result = new ArrayList<>();
             int size = options.size();
             for (int i = 0; i < size; i++) {
                 TilePlacement tp = options.get(i);
                 if (i == 0 || !options.get(i-1).getPosition().equals(tp.getPosition())) {
-                    queue.push(new TilePlacementChoice(choice, savePoint, action, tp));
+                    result.add(tp);
                 }
             }
+            return result;
         } else {
-            for (TilePlacement tp : action.getOptions()) {
-                queue.push(new TilePlacementChoice(choice, savePoint, action, tp));
-            }
+            return action.getOptions();
         }
     }
 
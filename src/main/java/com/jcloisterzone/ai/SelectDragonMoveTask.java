@@ -39,9 +39,9 @@ class SelectDragonMoveTask implements Runnable {
         Position dragonPosition = game.getCapability(DragonCapability.class).getDragonPosition();
         double tensionX = 0, tensionY = 0;
 
-        for (Meeple m : game.getDeployedMeeples()) {
+        for (Meeple m : game.getMeepleIndex().getDeployedMeeples(dragonPosition, rootEv.getMovesLeft())) {
             int distance = dragonPosition.squareDistance(m.getPosition());
-            if (distance == 0 || distance > rootEv.getMovesLeft()) continue;
+            if (distance == 0) continue;
             if (m.getFeature() instanceof Castle) continue;
 
             double weight = 1.0 / (distance * distance);
@@ -490,8 +490,7 @@ public class LegacyRanking implements GameRanking {
         double rating = 0;
 
 //		TODO more sophisticated rating
-        for (Meeple meeple : game.getDeployedMeeples()) {
-            if (!meeple.at(fairyPos)) continue;
+        for (Meeple meeple : game.getDeployedMeeples(fairyPos)) {
             if (!(meeple instanceof Follower)) continue;
             if (meeple.getFeature() instanceof Castle) continue;
 
@@ -0,0 +1,46 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.choice.ActionChoice;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.choice.PassChoice;
+import com.jcloisterzone.ai.choice.TilePlacementChoice;
+import com.jcloisterzone.board.TilePlacement;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Choice stored in search node. Action is referenced by index in action event and only option
+ * value is kept, so node doesn't hold game copy in which it was created (actions refer tiles).
+ * Same state has same actions in every game copy.
+ */
+class Choice {
+
+    static final int PASS = -1;
+
+    private final int actionIndex;
+    private final Object option;
+
+    Choice(int actionIndex, Object option) {
+        this.actionIndex = actionIndex;
+        this.option = option;
+    }
+
+    /** Creates choice performable on given action event. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    AiChoice toAiChoice(SelectActionEvent ev) {
+        if (actionIndex == PASS) {
+            return new PassChoice(null, null);
+        }
+        PlayerAction action = ev.getActions().get(actionIndex);
+        if (action instanceof TilePlacementAction) {
+            return new TilePlacementChoice(null, null, action, (TilePlacement) option);
+        }
+        return new ActionChoice(null, null, action, option);
+    }
+
+    @Override
+    public String toString() {
+        return actionIndex == PASS ? "pass" : actionIndex + " -> " + option;
+    }
+}
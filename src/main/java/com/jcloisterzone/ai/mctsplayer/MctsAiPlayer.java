@@ -0,0 +1,103 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.event.SelectDragonMoveEvent;
+import com.jcloisterzone.game.StateHash;
+
+/**
+ * AI player searching its actions by Monte Carlo tree search (see {@link MctsSearchTask}).
+ *
+ * Search is limited by time budget from config ({@code ai_search_budget}) or by fixed
+ * iterations count if budget is not set. Search tree is kept between player's decisions,
+ * statistics collected for reached state in previous searches are reused.
+ */
+public class MctsAiPlayer extends AiPlayer {
+
+    /** iterations of single search when time budget is not configured */
+    public static final int DEFAULT_ITERATIONS = 1000;
+
+    private static ExecutorService defaultExecutor = Executors.newFixedThreadPool(1);
+
+    private final SearchTree tree = new SearchTree();
+    private Executor executor = defaultExecutor;
+    private int iterations = DEFAULT_ITERATIONS;
+    private int searchCount;
+
+    /**
+     * Sets executor running search tasks. Single thread executor shared by all players is used by default.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /** Sets iterations of single search, used only when time budget is not configured. */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    SearchTree getSearchTree() {
+        return tree;
+    }
+
+    @Subscribe
+    public void selectAction(SelectActionEvent ev) {
+        if (getPlayer().equals(ev.getTargetPlayer())) {
+            executor.execute(createSearchTask(ev));
+        }
+    }
+
+    @Subscribe
+    public void selectDragonMove(SelectDragonMoveEvent ev) {
+        if (getPlayer().equals(ev.getTargetPlayer())) {
+            selectDummyDragonMove(ev.getPositions(), ev.getMovesLeft());
+        }
+    }
+
+    MctsSearchTask createSearchTask(SelectActionEvent ev) {
+        //seed depends only on game and decision order, so games with iterations limit are repeatable
+        long seed = StateHash.mix(game.getGameId().hashCode() * 31L + getPlayer().getIndex()) + searchCount++;
+        MctsSearchTask task = new MctsSearchTask(this, game, getGameController(), ev, tree, seed);
+        task.setIterations(iterations);
+        task.setBudget(getSearchBudget());
+        task.setParallelism(getSearchThreads());
+        return task;
+    }
+
+    void selectChoice(SelectActionEvent ev, AiChoice choice) {
+        if (choice == null) {
+            selectDummyAction(ev.getActions(), ev.isPassAllowed());
+        } else {
+            choice.perform(getRmiProxy());
+        }
+    }
+
+    public static EnumSet<Expansion> supportedExpansions() {
+        //expansions which don't need server interaction during game and support state backup
+        return EnumSet.of(
+            Expansion.BASIC,
+            Expansion.WINTER,
+            Expansion.ABBEY_AND_MAYOR,
+            Expansion.INNS_AND_CATHEDRALS,
+            Expansion.TRADERS_AND_BUILDERS,
+            Expansion.RIVER,
+            Expansion.RIVER_II,
+            Expansion.GQ11,
+            Expansion.GERMAN_MONASTERIES,
+            //only tiles
+            Expansion.COUNT
+        );
+    }
+}
@@ -0,0 +1,226 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.StateHash;
+import com.jcloisterzone.ui.GameController;
+
+/**
+ * Searches player's action by Monte Carlo tree search.
+ *
+ * Each iteration plays own copy of game with randomly sampled order of remaining tiles.
+ * Choices of all players are selected down the tree by UCB1 formula, first state not yet
+ * in tree is added to it and game continues by random rollout for few rounds. Rollout result
+ * is evaluated by projected final scoring and propagated back to visited nodes.
+ *
+ * Iterations can run in more threads, all threads share same tree. Choice visited most
+ * times in root is selected.
+ */
+public class MctsSearchTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    /** UCB1 exploration constant, rewards are in range (0, 1) */
+    private static final double EXPLORATION = 0.7;
+    /** rounds of rollout, each player draws one tile in round, deeper random play only adds noise */
+    private static final int ROLLOUT_ROUNDS = 1;
+
+    private static ForkJoinPool pool;
+
+    private final MctsAiPlayer aiPlayer;
+    private final Game game;
+    private final GameController gc;
+    private final SelectActionEvent rootEv;
+    private final SearchTree tree;
+    private final long seed;
+
+    private int iterations = MctsAiPlayer.DEFAULT_ITERATIONS;
+    /** search time limit in ms, 0 means search is limited by iterations count */
+    private long budget;
+    private int parallelism = 1;
+
+    private long deadline;
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger played = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    /**
+     * @param game searched game, it is copied and never changed by search
+     * @param seed seed of tile draws and rollout choices
+     */
+    MctsSearchTask(MctsAiPlayer aiPlayer, Game game, GameController gc, SelectActionEvent rootEv, SearchTree tree, long seed) {
+        this.aiPlayer = aiPlayer;
+        this.game = game;
+        this.gc = gc;
+        this.rootEv = rootEv;
+        this.tree = tree;
+        this.seed = seed;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /** @param budget search time limit in ms, iterations count is ignored if positive */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /** number of iterations played by last search */
+    int getPlayed() {
+        return played.get();
+    }
+
+    private static synchronized ForkJoinPool getPool(int parallelism) {
+        if (pool == null || pool.getParallelism() != parallelism) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    @Override
+    public void run() {
+        AiChoice choice = null;
+        try {
+            choice = search();
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+        aiPlayer.selectChoice(rootEv, choice);
+    }
+
+    /**
+     * Runs search and returns most visited root choice.
+     * @return selected choice or null if root event has no choice
+     */
+    AiChoice search() {
+        List<Choice> rootChoices = Simulation.getChoices(rootEv);
+        if (rootChoices.isEmpty()) return null;
+        if (budget > 0) {
+            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+        }
+        started.set(0);
+        played.set(0);
+
+        Game base = game.copy(gc);
+        int packSize = base.getTilePack().size();
+        tree.prune(packSize);
+        long rootKey = StateHash.mix(StateHash.hash(base) + rootEv.getTargetPlayer().getIndex());
+        Node root = tree.add(rootKey, new Node(rootEv.getTargetPlayer().getIndex(), packSize, rootChoices));
+        if (root == null || root.getChoiceCount() != rootChoices.size()) {
+            //tree is full or hash collision
+            root = new Node(rootEv.getTargetPlayer().getIndex(), packSize, rootChoices);
+        }
+        int reusedVisits = root.getTotalVisits();
+
+        if (parallelism < 2) {
+            new Worker(base, root, 0).call();
+        } else {
+            List<Worker> workers = new ArrayList<>();
+            workers.add(new Worker(base, root, 0));
+            for (int i = 1; i < parallelism; i++) {
+                workers.add(new Worker(null, root, i));
+            }
+            getPool(parallelism).invokeAll(workers);
+        }
+
+        int best = root.getBestChoice();
+        logger.debug("Search finished, {} iterations, {} reused root visits, tree size {}, selected {} ({} visits)",
+            played.get(), reusedVisits, tree.size(), root.getChoice(best), root.getVisits(best));
+        return root.getChoice(best).toAiChoice(rootEv);
+    }
+
+    private boolean hasNextIteration() {
+        if (budget > 0) {
+            return started.getAndIncrement() == 0 || System.nanoTime() - deadline < 0;
+        }
+        return started.getAndIncrement() < iterations;
+    }
+
+    private void iterate(Game base, Node root, Random random) {
+        Simulation sim = new Simulation(base, gc, random, rootEv);
+        List<Node> path = new ArrayList<>();
+        List<Integer> selected = new ArrayList<>();
+
+        Node node = root;
+        boolean running = true;
+        while (true) {
+            int i = node.select(random, EXPLORATION);
+            path.add(node);
+            selected.add(i);
+            sim.perform(node.getChoice(i));
+            if (!sim.advance()) {
+                running = false;
+                break;
+            }
+            long key = sim.getStateKey();
+            Node child = tree.get(key);
+            if (child == null) {
+                tree.add(key, sim.createNode());
+                break;
+            }
+            if (child.getChoiceCount() == 0) break;
+            node = child;
+        }
+
+        if (running) {
+            sim.rollout(ROLLOUT_ROUNDS * sim.getGame().getAllPlayers().length);
+        }
+        double[] rewards = sim.evaluate();
+        for (int j = 0; j < path.size(); j++) {
+            Node n = path.get(j);
+            n.update(selected.get(j), rewards[n.getPlayerIndex()]);
+        }
+    }
+
+    class Worker implements Callable<Void> {
+
+        private Game base;
+        private final Node root;
+        private final Random random;
+
+        /** @param base game copy to be used by worker, created by worker if null */
+        Worker(Game base, Node root, int index) {
+            this.base = base;
+            this.root = root;
+            this.random = new Random(seed + index * 0x9E3779B97F4A7C15L);
+        }
+
+        @Override
+        public Void call() {
+            if (base == null) {
+                base = game.copy(gc);
+            }
+            while (hasNextIteration()) {
+                try {
+                    iterate(base, root, random);
+                    played.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (errors.getAndIncrement() == 0) {
+                        logger.error("Search iteration failed", e);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
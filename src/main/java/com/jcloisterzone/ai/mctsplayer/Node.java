@@ -0,0 +1,105 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Decision point of search tree. Keeps statistics of each choice available to deciding player,
+ * rewards are summed from the point of view of deciding player.
+ *
+ * Node is shared by search threads, choice visit is counted already when choice is selected
+ * and reward is added later (virtual loss), so concurrent threads prefer different choices.
+ */
+class Node {
+
+    private final int playerIndex;
+    private final int packSize;
+    private final Choice[] choices;
+    private final int[] visits;
+    private final double[] rewards;
+    private int totalVisits;
+
+    Node(int playerIndex, int packSize, List<Choice> choices) {
+        this.playerIndex = playerIndex;
+        this.packSize = packSize;
+        this.choices = choices.toArray(new Choice[choices.size()]);
+        this.visits = new int[this.choices.length];
+        this.rewards = new double[this.choices.length];
+    }
+
+    /** index of player deciding in this node */
+    int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /** size of tile pack in node state, nodes with bigger pack can't be reached again */
+    int getPackSize() {
+        return packSize;
+    }
+
+    int getChoiceCount() {
+        return choices.length;
+    }
+
+    Choice getChoice(int i) {
+        return choices[i];
+    }
+
+    synchronized int getTotalVisits() {
+        return totalVisits;
+    }
+
+    synchronized int getVisits(int i) {
+        return visits[i];
+    }
+
+    /**
+     * Selects choice by UCB1 formula, not yet visited choices are selected first in random order.
+     * Visit of selected choice is counted immediately.
+     */
+    synchronized int select(Random random, double exploration) {
+        int selected = -1;
+        int unvisited = 0;
+        for (int i = 0; i < visits.length; i++) {
+            if (visits[i] == 0) unvisited++;
+        }
+        if (unvisited > 0) {
+            int k = random.nextInt(unvisited);
+            for (int i = 0; i < visits.length; i++) {
+                if (visits[i] == 0 && k-- == 0) {
+                    selected = i;
+                    break;
+                }
+            }
+        } else {
+            double logTotal = Math.log(totalVisits);
+            double best = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < visits.length; i++) {
+                double value = rewards[i] / visits[i] + exploration * Math.sqrt(logTotal / visits[i]);
+                if (value > best) {
+                    best = value;
+                    selected = i;
+                }
+            }
+        }
+        visits[selected]++;
+        totalVisits++;
+        return selected;
+    }
+
+    synchronized void update(int i, double reward) {
+        rewards[i] += reward;
+    }
+
+    /** Returns index of most visited choice, higher mean reward wins on equal visits. */
+    synchronized int getBestChoice() {
+        int best = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[best] || (visits[i] == visits[best] && visits[i] > 0
+                    && rewards[i] / visits[i] > rewards[best] / visits[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Search tree shared by search threads and kept between player's decisions.
+ *
+ * Nodes are identified by hash of game state (see {@link Simulation#getStateKey()}), so state reached
+ * by different choice order or in another search is found again. When next decision is searched,
+ * subtree of actually reached state is reused and stale nodes are pruned.
+ */
+class SearchTree {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final ConcurrentMap<Long, Node> nodes = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    SearchTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    SearchTree(int capacity) {
+        this.capacity = capacity;
+    }
+
+    Node get(long key) {
+        return nodes.get(key);
+    }
+
+    /**
+     * Adds node if no node with given key exists.
+     * @return node stored under key or null if tree is full
+     */
+    Node add(long key, Node node) {
+        if (nodes.size() >= capacity) {
+            return nodes.get(key);
+        }
+        Node prev = nodes.putIfAbsent(key, node);
+        return prev == null ? node : prev;
+    }
+
+    /** Removes nodes of states which preceded state with given tile pack size. */
+    void prune(int packSize) {
+        Iterator<Node> iter = nodes.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().getPackSize() > packSize) {
+                iter.remove();
+            }
+        }
+    }
+
+    void clear() {
+        nodes.clear();
+    }
+
+    int size() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,277 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PointCategory;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.SelectActionTask;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.TilePack;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.event.SelectDragonMoveEvent;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.Completable;
+import com.jcloisterzone.feature.Farm;
+import com.jcloisterzone.feature.score.ScoreAllCallback;
+import com.jcloisterzone.feature.score.ScoreAllFeatureFinder;
+import com.jcloisterzone.feature.score.ScoringStrategy;
+import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
+import com.jcloisterzone.feature.visitor.score.FarmScoreContext;
+import com.jcloisterzone.figure.Barn;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.StateHash;
+import com.jcloisterzone.game.phase.DrawPhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.wsio.message.DrawMessage;
+
+/**
+ * Game copy played by search. Phases are entered in calling thread as game controller does it,
+ * but tiles are drawn by given random instead of server. Each simulation thus plays
+ * one sampled order of remaining tiles. Actions of all players are chosen by search or by
+ * light random policy during rollout.
+ *
+ * Game over phase is never entered (it would notify server), game is over when tile pack is empty.
+ */
+class Simulation {
+
+    /** difference of points where reward is approximately 0.88 for leading player */
+    private static final double REWARD_SCALE = 20.0;
+
+    private final Game game;
+    private final Random random;
+
+    private SelectActionEvent pendingAction;
+    private SelectDragonMoveEvent pendingDragonMove;
+    private int draws;
+    private int drawLimit = Integer.MAX_VALUE;
+
+    /**
+     * @param source copied game
+     * @param pendingAction action event source game is waiting for
+     */
+    Simulation(Game source, GameController gc, Random random, SelectActionEvent pendingAction) {
+        this.random = random;
+        this.pendingAction = pendingAction;
+        game = source.copy(gc);
+        game.getEventBus().setSilent(true);
+        game.flushEventQueue(); //drop events posted by copying
+        game.getEventBus().registerCore(this);
+    }
+
+    Game getGame() {
+        return game;
+    }
+
+    SelectActionEvent getPendingAction() {
+        return pendingAction;
+    }
+
+    @Subscribe
+    public void handleSelectAction(SelectActionEvent ev) {
+        pendingAction = ev;
+    }
+
+    @Subscribe
+    public void handleSelectDragonMove(SelectDragonMoveEvent ev) {
+        pendingDragonMove = ev;
+    }
+
+    /**
+     * Enters phases until some player is asked for action.
+     * @return false if game is over or draw limit is reached
+     */
+    boolean advance() {
+        while (true) {
+            Phase phase = game.getPhase();
+            while (!phase.isEntered()) {
+                if (phase instanceof GameOverPhase) return false;
+                phase.setEntered(true);
+                if (phase instanceof DrawPhase) {
+                    TilePack tilePack = game.getTilePack();
+                    if (tilePack.isEmpty() || draws == drawLimit) return false;
+                    draws++;
+                    int[] index = new int[] { random.nextInt(tilePack.size()) };
+                    ((DrawPhase) phase).handleDraw(new DrawMessage(game.getGameId(), tilePack.size(), index));
+                } else {
+                    phase.enter();
+                }
+                phase = game.getPhase();
+                game.flushEventQueue();
+            }
+            game.flushEventQueue();
+            if (pendingDragonMove == null) {
+                return pendingAction != null;
+            }
+            //dragon is not searched, it's moved randomly
+            List<Position> positions = new ArrayList<>(pendingDragonMove.getPositions());
+            pendingDragonMove = null;
+            phase.moveDragon(positions.get(random.nextInt(positions.size())));
+        }
+    }
+
+    /** Performs choice on pending action. */
+    void perform(Choice choice) {
+        SelectActionEvent ev = pendingAction;
+        pendingAction = null;
+        choice.toAiChoice(ev).perform(game.getPhase());
+    }
+
+    /** Returns key of current state, decisions of different players in same state have different keys. */
+    long getStateKey() {
+        return StateHash.mix(StateHash.hash(game) + pendingAction.getTargetPlayer().getIndex());
+    }
+
+    /** Creates search node for pending action. */
+    Node createNode() {
+        return new Node(pendingAction.getTargetPlayer().getIndex(), game.getTilePack().size(), getChoices(pendingAction));
+    }
+
+    /**
+     * Continues game by random choices.
+     * @param maxDraws count of tiles drawn before rollout is stopped
+     */
+    void rollout(int maxDraws) {
+        drawLimit = draws + maxDraws;
+        while (advance()) {
+            SelectActionEvent ev = pendingAction;
+            pendingAction = null;
+            performRandomOption(ev);
+        }
+    }
+
+    /**
+     * Passes with probability 3/4 if pass is allowed (random meeple deployment mostly wastes meeples),
+     * otherwise selects random option of any action.
+     */
+    private void performRandomOption(SelectActionEvent ev) {
+        Phase phase = game.getPhase();
+        if (ev.isPassAllowed() && random.nextInt(4) != 0) {
+            phase.pass();
+            return;
+        }
+        int total = 0;
+        for (PlayerAction<?> action : ev.getActions()) {
+            total += action.getOptions().size();
+        }
+        if (total == 0) {
+            phase.pass();
+            return;
+        }
+        int k = random.nextInt(total);
+        for (PlayerAction<?> action : ev.getActions()) {
+            int size = action.getOptions().size();
+            if (k < size) {
+                performOption(action, k);
+                return;
+            }
+            k -= size;
+        }
+    }
+
+    private <T> void performOption(PlayerAction<T> action, int index) {
+        action.perform(game.getPhase(), action.getOptions().asList().get(index));
+    }
+
+    /**
+     * Evaluates current state for each player. Unfinished features and farms are counted
+     * as in final scoring, reward is in range (0, 1) and grows with point lead over best opponent.
+     * @return rewards indexed by player index
+     */
+    double[] evaluate() {
+        Player[] players = game.getAllPlayers();
+        ProjectedPoints projected = new ProjectedPoints(players);
+        new ScoreAllFeatureFinder().scoreAll(game, projected);
+        game.finalScoring(projected);
+
+        int[] points = projected.points;
+        double[] rewards = new double[players.length];
+        for (int i = 0; i < players.length; i++) {
+            int bestOpponent = Integer.MIN_VALUE;
+            for (int j = 0; j < players.length; j++) {
+                if (j != i && points[j] > bestOpponent) bestOpponent = points[j];
+            }
+            double lead = players.length == 1 ? points[i] : points[i] - bestOpponent;
+            rewards[i] = 0.5 + 0.5 * Math.tanh(lead / REWARD_SCALE);
+        }
+        return rewards;
+    }
+
+    /** Returns all choices of action event, equivalent placements of symmetric tiles are skipped. */
+    static List<Choice> getChoices(SelectActionEvent ev) {
+        List<Choice> choices = new ArrayList<>();
+        List<? extends PlayerAction<?>> actions = ev.getActions();
+        for (int i = 0; i < actions.size(); i++) {
+            PlayerAction<?> action = actions.get(i);
+            Iterable<?> options = action;
+            if (action instanceof TilePlacementAction) {
+                options = SelectActionTask.getDistinctPlacements((TilePlacementAction) action);
+            }
+            for (Object option : options) {
+                choices.add(new Choice(i, option));
+            }
+        }
+        if (ev.isPassAllowed()) {
+            choices.add(new Choice(Choice.PASS, null));
+        }
+        return choices;
+    }
+
+    /** Sums current points and points of final scoring without changing game state. */
+    static class ProjectedPoints implements ScoringStrategy, ScoreAllCallback {
+
+        final int[] points;
+
+        ProjectedPoints(Player[] players) {
+            points = new int[players.length];
+            for (Player p : players) {
+                points[p.getIndex()] = p.getPoints();
+            }
+        }
+
+        @Override
+        public void addPoints(Player player, int points, PointCategory category) {
+            this.points[player.getIndex()] += points;
+        }
+
+        @Override
+        public void scoreCompletableFeature(CompletableScoreContext ctx) {
+            int points = ctx.getPoints();
+            for (Player p : ctx.getMajorOwners()) {
+                addPoints(p, points, null);
+            }
+        }
+
+        @Override
+        public void scoreFarm(FarmScoreContext ctx, Player player) {
+            addPoints(player, ctx.getPoints(player), null);
+        }
+
+        @Override
+        public void scoreBarn(FarmScoreContext ctx, Barn meeple) {
+            addPoints(meeple.getPlayer(), ctx.getBarnPoints(), null);
+        }
+
+        @Override
+        public void scoreCastle(Meeple meeple, Castle castle) {
+            //castle points are not projected
+        }
+
+        @Override
+        public CompletableScoreContext getCompletableScoreContext(Completable completable) {
+            return completable.getScoreContext();
+        }
+
+        @Override
+        public FarmScoreContext getFarmScoreContext(Farm farm) {
+            return farm.getScoreContext();
+        }
+    }
+}
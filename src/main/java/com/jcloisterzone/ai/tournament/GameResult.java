@@ -0,0 +1,96 @@
+package com.jcloisterzone.ai.tournament;
+
+/**
+ * Result of one tournament game. Arrays are indexed by tournament player (order of AI classes
+ * given to {@link Tournament}), not by seat.
+ */
+public class GameResult {
+
+    public enum Status { FINISHED, TIMEOUT, ERROR };
+
+    private final int gameIndex;
+    private final long seed;
+
+    private Status status;
+    private long duration;
+    private int moves;
+    private int[] seats;
+    private int[] points;
+
+    public GameResult(int gameIndex, long seed, int players) {
+        this.gameIndex = gameIndex;
+        this.seed = seed;
+        seats = new int[players];
+        points = new int[players];
+    }
+
+    public int getGameIndex() {
+        return gameIndex;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /** game duration in milliseconds */
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /** count of server messages (player actions and draws) applied to game */
+    public int getMoves() {
+        return moves;
+    }
+
+    public void setMoves(int moves) {
+        this.moves = moves;
+    }
+
+    public int[] getSeats() {
+        return seats;
+    }
+
+    public int[] getPoints() {
+        return points;
+    }
+
+    /** returns 1 for winner, players with same points share rank */
+    public int getRank(int player) {
+        int rank = 1;
+        for (int p : points) {
+            if (p > points[player]) rank++;
+        }
+        return rank;
+    }
+
+    public static String getCsvHeader(String[] aiClassNames) {
+        StringBuilder sb = new StringBuilder("game,seed,status,duration_ms,moves");
+        for (int i = 0; i < aiClassNames.length; i++) {
+            sb.append(",ai").append(i).append(",seat").append(i).append(",points").append(i).append(",rank").append(i);
+        }
+        return sb.toString();
+    }
+
+    public String toCsv(String[] aiClassNames) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(gameIndex).append(',').append(seed).append(',').append(status)
+          .append(',').append(duration).append(',').append(moves);
+        for (int i = 0; i < aiClassNames.length; i++) {
+            sb.append(',').append(aiClassNames[i]).append(',').append(seats[i])
+              .append(',').append(points[i]).append(',').append(getRank(i));
+        }
+        return sb.toString();
+    }
+}
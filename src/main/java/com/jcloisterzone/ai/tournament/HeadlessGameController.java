@@ -0,0 +1,147 @@
+package com.jcloisterzone.ai.tournament;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.wsio.Connection;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.message.DrawMessage;
+import com.jcloisterzone.wsio.message.FlierDiceMessage;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.MakeDrawMessage;
+import com.jcloisterzone.wsio.message.RollFlierDiceMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Game controller without user interface and server.
+ *
+ * RMI calls are not serialized and sent over websocket, they are queued and invoked
+ * directly on current phase. Draws and dice rolls are made by seeded random as
+ * {@link com.jcloisterzone.wsio.server.SimpleServer} does it, so game is repeatable.
+ * Queue is processed by thread calling {@link #processNext(long, TimeUnit)}.
+ */
+public class HeadlessGameController extends GameController {
+
+    private final Config config;
+    private final Random random;
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+    private final LocalConnection connection = new LocalConnection();
+
+    private volatile boolean gameOver;
+    private int processed;
+
+    public HeadlessGameController(Game game, Config config, long seed) {
+        super(null, game);
+        this.config = config;
+        this.random = new Random(seed);
+        //there is no ui to be notified
+        game.getEventBus().unregister(getInvokeInSwingUiAdapter());
+    }
+
+    @Override
+    public Config getConfig() {
+        return config;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+        queue.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    method.invoke(getGame().getPhase(), args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        return null;
+    }
+
+    public void startGame() {
+        ((CreateGamePhase) getGame().getPhase()).startGame();
+        phaseLoop();
+    }
+
+    /**
+     * Waits for next queued message and applies it on game.
+     * @return false if no message was queued within timeout
+     */
+    public boolean processNext(long timeout, TimeUnit unit) throws InterruptedException {
+        Runnable task = queue.poll(timeout, unit);
+        if (task == null) return false;
+        task.run();
+        processed++;
+        phaseLoop();
+        return true;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /** returns count of applied messages */
+    public int getProcessed() {
+        return processed;
+    }
+
+    private void deliver(final WsMessage msg) {
+        queue.add(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatch(msg, connection, getGame().getPhase());
+            }
+        });
+    }
+
+    private class LocalConnection extends Connection {
+
+        public LocalConnection() {
+            super(null);
+        }
+
+        @Override
+        public void send(WsMessage msg) {
+            if (msg instanceof MakeDrawMessage) {
+                MakeDrawMessage draw = (MakeDrawMessage) msg;
+                int[] result = new int[draw.getK()];
+                int n = draw.getPackSize();
+                for (int i = 0; i < draw.getK(); i++) {
+                    result[i] = random.nextInt(n--);
+                }
+                deliver(new DrawMessage(draw.getGameId(), draw.getPackSize(), result));
+            } else if (msg instanceof RollFlierDiceMessage) {
+                RollFlierDiceMessage roll = (RollFlierDiceMessage) msg;
+                deliver(new FlierDiceMessage(roll.getGameId(), roll.getMeepleType(), 1 + random.nextInt(3)));
+            } else if (msg instanceof GameOverMessage) {
+                gameOver = true;
+            } else {
+                logger.warn("Message ignored: {}", msg);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.jcloisterzone.ai.tournament;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.tournament.GameResult.Status;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.PlayerSlot;
+
+/**
+ * Headless batch of AI only games. Games are played without user interface and server,
+ * in parallel on all cores. Each game has own seed derived from tournament seed,
+ * so whole tournament can be repeated. Results are written as CSV, one line per game.
+ *
+ * Usage:
+ * <pre>
+ * java -Dgames=100 -Dseed=1 -Doutput=results.csv -cp JCloisterZone.jar com.jcloisterzone.ai.tournament.Tournament
+ *     com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer com.jcloisterzone.ai.DummyAiPlayer
+ * </pre>
+ *
+ * System properties: games, seed, threads, output, expansions (comma separated), move_timeout (ms),
+ * search_budget (ms per AI move, unlimited by default).
+ */
+public class Tournament {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tournament.class);
+
+    private final String[] aiClassNames;
+    private int games = 10;
+    private long seed = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long moveTimeout = 60000;
+    private Set<Expansion> expansions = EnumSet.of(Expansion.BASIC);
+    private Set<CustomRule> customRules = EnumSet.noneOf(CustomRule.class);
+    private Config config = new Config();
+
+    public Tournament(String[] aiClassNames) {
+        if (aiClassNames.length < 1 || aiClassNames.length > PlayerSlot.COUNT) {
+            throw new IllegalArgumentException("Tournament requires 1 to " + PlayerSlot.COUNT + " players.");
+        }
+        this.aiClassNames = aiClassNames;
+        Collections.addAll(customRules, CustomRule.defaultEnabled());
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setMoveTimeout(long moveTimeout) {
+        this.moveTimeout = moveTimeout;
+    }
+
+    public void setExpansions(Set<Expansion> expansions) {
+        this.expansions = expansions;
+    }
+
+    public void setCustomRules(Set<CustomRule> customRules) {
+        this.customRules = customRules;
+    }
+
+    public void setConfig(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Plays all games and writes results to given writer in game order.
+     */
+    public List<GameResult> run(PrintWriter out) throws InterruptedException {
+        Random seeds = new Random(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<GameResult>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            TournamentGame game = new TournamentGame(i, seeds.nextLong(), aiClassNames,
+                expansions, customRules, config, moveTimeout);
+            futures.add(executor.submit(game));
+        }
+        executor.shutdown();
+
+        List<GameResult> results = new ArrayList<>(games);
+        out.println(GameResult.getCsvHeader(aiClassNames));
+        try {
+            for (Future<GameResult> future : futures) {
+                GameResult result = future.get();
+                results.add(result);
+                out.println(result.toCsv(aiClassNames));
+                out.flush();
+                logger.info("Game {} {} in {} ms", result.getGameIndex(), result.getStatus(), result.getDuration());
+            }
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    public void printSummary(List<GameResult> results) {
+        int finished = 0;
+        int[] wins = new int[aiClassNames.length];
+        long[] points = new long[aiClassNames.length];
+        long duration = 0;
+        for (GameResult result : results) {
+            if (result.getStatus() != Status.FINISHED) continue;
+            finished++;
+            duration += result.getDuration();
+            for (int i = 0; i < aiClassNames.length; i++) {
+                points[i] += result.getPoints()[i];
+                if (result.getRank(i) == 1) wins[i]++;
+            }
+        }
+        System.out.println(String.format("Finished %d of %d games, avg game time %d ms",
+            finished, results.size(), finished == 0 ? 0 : duration / finished));
+        for (int i = 0; i < aiClassNames.length; i++) {
+            System.out.println(String.format("%d %s: wins %d, avg points %.1f", i, aiClassNames[i],
+                wins[i], finished == 0 ? 0.0 : (double) points[i] / finished));
+        }
+    }
+
+    private static Set<Expansion> parseExpansions(String value) {
+        Set<Expansion> expansions = EnumSet.of(Expansion.BASIC);
+        for (String tok : value.split(",")) {
+            tok = tok.trim();
+            if (tok.length() > 0) {
+                expansions.add(Expansion.valueOf(tok));
+            }
+        }
+        return expansions;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: Tournament <ai class name> [<ai class name> ...]");
+            System.exit(1);
+        }
+        Tournament tournament = new Tournament(args);
+        tournament.setGames(Integer.getInteger("games", 10));
+        tournament.setSeed(Long.getLong("seed", 1L));
+        tournament.setThreads(Integer.getInteger("threads", Runtime.getRuntime().availableProcessors()));
+        tournament.setMoveTimeout(Long.getLong("move_timeout", 60000L));
+        String expansions = System.getProperty("expansions");
+        if (expansions != null) {
+            tournament.setExpansions(parseExpansions(expansions));
+        }
+        Integer searchBudget = Integer.getInteger("search_budget");
+        if (searchBudget != null) {
+            Config config = new Config();
+            config.setAi_search_budget(searchBudget);
+            tournament.setConfig(config);
+        }
+        String output = System.getProperty("output", "tournament.csv");
+
+        List<GameResult> results;
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), "UTF-8"))) {
+            results = tournament.run(out);
+        }
+        tournament.printSummary(results);
+        //default executor of ranking AI players is not daemon
+        System.exit(0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.jcloisterzone.ai.tournament;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.ai.RankingAiPlayer;
+import com.jcloisterzone.ai.mctsplayer.MctsAiPlayer;
+import com.jcloisterzone.ai.tournament.GameResult.Status;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+
+/**
+ * Plays one complete AI only game in calling thread.
+ */
+public class TournamentGame implements Callable<GameResult> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TournamentGame.class);
+
+    /** runs AI search directly in game thread, games itself are running in parallel */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final int gameIndex;
+    private final long seed;
+    private final String[] aiClassNames;
+    private final Set<Expansion> expansions;
+    private final Set<CustomRule> customRules;
+    private final Config config;
+    private final long moveTimeout;
+
+    /**
+     * @param moveTimeout max time in milliseconds to wait for any player action
+     */
+    public TournamentGame(int gameIndex, long seed, String[] aiClassNames, Set<Expansion> expansions,
+            Set<CustomRule> customRules, Config config, long moveTimeout) {
+        this.gameIndex = gameIndex;
+        this.seed = seed;
+        this.aiClassNames = aiClassNames;
+        this.expansions = expansions;
+        this.customRules = customRules;
+        this.config = config;
+        this.moveTimeout = moveTimeout;
+    }
+
+    private PlayerSlot[] createSlots() {
+        PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+        for (int i = 0; i < slots.length; i++) {
+            PlayerSlot slot = new PlayerSlot(i);
+            if (i < aiClassNames.length) {
+                slot.setState(SlotState.OWN);
+                slot.setNickname("AI " + i);
+                slot.setAiClassName(aiClassNames[i]);
+                //rotate seating order to eliminate first player advantage
+                slot.setSerial((i + gameIndex) % aiClassNames.length);
+            }
+            slots[i] = slot;
+        }
+        return slots;
+    }
+
+    @Override
+    public GameResult call() throws Exception {
+        GameResult result = new GameResult(gameIndex, seed, aiClassNames.length);
+        Game game = new Game(String.valueOf(gameIndex));
+        game.getExpansions().addAll(expansions);
+        game.getCustomRules().addAll(customRules);
+
+        HeadlessGameController gc = new HeadlessGameController(game, config, seed);
+        CreateGamePhase phase = new CreateGamePhase(game, gc) {
+            @Override
+            protected AiPlayer createAiPlayer(PlayerSlot slot) throws ReflectiveOperationException {
+                AiPlayer ai = super.createAiPlayer(slot);
+                if (ai instanceof RankingAiPlayer) {
+                    ((RankingAiPlayer) ai).setExecutor(DIRECT_EXECUTOR);
+                }
+                if (ai instanceof MctsAiPlayer) {
+                    ((MctsAiPlayer) ai).setExecutor(DIRECT_EXECUTOR);
+                }
+                return ai;
+            }
+        };
+        phase.setSlots(createSlots());
+        game.getPhases().put(CreateGamePhase.class, phase);
+        game.setPhase(phase);
+
+        long start = System.currentTimeMillis();
+        try {
+            gc.startGame();
+            while (!gc.isGameOver()) {
+                if (!gc.processNext(moveTimeout, TimeUnit.MILLISECONDS)) {
+                    logger.error("Game {} (seed {}): no action in {} ms, game terminated", gameIndex, seed, moveTimeout);
+                    result.setStatus(Status.TIMEOUT);
+                    break;
+                }
+            }
+            if (gc.isGameOver()) {
+                result.setStatus(Status.FINISHED);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Game " + gameIndex + " (seed " + seed + ") failed", e);
+            result.setStatus(Status.ERROR);
+        }
+        result.setDuration(System.currentTimeMillis() - start);
+        result.setMoves(gc.getProcessed());
+
+        if (game.getAllPlayers() == null) return result;
+        for (Player player : game.getAllPlayers()) {
+            int i = player.getSlot().getNumber();
+            result.getSeats()[i] = player.getIndex();
+            result.getPoints()[i] = player.getPoints();
+        }
+        return result;
+    }
+}
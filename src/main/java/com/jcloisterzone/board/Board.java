@@ -6,15 +6,18 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import com.google.common.base.Function;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.StateHash;
 import com.jcloisterzone.game.capability.BridgeCapability;
 
 
@@ -27,11 +30,16 @@ import com.jcloisterzone.game.capability.BridgeCapability;
  */
 public class Board {
     protected final Map<Position,Tile> tiles = new LinkedHashMap<Position,Tile>();
+    /** placed tiles by packed coordinates, used for lookups; <code>tiles</code> keeps placement order */
+    private final PackedTileMap grid = new PackedTileMap();
     protected final Map<Position, EdgePattern> availMoves = new HashMap<>();
+    /** open positions grouped by edge pattern, patterns are equal if they differs only in rotation */
+    protected final Map<EdgePattern, Set<Position>> availMovesByPattern = new LinkedHashMap<>();
     protected final Map<Position, Set<Rotation>> currentAvailMoves = new HashMap<>();
     protected final Set<Position> holes = new HashSet<>();
 
     private int maxX, minX, maxY, minY;
+    private long tilesHash;
 
     private final Game game;
 
@@ -46,26 +54,64 @@ public class Board {
     }
 
     /**
-     * Updates current avail moves for next turn
+     * Fills this (empty) board with state of another board.
+     * @param board source board
+     * @param tileCopier provides copy for each placed or discarded tile
+     */
+    public void copyFrom(Board board, Function<Tile, Tile> tileCopier) {
+        for (Entry<Position, Tile> entry : board.tiles.entrySet()) {
+            Position p = entry.getKey();
+            Tile copy = tileCopier.apply(entry.getValue());
+            tiles.put(p, copy);
+            grid.put(p.x, p.y, copy);
+        }
+        availMoves.putAll(board.availMoves);
+        for (Entry<EdgePattern, Set<Position>> entry : board.availMovesByPattern.entrySet()) {
+            availMovesByPattern.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+        for (Entry<Position, Set<Rotation>> entry : board.currentAvailMoves.entrySet()) {
+            currentAvailMoves.put(entry.getKey(), EnumSet.copyOf(entry.getValue()));
+        }
+        holes.addAll(board.holes);
+        tilesHash = board.tilesHash;
+        maxX = board.maxX;
+        minX = board.minX;
+        maxY = board.maxY;
+        minY = board.minY;
+        for (Tile tile : board.discardedTiles) {
+            discardedTiles.add(tileCopier.apply(tile));
+        }
+    }
+
+    /**
+     * Updates current avail moves for next turn.
+     * Positions are visited by edge pattern groups, group is skipped at once
+     * when tile can't match its pattern in any rotation.
      * @param tile next tile
      */
     public void refreshAvailablePlacements(Tile tile) {
         Rotation tileRotation = tile.getRotation();
+        EdgePattern tilePattern = tile.getEdgePattern();
+        BridgeCapability bridgeCap = game.getCapability(BridgeCapability.class);
         currentAvailMoves.clear();
-        for (Position p : availMoves.keySet()) {
-            EnumSet<Rotation> allowed = EnumSet.noneOf(Rotation.class);
-            for (Rotation rotation: Rotation.values()) {
-                tile.setRotation(rotation);
-                if (!isPlacementAllowed(tile, p)) {
-                    //not allowed according standard rules, must check if deployed bridge can allow it
-                    if (!game.hasCapability(BridgeCapability.class)) continue;
-                    if (!game.getCapability(BridgeCapability.class).isTilePlacementWithBridgePossible(tile, p)) continue;
+        for (Entry<EdgePattern, Set<Position>> entry : availMovesByPattern.entrySet()) {
+            if (bridgeCap == null && !entry.getKey().isMatching(tilePattern)) continue;
+            for (Position p : entry.getValue()) {
+                EdgePattern pattern = availMoves.get(p);
+                EnumSet<Rotation> allowed = EnumSet.noneOf(Rotation.class);
+                for (Rotation rotation: Rotation.values()) {
+                    tile.setRotation(rotation);
+                    if (!pattern.isMatching(tilePattern, rotation)) {
+                        //not allowed according standard rules, must check if deployed bridge can allow it
+                        if (bridgeCap == null) continue;
+                        if (!bridgeCap.isTilePlacementWithBridgePossible(tile, p)) continue;
+                    }
+                    if (!game.isTilePlacementAllowed(tile, p)) continue;
+                    allowed.add(rotation);
+                }
+                if (!allowed.isEmpty()) {
+                    currentAvailMoves.put(p, allowed);
                 }
-                if (!game.isTilePlacementAllowed(tile, p)) continue;
-                allowed.add(rotation);
-            }
-            if (!allowed.isEmpty()) {
-                currentAvailMoves.put(p, allowed);
             }
         }
         tile.setRotation(tileRotation); //reset rotation
@@ -73,11 +119,46 @@ public class Board {
 
 
     protected void availMovesAdd(Position pos) {
-        availMoves.put(pos, EdgePattern.forEmptyTile(this, pos));
+        EdgePattern pattern = EdgePattern.forEmptyTile(this, pos);
+        EdgePattern prev = availMoves.put(pos, pattern);
+        if (prev != null) {
+            if (prev.equals(pattern)) return;
+            availMovesIndexRemove(prev, pos);
+        }
+        Set<Position> positions = availMovesByPattern.get(pattern);
+        if (positions == null) {
+            positions = new LinkedHashSet<>();
+            availMovesByPattern.put(pattern, positions);
+        }
+        positions.add(pos);
     }
 
     protected void availMovesRemove(Position pos) {
-        availMoves.remove(pos);
+        EdgePattern prev = availMoves.remove(pos);
+        if (prev != null) {
+            availMovesIndexRemove(prev, pos);
+        }
+    }
+
+    private void availMovesIndexRemove(EdgePattern pattern, Position pos) {
+        Set<Position> positions = availMovesByPattern.get(pattern);
+        positions.remove(pos);
+        if (positions.isEmpty()) {
+            availMovesByPattern.remove(pattern);
+        }
+    }
+
+    /**
+     * Recomputes edge patterns of open positions around given position.
+     * Must be called when edges of placed tile are changed (eg. bridge is deployed).
+     */
+    public void refreshAdjacentAvailMoves(Position pos) {
+        for (int i = 0; i < 4; i++) {
+            Position next = new Position(pos.x + Position.SIDE_DX[i], pos.y + Position.SIDE_DY[i]);
+            if (availMoves.containsKey(next)) {
+                availMovesAdd(next);
+            }
+        }
     }
 
     public EdgePattern getAvailMoveEdgePattern(Position pos) {
@@ -113,13 +194,16 @@ public class Board {
         }
 
         tiles.put(p, tile);
+        grid.put(p.x, p.y, tile);
+        tilesHash ^= StateHash.tileKey(tile, p);
         availMovesRemove(p);
 
-        for (Position offset: Position.ADJACENT.values()) {
-            Position next = p.add(offset);
-            if (get(next) == null) {
+        for (int i = 0; i < 4; i++) {
+            int x = p.x + Position.SIDE_DX[i], y = p.y + Position.SIDE_DY[i];
+            if (get(x, y) == null) {
+                Position next = new Position(x, y);
                 availMovesAdd(next);
-                if (isHole(next)) {
+                if (isHole(x, y)) {
                     holes.add(next);
                 }
             }
@@ -142,14 +226,21 @@ public class Board {
         Position pos = tile.getPosition();
         assert pos != null;
         tiles.remove(pos);
+        grid.remove(pos.x, pos.y);
+        tilesHash ^= StateHash.tileKey(tile, pos);
         tile.setPosition(null);
         availMovesAdd(pos);
-        if (isHole(pos)) holes.add(pos);
-        for (Position offset: Position.ADJACENT.values()) {
-            Position next = pos.add(offset);
+        if (isHole(pos.x, pos.y)) holes.add(pos);
+        for (int i = 0; i < 4; i++) {
+            int x = pos.x + Position.SIDE_DX[i], y = pos.y + Position.SIDE_DY[i];
+            if (get(x, y) != null) continue;
+            Position next = new Position(x, y);
             holes.remove(next);
-            if (getAdjacentCount(next) == 0) {
-                availMoves.remove(next);
+            if (getAdjacentCount(x, y) == 0) {
+                availMovesRemove(next);
+            } else {
+                //removed tile edge is open again
+                availMovesAdd(next);
             }
         }
     }
@@ -171,21 +262,19 @@ public class Board {
         return discardedTiles;
     }
 
-    private boolean isHole(Position p) {
-        for (Position offset: Position.ADJACENT.values()) {
-            Position next = p.add(offset);
-            if (get(next) == null) {
+    private boolean isHole(int x, int y) {
+        for (int i = 0; i < 4; i++) {
+            if (get(x + Position.SIDE_DX[i], y + Position.SIDE_DY[i]) == null) {
                 return false;
             }
         }
         return true;
     }
 
-    private int getAdjacentCount(Position p) {
+    private int getAdjacentCount(int x, int y) {
         int count = 0;
-        for (Position offset: Position.ADJACENT.values()) {
-            Position next = p.add(offset);
-            if (get(next) != null) {
+        for (int i = 0; i < 4; i++) {
+            if (get(x + Position.SIDE_DX[i], y + Position.SIDE_DY[i]) != null) {
                 count++;
             }
         }
@@ -212,18 +301,25 @@ public class Board {
      * @return demand tile
      */
     public Tile get(int x, int y) {
-        return tiles.get(new Position(x, y));
+        return grid.get(x, y);
     }
 
     public Tile get(Position p) {
-        return tiles.get(p);
+        return grid.get(p.x, p.y);
     }
 
     public Feature get(FeaturePointer fp) {
-        Tile tile =  tiles.get(fp.getPosition());
+        Tile tile =  get(fp.getPosition());
         return tile == null ? null : tile.getFeaturePartOf(fp.getLocation());
     }
 
+    /**
+     * Returns Zobrist hash of placed tiles, see {@link StateHash}.
+     */
+    public long getTilesHash() {
+        return tilesHash;
+    }
+
     public Collection<Tile> getAllTiles() {
         return tiles.values();
     }
@@ -268,10 +364,11 @@ public class Board {
 
     public Map<Location, Tile> getAdjacentTilesMap(Position pos) {
         Map<Location, Tile> tiles = new HashMap<Location, Tile>(4);
-        for (Entry<Location, Position> e: Position.ADJACENT.entrySet()) {
-            Tile tile = get(e.getValue().add(pos));
+        Location[] sides = Location.sides();
+        for (int i = 0; i < sides.length; i++) {
+            Tile tile = get(pos.x + Position.SIDE_DX[i], pos.y + Position.SIDE_DY[i]);
             if (tile != null) {
-                tiles.put(e.getKey(), tile);
+                tiles.put(sides[i], tile);
             }
         }
         return tiles;
@@ -284,7 +381,7 @@ public class Board {
     public int getContinuousRowSize(Position start, Location direction) {
         start = start.add(direction);
         int size = 0;
-        while (get(start) != null) {
+        while (get(start.x, start.y) != null) {
             size++;
             start = start.add(direction);
         }
@@ -1,9 +1,7 @@
 package com.jcloisterzone.board;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -12,17 +10,23 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class DefaultTilePack implements TilePack {
+import com.google.common.base.Function;
 
-    static class TileGroup {
-        final ArrayList<Tile> tiles = new ArrayList<>();
-        TileGroupState state = TileGroupState.WAITING;
-    }
+/**
+ * Tile pack keeping sizes of active and not retired groups and counts of edge patterns
+ * up to date, so size and pattern queries don't iterate tiles. See {@link TileGroup}
+ * and {@link EdgePatternCounts}.
+ */
+public class DefaultTilePack implements TilePack {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
     private Map<String, TileGroup> groups = new HashMap<>();
-    private Map<EdgePattern, Integer> edgePatterns = new HashMap<>();
+    private EdgePatternCounts edgePatterns = new EdgePatternCounts();
+    /** count of tiles in active groups */
+    private int activeSize;
+    /** count of tiles in not retired groups */
+    private int totalSize;
 
 
     public DefaultTilePack() {
@@ -31,15 +35,33 @@ public class DefaultTilePack implements TilePack {
         groups.put(INACTIVE_GROUP, inactive);
     }
 
-    @Override
-    public int totalSize() {
-        int n = 0;
-        for (TileGroup group: groups.values()) {
-            if (group.state != TileGroupState.RETIRED) {
-                n += group.tiles.size();
+    /**
+     * Creates copy of tile pack with same groups and their states.
+     * @param tileCopier provides copy for each tile in pack
+     */
+    public DefaultTilePack copy(Function<Tile, Tile> tileCopier) {
+        DefaultTilePack copy = new DefaultTilePack();
+        for (Entry<String, TileGroup> entry : groups.entrySet()) {
+            TileGroup source = entry.getValue();
+            TileGroup group = new TileGroup();
+            group.state = source.state;
+            for (int i = 0; i < source.getSlotCount(); i++) {
+                Tile tile = source.getSlot(i);
+                if (tile != null) {
+                    group.add(tileCopier.apply(tile));
+                }
             }
+            copy.groups.put(entry.getKey(), group);
         }
-        return n;
+        copy.edgePatterns = edgePatterns.copy();
+        copy.activeSize = activeSize;
+        copy.totalSize = totalSize;
+        return copy;
+    }
+
+    @Override
+    public int totalSize() {
+        return totalSize;
     }
 
     @Override
@@ -49,13 +71,7 @@ public class DefaultTilePack implements TilePack {
 
     @Override
     public int size() {
-        int n = 0;
-        for (TileGroup group: groups.values()) {
-            if (group.state == TileGroupState.ACTIVE) {
-                n += group.tiles.size();
-            }
-        }
-        return n;
+        return activeSize;
     }
 
     @Override
@@ -63,13 +79,13 @@ public class DefaultTilePack implements TilePack {
         for (Entry<String,TileGroup> entry: groups.entrySet()) {
             TileGroup group = entry.getValue();
             if (group.state != TileGroupState.ACTIVE) continue;
-            ArrayList<Tile> tiles = group.tiles;
-            if (index < tiles.size()) {
-                Tile currentTile = tiles.remove(index);
+            if (index < group.size()) {
+                Tile currentTile = group.remove(index);
+                tileRemoved(group);
                 decreaseSideMaskCounter(currentTile, entry.getKey());
                 return currentTile;
             } else {
-                index -= tiles.size();
+                index -= group.size();
             }
         }
         throw new ArrayIndexOutOfBoundsException();
@@ -84,39 +100,32 @@ public class DefaultTilePack implements TilePack {
         return result;
     }
 
+    private void tileRemoved(TileGroup group) {
+        if (group.state == TileGroupState.ACTIVE) activeSize--;
+        if (group.state != TileGroupState.RETIRED) totalSize--;
+    }
+
     private void increaseSideMaskCounter(Tile tile, String groupId) {
         if (!INACTIVE_GROUP.equals(groupId) && tile.getPosition() == null) {
-            Integer countForSideMask = edgePatterns.get(tile.getEdgePattern());
-            if (countForSideMask == null) {
-                edgePatterns.put(tile.getEdgePattern(), 1);
-            } else {
-                edgePatterns.put(tile.getEdgePattern(), countForSideMask + 1);
-            }
+            edgePatterns.increase(tile.getEdgePattern());
         }
     }
 
     private void decreaseSideMaskCounter(Tile tile, String groupId) {
         if (tile == null || groupId.equals(INACTIVE_GROUP)) return;
-        Integer count = edgePatterns.get(tile.getEdgePattern());
-        if (count == null) {
+        if (!edgePatterns.decrease(tile.getEdgePattern())) {
             logger.error("Inconsistent edge mask statistics. Cannot decrease: " + tile.getEdgePattern().toString());
-            return;
-        }
-        if (count == 1) {
-            edgePatterns.remove(tile.getEdgePattern());
-        } else {
-            edgePatterns.put(tile.getEdgePattern(), count - 1);
         }
     }
 
     @Override
     public Tile drawTile(String groupId, String tileId) {
-        ArrayList<Tile> tiles = groups.get(groupId).tiles;
-        Iterator<Tile> i = tiles.iterator();
-        while(i.hasNext()) {
-            Tile tile = i.next();
-            if (tile.getId().equals(tileId)) {
-                i.remove();
+        TileGroup group = groups.get(groupId);
+        for (int i = 0; i < group.getSlotCount(); i++) {
+            Tile tile = group.getSlot(i);
+            if (tile != null && tile.getId().equals(tileId)) {
+                group.removeSlot(i);
+                tileRemoved(group);
                 decreaseSideMaskCounter(tile, groupId);
                 return tile;
             }
@@ -138,13 +147,13 @@ public class DefaultTilePack implements TilePack {
         List<Tile> result = new ArrayList<>();
         for (Entry<String, TileGroup> entry: groups.entrySet()) {
             TileGroup group = entry.getValue();
-            Iterator<Tile> i = group.tiles.iterator();
-            while(i.hasNext()) {
-                Tile tile = i.next();
-                if (tile.getPosition() != null) {
+            for (int i = 0; i < group.getSlotCount(); i++) {
+                Tile tile = group.getSlot(i);
+                if (tile != null && tile.getPosition() != null) {
                     if (group.state == TileGroupState.ACTIVE) {
                         result.add(tile);
-                        i.remove();
+                        group.removeSlot(i);
+                        tileRemoved(group);
                     } else {
                         tile.setPosition(null);
                         increaseSideMaskCounter(tile, entry.getKey());
@@ -161,7 +170,9 @@ public class DefaultTilePack implements TilePack {
             group = new TileGroup();
             groups.put(groupId, group);
         }
-        group.tiles.add(tile);
+        group.add(tile);
+        if (group.state == TileGroupState.ACTIVE) activeSize++;
+        if (group.state != TileGroupState.RETIRED) totalSize++;
         increaseSideMaskCounter(tile, groupId);
     }
 
@@ -170,10 +181,18 @@ public class DefaultTilePack implements TilePack {
         //can be called with non-existing group (from expansion etc.)
         TileGroup group = groups.get(groupId);
         if (group != null) {
+            if (group.state == TileGroupState.ACTIVE) activeSize -= group.size();
+            if (group.state != TileGroupState.RETIRED) totalSize -= group.size();
             group.state = state;
+            if (state == TileGroupState.ACTIVE) activeSize += group.size();
+            if (state != TileGroupState.RETIRED) totalSize += group.size();
         }
     }
 
+    TileGroup getGroup(String groupId) {
+        return groups.get(groupId);
+    }
+
     @Override
     public TileGroupState getGroupState(String groupId) {
         TileGroup group = groups.get(groupId);
@@ -189,8 +208,10 @@ public class DefaultTilePack implements TilePack {
     /* special Abbey related methods - TODO refactor it is here only for client */
     @Override
     public Tile getAbbeyTile() {
-        for (Tile tile : groups.get(INACTIVE_GROUP).tiles) {
-            if (tile.getId().equals(Tile.ABBEY_TILE_ID)) {
+        TileGroup group = groups.get(INACTIVE_GROUP);
+        for (int i = 0; i < group.getSlotCount(); i++) {
+            Tile tile = group.getSlot(i);
+            if (tile != null && tile.getId().equals(Tile.ABBEY_TILE_ID)) {
                 return tile;
             }
         }
@@ -199,12 +220,7 @@ public class DefaultTilePack implements TilePack {
 
     @Override
     public int getSizeForEdgePattern(EdgePattern pattern) {
-        int size = 0;
-        for (EdgePattern filled : pattern.fill()) {
-            Integer count = edgePatterns.get(filled);
-            size += count == null ? 0 : count;
-        }
-        return size;
+        return edgePatterns.get(pattern);
     }
 
 }
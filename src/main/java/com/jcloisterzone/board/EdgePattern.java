@@ -11,6 +11,12 @@ import com.jcloisterzone.feature.Road;
 
 public class EdgePattern {
 
+	/** number of distinct pattern indexes, see {@link #getIndex()} */
+	static final int INDEX_SIZE = 256;
+	/** index value of wildcard edge */
+	static final int WILDCARD = 3;
+	private static final String INDEX_EDGES = "RCF?";
+
 	private char[] code = new char[4];
 
 	private EdgePattern() { }
@@ -45,13 +51,15 @@ public class EdgePattern {
 
 	public static EdgePattern forEmptyTile(Board board, Position pos) {
 		EdgePattern pattern = new EdgePattern();
-		for (Location loc : Location.sides()) {
-			Tile t = board.get(pos.add(loc));
+		Location[] sides = Location.sides();
+		for (int i = 0; i < sides.length; i++) {
+			Location loc = sides[i];
+			Tile t = board.get(pos.x + Position.SIDE_DX[i], pos.y + Position.SIDE_DY[i]);
 			int idx = indexfor (loc);
 			if (t == null) {
 				pattern.code[idx] = '?';
 			} else {
-				pattern.code[idx] = getTileEdgePattern(t, loc.rev());
+				pattern.code[idx] = t.getEdge(loc.rev()); //same edge as compared by Tile.check
 			}
 		}
 		return pattern;
@@ -65,6 +73,27 @@ public class EdgePattern {
 		return at(loc.rotateCCW(rotation));
 	}
 
+	/**
+	 * Checks if tile with given edge pattern and rotation fits this empty position pattern.
+	 */
+	public boolean isMatching(EdgePattern tilePattern, Rotation rotation) {
+		for (Location loc : Location.sides()) {
+			char ch = at(loc);
+			if (ch != '?' && ch != tilePattern.at(loc, rotation)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if tile with given edge pattern fits this empty position pattern in any rotation.
+	 */
+	public boolean isMatching(EdgePattern tilePattern) {
+		for (Rotation rotation : Rotation.values()) {
+			if (isMatching(tilePattern, rotation)) return true;
+		}
+		return false;
+	}
+
 	public int wildcardSize() {
 		int size = 0;
 		for (int i = 0; i < code.length; i++) {
@@ -73,6 +102,20 @@ public class EdgePattern {
 		return size;
 	}
 
+	/**
+	 * Returns pattern encoded as number, two bits per edge (in order R, C, F, ?).
+	 * @return index lower than {@link #INDEX_SIZE} or -1 if pattern contains other edge
+	 */
+	int getIndex() {
+		int index = 0;
+		for (int i = 0; i < code.length; i++) {
+			int value = INDEX_EDGES.indexOf(code[i]);
+			if (value == -1) return -1;
+			index |= value << (i * 2);
+		}
+		return index;
+	}
+
 	private EdgePattern switchEdge(int i, char ch) {
 		char[] switched = Arrays.copyOf(code, code.length);
 		switched[i] = ch;
@@ -88,9 +131,9 @@ public class EdgePattern {
 			EdgePattern p = q.poll();
 			int i = 0;
 			while(p.code[i] != '?') i++;
-			q.add(switchEdge(i, 'R'));
-			q.add(switchEdge(i, 'C'));
-			q.add(switchEdge(i, 'F'));
+			q.add(p.switchEdge(i, 'R'));
+			q.add(p.switchEdge(i, 'C'));
+			q.add(p.switchEdge(i, 'F'));
 		}
 		return q;
 	}
@@ -0,0 +1,117 @@
+package com.jcloisterzone.board;
+
+/**
+ * Counts of tile edge patterns with precomputed counts for all patterns with wildcards.
+ *
+ * Pattern is indexed by {@link EdgePattern#getIndex()}. Count for pattern with wildcards is sum
+ * of counts of all its fillings ({@link EdgePattern#fill()}), updated when tile count changes,
+ * so query doesn't need expand pattern.
+ */
+class EdgePatternCounts {
+
+    /** for each pattern index of tile: indexes of wildcard patterns which it fills */
+    private static final int[][] FILLED_PATTERNS = new int[EdgePattern.INDEX_SIZE][];
+    /** for each pattern index of tile: number of fillings of FILLED_PATTERNS equal to tile pattern */
+    private static final int[][] FILL_COUNTS = new int[EdgePattern.INDEX_SIZE][];
+
+    static {
+        int[][] fills = new int[EdgePattern.INDEX_SIZE][EdgePattern.INDEX_SIZE];
+        for (int pattern = 0; pattern < EdgePattern.INDEX_SIZE; pattern++) {
+            countFills(fills[pattern], pattern, 0);
+        }
+        for (int tile = 0; tile < EdgePattern.INDEX_SIZE; tile++) {
+            int rotated = canonize(tile);
+            int n = 0;
+            for (int pattern = 0; pattern < EdgePattern.INDEX_SIZE; pattern++) {
+                if (fills[pattern][rotated] > 0) n++;
+            }
+            FILLED_PATTERNS[tile] = new int[n];
+            FILL_COUNTS[tile] = new int[n];
+            n = 0;
+            for (int pattern = 0; pattern < EdgePattern.INDEX_SIZE; pattern++) {
+                if (fills[pattern][rotated] > 0) {
+                    FILLED_PATTERNS[tile][n] = pattern;
+                    FILL_COUNTS[tile][n] = fills[pattern][rotated];
+                    n++;
+                }
+            }
+        }
+    }
+
+    /** Counts fillings of pattern (from edge with given position) by its canonical index. */
+    private static void countFills(int[] counts, int pattern, int edge) {
+        if (edge == 4) {
+            counts[canonize(pattern)]++;
+            return;
+        }
+        int shift = edge * 2;
+        if ((pattern >> shift & 3) == EdgePattern.WILDCARD) {
+            int cleared = pattern & ~(3 << shift);
+            for (int value = 0; value < EdgePattern.WILDCARD; value++) {
+                countFills(counts, cleared | value << shift, edge + 1);
+            }
+        } else {
+            countFills(counts, pattern, edge + 1);
+        }
+    }
+
+    /** Returns minimal index of all pattern rotations, equal patterns has same canonical index. */
+    private static int canonize(int pattern) {
+        int min = pattern;
+        for (int i = 1; i < 4; i++) {
+            pattern = (pattern >> 2) | (pattern & 3) << 6;
+            if (pattern < min) min = pattern;
+        }
+        return min;
+    }
+
+    /** counts of tiles by canonical index of their patterns */
+    private final int[] tileCounts;
+    /** counts matching to pattern by pattern index */
+    private final int[] patternCounts;
+
+    EdgePatternCounts() {
+        tileCounts = new int[EdgePattern.INDEX_SIZE];
+        patternCounts = new int[EdgePattern.INDEX_SIZE];
+    }
+
+    private EdgePatternCounts(EdgePatternCounts source) {
+        tileCounts = source.tileCounts.clone();
+        patternCounts = source.patternCounts.clone();
+    }
+
+    EdgePatternCounts copy() {
+        return new EdgePatternCounts(this);
+    }
+
+    void increase(EdgePattern tilePattern) {
+        update(tilePattern.getIndex(), 1);
+    }
+
+    /**
+     * Decreases count of tile pattern.
+     * @return false if no tile with given pattern is counted
+     */
+    boolean decrease(EdgePattern tilePattern) {
+        int tile = tilePattern.getIndex();
+        if (tile == -1 || tileCounts[canonize(tile)] == 0) return false;
+        update(tile, -1);
+        return true;
+    }
+
+    private void update(int tile, int delta) {
+        if (tile == -1) return;
+        tileCounts[canonize(tile)] += delta;
+        int[] patterns = FILLED_PATTERNS[tile];
+        int[] fillCounts = FILL_COUNTS[tile];
+        for (int i = 0; i < patterns.length; i++) {
+            patternCounts[patterns[i]] += delta * fillCounts[i];
+        }
+    }
+
+    /** Returns count of tiles matching to given pattern, each filling of wildcards is counted separately. */
+    int get(EdgePattern pattern) {
+        int index = pattern.getIndex();
+        return index == -1 ? 0 : patternCounts[index];
+    }
+}
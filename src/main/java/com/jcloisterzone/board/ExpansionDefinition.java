@@ -0,0 +1,96 @@
+package com.jcloisterzone.board;
+
+import static com.jcloisterzone.XmlUtils.getTileId;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.XmlUtils;
+
+/**
+ * Tile definitions of one expansion parsed from tile definition xml.
+ * Definitions are immutable and cached, each definition file is parsed only once.
+ */
+public class ExpansionDefinition {
+
+    private static final Map<String, ExpansionDefinition> cache = new HashMap<>();
+
+    private final Expansion expansion;
+    private final Element root;
+    private final List<TileDefinition> tiles;
+    private final Map<String, Integer> discards;
+    private final int size;
+
+    public ExpansionDefinition(Expansion expansion, Element root) {
+        this.expansion = expansion;
+        this.root = root;
+
+        List<TileDefinition> tiles = new ArrayList<>();
+        int size = 0;
+        NodeList nl = root.getElementsByTagName("tile");
+        for (int i = 0; i < nl.getLength(); i++) {
+            Element tileElement = (Element) nl.item(i);
+            TileDefinition def = new TileDefinition(expansion, getTileId(expansion, tileElement), tileElement);
+            tiles.add(def);
+            if (!Tile.ABBEY_TILE_ID.equals(def.getId())) {
+                size += def.getCount();
+            }
+        }
+        this.tiles = Collections.unmodifiableList(tiles);
+        this.size = size;
+
+        Map<String, Integer> discards = new HashMap<>();
+        nl = root.getElementsByTagName("discard");
+        for (int i = 0; i < nl.getLength(); i++) {
+            String tileId = ((Element) nl.item(i)).getAttribute("tile");
+            Integer count = discards.get(tileId);
+            discards.put(tileId, count == null ? 1 : count + 1);
+        }
+        this.discards = Collections.unmodifiableMap(discards);
+    }
+
+    /**
+     * Returns compiled definition for given xml file. File is parsed on first request only.
+     */
+    public static ExpansionDefinition forUrl(Expansion expansion, URL url) {
+        String key = expansion.name() + "|" + url.toExternalForm();
+        synchronized (cache) {
+            ExpansionDefinition def = cache.get(key);
+            if (def == null) {
+                def = new ExpansionDefinition(expansion, XmlUtils.parseDocument(url).getDocumentElement());
+                cache.put(key, def);
+            }
+            return def;
+        }
+    }
+
+    public Expansion getExpansion() {
+        return expansion;
+    }
+
+    public Element getRoot() {
+        return root;
+    }
+
+    public List<TileDefinition> getTiles() {
+        return tiles;
+    }
+
+    /** tile id to count of discarded tiles declared by expansion */
+    public Map<String, Integer> getDiscards() {
+        return discards;
+    }
+
+    /** number of tiles in expansion, abbey tile is not counted */
+    public int getSize() {
+        return size;
+    }
+}
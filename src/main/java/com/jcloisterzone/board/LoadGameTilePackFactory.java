@@ -8,12 +8,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.Expansion;
-import com.jcloisterzone.XmlUtils;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.Snapshot.TileEntry;
 
 
 public class LoadGameTilePackFactory extends TilePackFactory {
@@ -41,17 +40,17 @@ public class LoadGameTilePackFactory extends TilePackFactory {
     public void setSnapshot(Snapshot snapshot) {
         this.snapshot = snapshot;
 
-        NodeList nl = snapshot.getTileElements();
-        preplaced = new PreplacedTile[nl.getLength()];
+        List<TileEntry> tiles = snapshot.getTiles();
+        preplaced = new PreplacedTile[tiles.size()];
 
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
+        for (int i = 0; i < tiles.size(); i++) {
+            TileEntry entry = tiles.get(i);
             preplaced[i] = new PreplacedTile();
-            preplaced[i].tileId = el.getAttribute("name");
-            preplaced[i].pos = XmlUtils.extractPosition(el);
-            preplaced[i].rot = snapshot.extractTileRotation(el);
-            preplaced[i].element = el;
-            preplacedMeeples.addAll(snapshot.extractTileMeeples(el, game, preplaced[i].pos));
+            preplaced[i].tileId = entry.getName();
+            preplaced[i].pos = entry.getPosition();
+            preplaced[i].rot = entry.getRotation();
+            preplaced[i].element = entry.getState();
+            preplacedMeeples.addAll(snapshot.extractTileMeeples(entry, game));
         }
     }
 
@@ -62,13 +61,14 @@ public class LoadGameTilePackFactory extends TilePackFactory {
 
 
     @Override
-    public LinkedList<Position> getPreplacedPositions(String tileId, Element card) {
+    public LinkedList<Position> getPreplacedPositions(TileDefinition def) {
         return null;
     }
 
     @Override
-    public List<Tile> createTiles(Expansion expansion, String tileId, Element card, Map<String, Integer> discardList) {
-        List<Tile> result =  super.createTiles(expansion, tileId, card, discardList);
+    public List<Tile> createTiles(TileDefinition def, Map<String, Integer> discardList) {
+        List<Tile> result =  super.createTiles(def, discardList);
+        String tileId = def.getId();
         for (PreplacedTile pt : preplaced) {
             if (pt.tile == null && pt.tileId.equals(tileId)) {
                 pt.tile = result.remove(result.size()-1);
@@ -86,11 +86,11 @@ public class LoadGameTilePackFactory extends TilePackFactory {
     }
 
     @Override
-    protected String getTileGroup(Tile tile, Element card) {
+    protected String getTileGroup(Tile tile, TileDefinition def) {
         if (tile.getPosition() != null) {
             return PLACED_GROUP; //special placed group (because all placed must be in active group)
         }
-        return super.getTileGroup(tile, card);
+        return super.getTileGroup(tile, def);
     }
 
     @Override
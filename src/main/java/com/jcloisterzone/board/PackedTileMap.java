@@ -0,0 +1,107 @@
+package com.jcloisterzone.board;
+
+/**
+ * Open addressed map from board coordinates to placed tiles.
+ * Coordinates are packed to single long (see {@link Position#pack(int, int)}),
+ * lookups don't allocate any objects.
+ */
+final class PackedTileMap {
+
+    private static final int INITIAL_CAPACITY = 256; //must be power of two
+
+    private long[] keys;
+    private Tile[] values;
+    private int mask;
+    private int size;
+
+    PackedTileMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Tile[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Tile get(int x, int y) {
+        long key = Position.pack(x, y);
+        int i = slot(key);
+        Tile t;
+        while ((t = values[i]) != null) {
+            if (keys[i] == key) return t;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public void put(int x, int y, Tile tile) {
+        assert tile != null;
+        if ((size + 1) * 2 > values.length) {
+            rehash(values.length * 2);
+        }
+        long key = Position.pack(x, y);
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = tile;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = tile;
+        size++;
+    }
+
+    public void remove(int x, int y) {
+        long key = Position.pack(x, y);
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = null;
+                size--;
+                closeGap(i);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** moves following entries of probe sequence back to removed slot, so no tombstones are needed */
+    private void closeGap(int gap) {
+        int i = (gap + 1) & mask;
+        while (values[i] != null) {
+            int home = slot(keys[i]);
+            //entry can be moved if its home slot is not in cyclic range (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                values[i] = null;
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Tile[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                put(Position.unpackX(oldKeys[i]), Position.unpackY(oldKeys[i]), oldValues[i]);
+            }
+        }
+    }
+}
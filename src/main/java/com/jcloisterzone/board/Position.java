@@ -23,6 +23,11 @@ public class Position implements Serializable, Comparable<Position> {
     public static final Map<Location, Position> ADJACENT;
     public static final Map<Location, Position> ADJACENT_AND_DIAGONAL;
 
+    /** x offsets of adjacent positions, indexes correspond to {@link Location#sides()} */
+    static final int[] SIDE_DX = {0, 1, 0, -1};
+    /** y offsets of adjacent positions, indexes correspond to {@link Location#sides()} */
+    static final int[] SIDE_DY = {-1, 0, 1, 0};
+
     static {
         ADJACENT = new ImmutableMap.Builder<Location, Position>()
          .put(Location.N, new Position(0, -1))
@@ -49,6 +54,29 @@ public class Position implements Serializable, Comparable<Position> {
         this(p.x,p.y);
     }
 
+    /**
+     * Packs coordinates to single long. Used as allocation free position key.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    public static Position unpack(long packed) {
+        return new Position(unpackX(packed), unpackY(packed));
+    }
+
+    public long pack() {
+        return pack(x, y);
+    }
+
     public String toString() {
         return new StringBuilder().append("[x=").append(x).append(",y=").append(y).append("]").toString();
     }
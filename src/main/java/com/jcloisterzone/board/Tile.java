@@ -17,6 +17,7 @@ import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.MultiTileFeature;
 import com.jcloisterzone.feature.Scoreable;
+import com.jcloisterzone.feature.TileFeature;
 import com.jcloisterzone.feature.Tower;
 import com.jcloisterzone.feature.visitor.IsOccupied;
 import com.jcloisterzone.feature.visitor.IsOccupiedOrCompleted;
@@ -32,7 +33,7 @@ import com.jcloisterzone.game.Game;
  *
  * @author Roman Krejcik
  */
-public class Tile /*implements Cloneable*/ {
+public class Tile implements Cloneable {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -63,6 +64,31 @@ public class Tile /*implements Cloneable*/ {
         this.id = id;
     }
 
+    /**
+     * Creates copy of tile bound to given game. Features are copied too, but their
+     * references to another features still point to original instances and must be
+     * updated by {@link TileFeature#remapReferences(java.util.Map)} once all tiles are copied.
+     * Immutable tile definition (edge pattern, symmetry, expansion data) is shared.
+     */
+    public Tile copy(Game game) {
+        Tile copy;
+        try {
+            copy = (Tile) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.game = game;
+        copy.features = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            TileFeature featureCopy = ((TileFeature) feature).copy(copy);
+            copy.features.add(featureCopy);
+            if (feature == bridge) {
+                copy.bridge = (Bridge) featureCopy;
+            }
+        }
+        return copy;
+    }
+
     @Override
     public int hashCode() {
         return id.hashCode();
@@ -248,7 +274,17 @@ public class Tile /*implements Cloneable*/ {
         Set<Location> locations = new HashSet<>();
         for (Feature f : features) {
             //if (f instanceof Farm && !game.hasCapability(Capability.FARM_PLACEMENT)) continue;
-            if (f instanceof Scoreable) {
+            if (f instanceof MultiTileFeature) {
+                //answered by connected component, no walk needed
+                MultiTileFeature mf = (MultiTileFeature) f;
+                boolean occupied = mf.isComponentOccupied();
+                if (excludeCompleted && f instanceof Completable) {
+                    occupied = occupied || !mf.isComponentOpen();
+                }
+                if (!occupied) {
+                    locations.add(f.getLocation());
+                }
+            } else if (f instanceof Scoreable) {
                 IsOccupied visitor;
                 if (excludeCompleted && f instanceof Completable) {
                     visitor = new IsOccupiedOrCompleted();
@@ -275,6 +311,7 @@ public class Tile /*implements Cloneable*/ {
         Set<Location> locations = new HashSet<>();
         for (Feature f : features) {
             if (!featureClass.isInstance(f)) continue;
+            if (f instanceof MultiTileFeature && !((MultiTileFeature) f).isComponentOccupied()) continue;
             IsOccupied visitor = uncompletedOnly ? new IsOccupiedAndUncompleted() : new IsOccupied();
             if (f.walk(visitor.with(player).with(Follower.class))) {
                 locations.add(f.getLocation());
@@ -0,0 +1,122 @@
+package com.jcloisterzone.board;
+
+import static com.jcloisterzone.XmlUtils.attributeIntValue;
+import static com.jcloisterzone.XmlUtils.attributeStringValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.game.PlayerSlot;
+
+/**
+ * Compiled definition of one tile type. Keeps xml element for capabilities
+ * but all lookups needed by factories are resolved once when definition is created.
+ *
+ * Element must be treated as read only.
+ */
+public class TileDefinition {
+
+    private final Expansion expansion;
+    private final String id;
+    private final Element element;
+
+    private final int count;
+    private final String group;
+    private final List<Position> preplacedPositions;
+
+    private final List<Element> cloisters;
+    private final List<Element> roads;
+    private final List<Element> cities;
+    private final List<Element> farms;
+    private final List<Element> towers;
+
+    public TileDefinition(Expansion expansion, String id, Element element) {
+        this.expansion = expansion;
+        this.id = id;
+        this.element = element;
+        //abbey count is not declared as number, each player has one
+        count = Tile.ABBEY_TILE_ID.equals(id) ? PlayerSlot.COUNT : attributeIntValue(element, "count", 1);
+        group = attributeStringValue(element, "group", null);
+        preplacedPositions = extractPositions(element);
+        cloisters = childElements(element, "cloister");
+        roads = childElements(element, "road");
+        cities = childElements(element, "city");
+        farms = childElements(element, "farm");
+        towers = childElements(element, "tower");
+    }
+
+    private static List<Element> childElements(Element parent, String tagName) {
+        NodeList nl = parent.getElementsByTagName(tagName);
+        if (nl.getLength() == 0) return Collections.emptyList();
+        List<Element> result = new ArrayList<>(nl.getLength());
+        for (int i = 0; i < nl.getLength(); i++) {
+            result.add((Element) nl.item(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<Position> extractPositions(Element parent) {
+        List<Position> result = new ArrayList<>();
+        for (Element posEl : childElements(parent, "position")) {
+            result.add(new Position(attributeIntValue(posEl, "x"), attributeIntValue(posEl, "y")));
+        }
+        return result.isEmpty() ? null : Collections.unmodifiableList(result);
+    }
+
+    public Expansion getExpansion() {
+        return expansion;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Element getElement() {
+        return element;
+    }
+
+    /** number of tile copies in pack */
+    public int getCount() {
+        return count;
+    }
+
+    /** group declared in definition or null */
+    public String getGroup() {
+        return group;
+    }
+
+    /** initial positions or null if tile is not preplaced */
+    public List<Position> getPreplacedPositions() {
+        return preplacedPositions;
+    }
+
+    public List<Element> getCloisters() {
+        return cloisters;
+    }
+
+    public List<Element> getRoads() {
+        return roads;
+    }
+
+    public List<Element> getCities() {
+        return cities;
+    }
+
+    public List<Element> getFarms() {
+        return farms;
+    }
+
+    public List<Element> getTowers() {
+        return towers;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -11,7 +11,6 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.Expansion;
 import com.jcloisterzone.feature.City;
@@ -44,33 +43,31 @@ public class TileFactory {
     }
 
     public Tile createTile(Expansion expansion, String fullId, Element xml, boolean isTunnelActive) {
-        Tile tile = new Tile(expansion, fullId);
+        return createTile(new TileDefinition(expansion, fullId, xml), isTunnelActive);
+    }
+
+    public Tile createTile(TileDefinition def, boolean isTunnelActive) {
+        Tile tile = new Tile(def.getExpansion(), def.getId());
         this.tile = tile;
         features = new ArrayList<>();
         tile.setGame(game);
 
         logger.debug("Creating " + tile.getId());
 
-        NodeList nl;
-        nl = xml.getElementsByTagName("cloister");
-        for (int i = 0; i < nl.getLength(); i++) {
-            processCloisterElement((Element) nl.item(i));
+        for (Element el : def.getCloisters()) {
+            processCloisterElement(el);
         }
-        nl = xml.getElementsByTagName("road");
-        for (int i = 0; i < nl.getLength(); i++) {
-            processRoadElement((Element) nl.item(i), isTunnelActive);
+        for (Element el : def.getRoads()) {
+            processRoadElement(el, isTunnelActive);
         }
-        nl = xml.getElementsByTagName("city");
-        for (int i = 0; i < nl.getLength(); i++) {
-            processCityElement((Element) nl.item(i));
+        for (Element el : def.getCities()) {
+            processCityElement(el);
         }
-        nl = xml.getElementsByTagName("farm");
-        for (int i = 0; i < nl.getLength(); i++) {
-            processFarmElement((Element) nl.item(i));
+        for (Element el : def.getFarms()) {
+            processFarmElement(el);
         }
-        nl = xml.getElementsByTagName("tower");
-        for (int i = 0; i < nl.getLength(); i++) {
-            processTowerElement((Element) nl.item(i));
+        for (Element el : def.getTowers()) {
+            processTowerElement(el);
         }
 
         tile.setFeatures(features);
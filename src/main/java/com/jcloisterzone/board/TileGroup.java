@@ -0,0 +1,87 @@
+package com.jcloisterzone.board;
+
+import java.util.Arrays;
+
+/**
+ * Tiles of one tile pack group in their insertion order.
+ *
+ * Drawn tiles leave empty slots instead of shifting following tiles. Count of remaining tiles
+ * is indexed by Fenwick tree over slots, so n-th remaining tile is found and removed
+ * in O(log n) time.
+ */
+class TileGroup {
+
+    private Tile[] slots = new Tile[16];
+    /** Fenwick tree, tree[i] is count of tiles in slots (i - lowbit(i), i] (1-based) */
+    private int[] tree = new int[17];
+    private int length;
+    private int size;
+
+    TileGroupState state = TileGroupState.WAITING;
+
+    int size() {
+        return size;
+    }
+
+    /** Returns number of slots used so far, including empty ones. */
+    int getSlotCount() {
+        return length;
+    }
+
+    /** Returns tile in given slot or null if slot tile was already removed. */
+    Tile getSlot(int slot) {
+        return slots[slot];
+    }
+
+    void add(Tile tile) {
+        if (length == slots.length) {
+            slots = Arrays.copyOf(slots, length * 2);
+            tree = Arrays.copyOf(tree, length * 2 + 1);
+        }
+        int i = ++length;
+        //node covers own slot and tiles in slots (i - lowbit(i), i - 1]
+        tree[i] = 1 + prefixSize(i - 1) - prefixSize(i - (i & -i));
+        slots[i - 1] = tile;
+        size++;
+    }
+
+    /** Removes n-th remaining tile. */
+    Tile remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return removeSlot(findSlot(index));
+    }
+
+    Tile removeSlot(int slot) {
+        Tile tile = slots[slot];
+        slots[slot] = null;
+        for (int i = slot + 1; i <= length; i += i & -i) {
+            tree[i]--;
+        }
+        size--;
+        return tile;
+    }
+
+    /** Returns slot of n-th remaining tile. */
+    private int findSlot(int index) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(length); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= length && tree[next] <= index) {
+                index -= tree[next];
+                pos = next;
+            }
+        }
+        return pos;
+    }
+
+    /** Returns count of remaining tiles in first n slots. */
+    private int prefixSize(int n) {
+        int sum = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -1,9 +1,5 @@
 package com.jcloisterzone.board;
 
-import static com.jcloisterzone.XmlUtils.attributeIntValue;
-import static com.jcloisterzone.XmlUtils.attributeStringValue;
-import static com.jcloisterzone.XmlUtils.getTileId;
-
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -17,17 +13,13 @@ import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import com.google.common.collect.Maps;
 import com.jcloisterzone.Expansion;
-import com.jcloisterzone.XmlUtils;
 import com.jcloisterzone.config.Config;
 import com.jcloisterzone.config.Config.DebugConfig;
 import com.jcloisterzone.game.CustomRule;
 import com.jcloisterzone.game.Game;
-import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.capability.RiverCapability;
 import com.jcloisterzone.game.capability.TunnelCapability;
 
@@ -42,7 +34,7 @@ public class TilePackFactory {
 
     protected Game game;
     protected Config config;
-    protected Map<Expansion, Element> defs;
+    protected Map<Expansion, ExpansionDefinition> defs;
 
     private Set<String> usedIds = new HashSet<>(); //for assertion only
 
@@ -64,17 +56,7 @@ public class TilePackFactory {
     }
 
     public int getExpansionSize(Expansion expansion) {
-        Element el = getExpansionDefinition(expansion);
-        NodeList nl = el.getElementsByTagName("tile");
-        int size = 0;
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element tileElement = (Element) nl.item(i);
-            String tileId = getTileId(expansion, tileElement);
-            if (!Tile.ABBEY_TILE_ID.equals(tileId)) {
-                size += getTileCount(tileElement, tileId);
-            }
-        }
-        return size;
+        return getExpansionDefinition(expansion).getSize();
     }
 
     protected  URL getStandardCardsConfig(Expansion expansion) {
@@ -95,21 +77,19 @@ public class TilePackFactory {
         }
     }
 
-    protected Element getExpansionDefinition(Expansion expansion) {
-        return XmlUtils.parseDocument(getCardsConfig(expansion)).getDocumentElement();
+    protected ExpansionDefinition getExpansionDefinition(Expansion expansion) {
+        return ExpansionDefinition.forUrl(expansion, getCardsConfig(expansion));
     }
 
     protected Map<String, Integer> getDiscardTiles() {
         Map<String, Integer> discard = new HashMap<>();
-        for (Element expansionDef: defs.values()) {
-            NodeList nl = expansionDef.getElementsByTagName("discard");
-            for (int i = 0; i < nl.getLength(); i++) {
-                Element el = (Element) nl.item(i);
-                String tileId = el.getAttribute("tile");
+        for (ExpansionDefinition expansionDef: defs.values()) {
+            for (Entry<String, Integer> entry : expansionDef.getDiscards().entrySet()) {
+                String tileId = entry.getKey();
                 if (discard.containsKey(tileId)) {
-                    discard.put(tileId, 1 + discard.get(tileId));
+                    discard.put(tileId, entry.getValue() + discard.get(tileId));
                 } else {
-                    discard.put(tileId, 1);
+                    discard.put(tileId, entry.getValue());
                 }
             }
         }
@@ -121,27 +101,20 @@ public class TilePackFactory {
             (game.hasCapability(TunnelCapability.class) && game.hasRule(CustomRule.TUNNELIZE_ALL_EXPANSIONS));
     }
 
-    protected int getTileCount(Element card, String tileId) {
-        if (Tile.ABBEY_TILE_ID.equals(tileId)) {
-            return PlayerSlot.COUNT;
-        } else {
-            return attributeIntValue(card, "count", 1);
-        }
-    }
-
-    protected String getTileGroup(Tile tile, Element card) {
+    protected String getTileGroup(Tile tile, TileDefinition def) {
         String group = game.getTileGroup(tile);
         if (group != null) return group;
-        return attributeStringValue(card, "group", DEFAULT_TILE_GROUP);
+        return def.getGroup() == null ? DEFAULT_TILE_GROUP : def.getGroup();
     }
 
-    public List<Tile> createTiles(Expansion expansion, String tileId, Element card, Map<String, Integer> discardList) {
+    public List<Tile> createTiles(TileDefinition def, Map<String, Integer> discardList) {
+        String tileId = def.getId();
         if (usedIds.contains(tileId)) {
             throw new IllegalArgumentException("Multiple occurences of id " + tileId + " in tile definition xml.");
         }
         usedIds.add(tileId);
 
-        int count = getTileCount(card, tileId);
+        int count = def.getCount();
 
         if (discardList.containsKey(tileId)) {
             int n = discardList.get(tileId);
@@ -151,11 +124,12 @@ public class TilePackFactory {
             }
         }
 
+        boolean isTunnelActive = isTunnelActive(def.getExpansion());
         List<Tile> tiles = new ArrayList<Tile>(count);
         for (int j = 0; j < count; j++) {
-            Tile tile = tileFactory.createTile(expansion, tileId, card, isTunnelActive(expansion));
+            Tile tile = tileFactory.createTile(def, isTunnelActive);
             try {
-                game.initTile(tile, card); //must be called before rotation!
+                game.initTile(tile, def.getElement()); //must be called before rotation!
 
                 //set after full inicialization
                 tile.setSymmetry(TileSymmetry.forTile(tile));
@@ -168,16 +142,9 @@ public class TilePackFactory {
         return tiles;
     }
 
-    public LinkedList<Position> getPreplacedPositions(String tileId, Element card) {
-        NodeList nl = card.getElementsByTagName("position");
-        if (nl.getLength() == 0) return null;
-
-        LinkedList<Position> result = new LinkedList<Position>();
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element posEl = (Element) nl.item(i);
-            result.add(new Position(attributeIntValue(posEl, "x"), attributeIntValue(posEl, "y")));
-        }
-        return result;
+    public LinkedList<Position> getPreplacedPositions(TileDefinition def) {
+        List<Position> positions = def.getPreplacedPositions();
+        return positions == null ? null : new LinkedList<Position>(positions);
     }
 
     public DefaultTilePack createTilePack() {
@@ -185,38 +152,37 @@ public class TilePackFactory {
 
         Map<String, Integer> discardList = getDiscardTiles();
 
-        for (Entry<Expansion, Element> entry: defs.entrySet()) {
-            Expansion expansion = entry.getKey();
-            NodeList nl = entry.getValue().getElementsByTagName("tile");
-            for (int i = 0; i < nl.getLength(); i++) {
-                Element tileElement = (Element) nl.item(i);
-                String tileId = getTileId(expansion, tileElement);
-                LinkedList<Position> positions = getPreplacedPositions(tileId, tileElement);
-                for (Tile tile : createTiles(expansion, tileId, tileElement, discardList)) {
-                    tilePack.addTile(tile, getTileGroup(tile, tileElement));
-                    if (positions != null && !positions.isEmpty()) {
-                        Position pos = positions.removeFirst();
-                        //hard coded exceptions - should be declared in pack def
-                        if (game.hasExpansion(Expansion.COUNT)) {
-                            if (tile.getId().equals("BA.RCr")) continue;
-                            if (tile.getId().equals("R1.I.s") ||
-                                tile.getId().equals("R2.I.s") ||
-                                tile.getId().equals("GQ.RFI")) {
-                                pos = new Position(1, 2);
-                            }
-                            if (tile.getId().equals("WR.CFR")) {
-                                pos = new Position(-2, -2);
-                            }
-                        } else if (game.hasExpansion(Expansion.WIND_ROSE)) {
-                            if (tile.getId().equals("BA.RCr")) continue;
-                            if (game.hasCapability(RiverCapability.class)) {
+        //definition elements are shared by all factories and DOM is not thread safe even for reading
+        synchronized (ExpansionDefinition.class) {
+            for (ExpansionDefinition expansionDef : defs.values()) {
+                for (TileDefinition def : expansionDef.getTiles()) {
+                    LinkedList<Position> positions = getPreplacedPositions(def);
+                    for (Tile tile : createTiles(def, discardList)) {
+                        tilePack.addTile(tile, getTileGroup(tile, def));
+                        if (positions != null && !positions.isEmpty()) {
+                            Position pos = positions.removeFirst();
+                            //hard coded exceptions - should be declared in pack def
+                            if (game.hasExpansion(Expansion.COUNT)) {
+                                if (tile.getId().equals("BA.RCr")) continue;
+                                if (tile.getId().equals("R1.I.s") ||
+                                    tile.getId().equals("R2.I.s") ||
+                                    tile.getId().equals("GQ.RFI")) {
+                                    pos = new Position(1, 2);
+                                }
                                 if (tile.getId().equals("WR.CFR")) {
-                                    pos = new Position(0, 1);
+                                    pos = new Position(-2, -2);
+                                }
+                            } else if (game.hasExpansion(Expansion.WIND_ROSE)) {
+                                if (tile.getId().equals("BA.RCr")) continue;
+                                if (game.hasCapability(RiverCapability.class)) {
+                                    if (tile.getId().equals("WR.CFR")) {
+                                        pos = new Position(0, 1);
+                                    }
                                 }
                             }
+                            logger.info("Setting initial placement {} for {}", pos, tile);
+                            tile.setPosition(pos);
                         }
-                        logger.info("Setting initial placement {} for {}", pos, tile);
-                        tile.setPosition(pos);
                     }
                 }
             }
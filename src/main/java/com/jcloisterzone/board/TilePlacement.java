@@ -35,7 +35,7 @@ public class TilePlacement implements Comparable<TilePlacement> {
         result = prime * result
                 + ((position == null) ? 0 : position.hashCode());
         result = prime * result
-                + ((rotation == null) ? 0 : rotation.hashCode());
+                + ((rotation == null) ? 0 : rotation.ordinal()); //enum hashCode differs between runs, keep action order repeatable
         return result;
     }
 
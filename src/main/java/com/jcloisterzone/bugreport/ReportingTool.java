@@ -64,6 +64,7 @@ public class ReportingTool {
         ze = new ZipEntry("savegame.jcz");
         zos.putNextEntry(ze);
         Snapshot snapshot = new Snapshot(game);
+        snapshot.setFormat(Snapshot.Format.BINARY); //loaded as any other save, zip entry is compressed already
         snapshot.save(zos, false, false);
         zos.closeEntry();
 
@@ -0,0 +1,66 @@
+package com.jcloisterzone.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operations on copy-on-write collections. Such collection is never changed after it's created,
+ * each operation returns changed unmodifiable copy (or same instance if nothing is changed).
+ *
+ * Capability keeping its state in copy-on-write collections can return them as backup
+ * without copying, same instances are shared by all save points until state changes.
+ */
+public final class CopyOnWrite {
+
+    private CopyOnWrite() {
+    }
+
+    public static <E> Set<E> with(Set<E> set, E element) {
+        if (set.contains(element)) return set;
+        Set<E> copy = new HashSet<>(set);
+        copy.add(element);
+        return Collections.unmodifiableSet(copy);
+    }
+
+    public static <E> Set<E> without(Set<E> set, Object element) {
+        if (!set.contains(element)) return set;
+        Set<E> copy = new HashSet<>(set);
+        copy.remove(element);
+        return Collections.unmodifiableSet(copy);
+    }
+
+    public static <K, V> Map<K, V> with(Map<K, V> map, K key, V value) {
+        Map<K, V> copy = new HashMap<>(map);
+        copy.put(key, value);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    public static <K, V> Map<K, V> without(Map<K, V> map, Object key) {
+        if (!map.containsKey(key)) return map;
+        Map<K, V> copy = new HashMap<>(map);
+        copy.remove(key);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /** Returns list with element appended. */
+    public static <E> List<E> with(List<E> list, E element) {
+        List<E> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        copy.add(element);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /** Returns list without first occurrence of element. */
+    public static <E> List<E> without(List<E> list, Object element) {
+        int i = list.indexOf(element);
+        if (i == -1) return list;
+        List<E> copy = new ArrayList<>(list);
+        copy.remove(i);
+        return Collections.unmodifiableList(copy);
+    }
+}
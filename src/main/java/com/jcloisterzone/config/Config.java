@@ -35,6 +35,8 @@ public class Config {
 
     private Integer score_display_duration;
     private Integer ai_place_tile_delay;
+    private Integer ai_search_threads;
+    private Integer ai_search_budget;
 
     private Boolean beep_alert;
     private String client_name;
@@ -341,6 +343,22 @@ public class Config {
         this.ai_place_tile_delay = ai_place_tile_delay;
     }
 
+    public Integer getAi_search_threads() {
+        return ai_search_threads;
+    }
+
+    public void setAi_search_threads(Integer ai_search_threads) {
+        this.ai_search_threads = ai_search_threads;
+    }
+
+    public Integer getAi_search_budget() {
+        return ai_search_budget;
+    }
+
+    public void setAi_search_budget(Integer ai_search_budget) {
+        this.ai_search_budget = ai_search_budget;
+    }
+
     public Boolean getBeep_alert() {
         return beep_alert == null ? Boolean.FALSE : beep_alert;
     }
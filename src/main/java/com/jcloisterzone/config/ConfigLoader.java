@@ -40,6 +40,8 @@ public class ConfigLoader {
     public static final int DEFAULT_PORT = 37447;
     public static final int DEFAULT_SCORE_DISPLAY_DURATION = 9;
     public static final int DEFAULT_AI_PLACE_TILE_DELAY = 250;
+    public static final int DEFAULT_AI_SEARCH_THREADS = 1;
+    public static final int DEFAULT_AI_SEARCH_BUDGET = 0;
     public static final int DEFAULT_SCREENSHOT_SCALE = 120;
     public static final String DEFAULT_PLAY_ONLINE_HOST = "play.jcloisterzone.com";
 
@@ -139,6 +141,8 @@ public class ConfigLoader {
         config.setPort(DEFAULT_PORT);
         config.setScore_display_duration(DEFAULT_SCORE_DISPLAY_DURATION);
         config.setAi_place_tile_delay(DEFAULT_AI_PLACE_TILE_DELAY);
+        config.setAi_search_threads(DEFAULT_AI_SEARCH_THREADS);
+        config.setAi_search_budget(DEFAULT_AI_SEARCH_BUDGET);
         config.setClient_name("");
         config.setPlay_online_host(DEFAULT_PLAY_ONLINE_HOST);
         config.setClient_id(KeyUtils.createRandomId());
@@ -175,6 +179,8 @@ public class ConfigLoader {
         model.put("locale", config.getLocale());
         model.put("score_display_duration", config.getScore_display_duration());
         model.put("ai_place_tile_delay", config.getAi_place_tile_delay());
+        model.put("ai_search_threads", config.getAi_search_threads());
+        model.put("ai_search_budget", config.getAi_search_budget());
         model.put("beep_alert", config.getBeep_alert());
         model.put("client_name", config.getClient_name());
         model.put("play_online_host", config.getPlay_online_host());
@@ -1,8 +1,5 @@
 package com.jcloisterzone.event;
 
-import java.util.List;
-import java.util.Map;
-
 import com.jcloisterzone.Player;
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.figure.Follower;
@@ -19,21 +16,17 @@ public class MeeplePrisonEvent extends MoveEvent<Player> implements Undoable {
 		this.meeple = meeple;
 	}
 	
-	private Map<Player, List<Follower>> getPrisoners(Game game) {
-    	TowerCapability cap = game.getCapability(TowerCapability.class);
-    	return cap.getPrisoners();
-    }
-
 	@Override
 	public void undo(Game game) {
+		TowerCapability cap = game.getCapability(TowerCapability.class);
 		if (getFrom() != null) {
 			meeple.setLocation(Location.PRISON);
-			getPrisoners(game).get(getFrom()).add((Follower) meeple);
+			cap.addPrisoner(getFrom(), (Follower) meeple);
 			meeple.setLocation(Location.PRISON);
 		}
 		if (getTo() != null) {
-			for (List<Follower> prisoners : getPrisoners(game).values()) {
-	    		prisoners.remove(meeple);
+			for (Player keeper : cap.getPrisoners().keySet()) {
+				cap.removePrisoner(keeper, (Follower) meeple);
 	    	}
 			meeple.setLocation(null);
 		}	
@@ -24,14 +24,16 @@ public class NeutralFigureMoveEvent extends MoveEvent<FeaturePointer> implements
 
     @Override
     public void undo(Game game) {
+        //figure can be placed first time (eg. dragon on volcano) - then there is no from position
+        Position from = getFrom() == null ? null : getFrom().getPosition();
         switch (getType()) {
         case FAIRY:
             FairyCapability fCap = game.getCapability(FairyCapability.class);
-            fCap.setFairyPosition(getFrom().getPosition());
+            fCap.setFairyPosition(from);
             break;
         case DRAGON:
             DragonCapability dCap = game.getCapability(DragonCapability.class);
-            dCap.setDragonPosition(getFrom().getPosition());
+            dCap.setDragonPosition(from);
             break;
         default:
             throw new UnsupportedOperationException();
@@ -2,6 +2,8 @@ package com.jcloisterzone.feature;
 
 import static com.jcloisterzone.ui.I18nUtils._;
 
+import java.util.Map;
+
 import com.jcloisterzone.PointCategory;
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.feature.visitor.score.FarmScoreContext;
@@ -13,6 +15,14 @@ public class Farm extends MultiTileFeature {
     protected boolean pigHerd;
 
 
+    @Override
+    public void remapReferences(Map<Feature, Feature> mapping) {
+        super.remapReferences(mapping);
+        if (adjoiningCities != null) {
+            adjoiningCities = remap(adjoiningCities, mapping);
+        }
+    }
+
     public Feature[] getAdjoiningCities() {
         return adjoiningCities;
     }
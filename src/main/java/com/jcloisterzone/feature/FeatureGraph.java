@@ -0,0 +1,117 @@
+package com.jcloisterzone.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connected components of multi tile features (cities, roads, farms) of one game.
+ *
+ * Components are kept in union-find structure without path compression, so each union
+ * can be reverted. Unions are stored in log. When connection is removed all unions made
+ * after it are reverted and replayed again. Connections are usually removed in reverse
+ * order (undo) and then only the last union is reverted.
+ *
+ * Component root holds aggregated values - open edges, meeples, size and master feature.
+ * Members of component are linked in circular list, so it can be walked without allocation.
+ */
+public class FeatureGraph {
+
+    private final List<Union> log = new ArrayList<>();
+
+    static final class Union {
+        final MultiTileFeature a, b;
+
+        MultiTileFeature root; //null if a and b was already connected
+        MultiTileFeature child;
+        MultiTileFeature prevMaster;
+        boolean rankIncreased;
+
+        Union(MultiTileFeature a, MultiTileFeature b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        boolean connects(MultiTileFeature x, MultiTileFeature y) {
+            return (a == x && b == y) || (a == y && b == x);
+        }
+    }
+
+    static MultiTileFeature findRoot(MultiTileFeature f) {
+        while (f.graphParent != null) {
+            f = f.graphParent;
+        }
+        return f;
+    }
+
+    public void link(MultiTileFeature a, MultiTileFeature b) {
+        Union u = new Union(a, b);
+        apply(u);
+        log.add(u);
+    }
+
+    public void unlink(MultiTileFeature a, MultiTileFeature b) {
+        int i = log.size() - 1;
+        while (i >= 0 && !log.get(i).connects(a, b)) {
+            i--;
+        }
+        if (i < 0) {
+            throw new IllegalArgumentException(a + " is not linked with " + b);
+        }
+        for (int j = log.size() - 1; j >= i; j--) {
+            revert(log.get(j));
+        }
+        log.remove(i);
+        for (int j = i; j < log.size(); j++) {
+            apply(log.get(j));
+        }
+    }
+
+    private void apply(Union u) {
+        MultiTileFeature root = findRoot(u.a);
+        MultiTileFeature child = findRoot(u.b);
+        if (root == child) {
+            u.root = null;
+            u.child = null;
+            return;
+        }
+        if (root.graphRank < child.graphRank) {
+            MultiTileFeature swap = root;
+            root = child;
+            child = swap;
+        }
+        u.root = root;
+        u.child = child;
+        u.prevMaster = root.graphMaster;
+        u.rankIncreased = root.graphRank == child.graphRank;
+
+        child.graphParent = root;
+        if (u.rankIncreased) root.graphRank++;
+        root.graphSize += child.graphSize;
+        root.graphOpenEdges += child.graphOpenEdges;
+        root.graphMeeples += child.graphMeeples;
+        if (child.graphMaster.getId() < root.graphMaster.getId()) {
+            root.graphMaster = child.graphMaster;
+        }
+        swapNext(root, child);
+    }
+
+    private void revert(Union u) {
+        MultiTileFeature root = u.root;
+        MultiTileFeature child = u.child;
+        if (root == null) return;
+        //swapping same nodes again splits joined cycle back
+        swapNext(root, child);
+        root.graphMaster = u.prevMaster;
+        root.graphMeeples -= child.graphMeeples;
+        root.graphOpenEdges -= child.graphOpenEdges;
+        root.graphSize -= child.graphSize;
+        if (u.rankIncreased) root.graphRank--;
+        child.graphParent = null;
+    }
+
+    private static void swapNext(MultiTileFeature x, MultiTileFeature y) {
+        MultiTileFeature next = x.graphNext;
+        x.graphNext = y.graphNext;
+        y.graphNext = next;
+    }
+}
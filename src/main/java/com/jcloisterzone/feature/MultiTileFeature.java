@@ -1,17 +1,25 @@
 package com.jcloisterzone.feature;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Stack;
+import java.util.Map;
 
 import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.feature.visitor.FeatureVisitor;
-import com.jcloisterzone.feature.visitor.FindMaster;
+import com.jcloisterzone.figure.Meeple;
 
 public abstract class MultiTileFeature extends TileFeature implements Scoreable {
 
     protected MultiTileFeature[] edges;
 
+    //connected component state, maintained by FeatureGraph
+    MultiTileFeature graphParent;
+    MultiTileFeature graphNext = this;
+    MultiTileFeature graphMaster = this;
+    int graphRank;
+    int graphSize = 1;
+    int graphOpenEdges;
+    int graphMeeples;
+
     @Override
     public void setLocation(Location location) {
         super.setLocation(location);
@@ -22,7 +30,46 @@ public abstract class MultiTileFeature extends TileFeature implements Scoreable
                 edgeCount++;
             }
         }
+        allocateEdges(edgeCount);
+    }
+
+    protected void allocateEdges(int edgeCount) {
         edges = new MultiTileFeature[edgeCount];
+        graphOpenEdges = edgeCount;
+    }
+
+    @Override
+    public MultiTileFeature copy(Tile tile) {
+        MultiTileFeature copy = (MultiTileFeature) super.copy(tile);
+        copy.graphParent = null;
+        copy.graphNext = copy;
+        copy.graphMaster = copy;
+        copy.graphRank = 0;
+        copy.graphSize = 1;
+        copy.graphMeeples = 0;
+        copy.graphOpenEdges = 0;
+        for (MultiTileFeature edge : edges) {
+            if (edge == null) copy.graphOpenEdges++;
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces edge references and links copy to connected component of its neighbours.
+     */
+    @Override
+    public void remapReferences(Map<Feature, Feature> mapping) {
+        super.remapReferences(mapping);
+        edges = remap(edges, mapping);
+        for (MultiTileFeature edge : edges) {
+            if (edge != null && edge != this) {
+                getFeatureGraph().link(this, edge);
+            }
+        }
+    }
+
+    private FeatureGraph getFeatureGraph() {
+        return getGame().getFeatureGraph();
     }
 
     public MultiTileFeature[] getEdges() {
@@ -52,40 +99,83 @@ public abstract class MultiTileFeature extends TileFeature implements Scoreable
     }
 
     public void setEdge(Location loc, MultiTileFeature piece) {
-        edges[getEdgeIndex(loc)] = piece;
+        setEdgeAt(getEdgeIndex(loc), piece);
     }
 
     public void setAbbeyEdge(Location loc) {
-        edges[getEdgeIndex(loc)] = this; //special value
+        setEdgeAt(getEdgeIndex(loc), this); //special value
+    }
+
+    /**
+     * Sets edge and updates connected components. All edge changes must pass here.
+     */
+    protected void setEdgeAt(int index, MultiTileFeature piece) {
+        MultiTileFeature old = edges[index];
+        if (old == piece) return;
+        edges[index] = piece;
+        if (old == null) {
+            addToComponent(-1, 0);
+        } else if (piece == null) {
+            addToComponent(1, 0);
+        }
+        if (old != null && old != this) {
+            getFeatureGraph().unlink(this, old);
+        }
+        if (piece != null && piece != this) {
+            getFeatureGraph().link(this, piece);
+        }
+    }
+
+    /** updates aggregated values of all component tree nodes above this feature */
+    private void addToComponent(int openEdges, int meeples) {
+        for (MultiTileFeature f = this; f != null; f = f.graphParent) {
+            f.graphOpenEdges += openEdges;
+            f.graphMeeples += meeples;
+        }
     }
 
+    @Override
+    public void addMeeple(Meeple meeple) {
+        super.addMeeple(meeple);
+        addToComponent(0, 1);
+    }
+
+    @Override
+    public void removeMeeple(Meeple meeple) {
+        super.removeMeeple(meeple);
+        addToComponent(0, -1);
+    }
+
+    /** returns true if any feature of connected component has unconnected edge */
+    public boolean isComponentOpen() {
+        return FeatureGraph.findRoot(this).graphOpenEdges > 0;
+    }
+
+    /** returns true if any meeple is placed on connected component */
+    public boolean isComponentOccupied() {
+        return FeatureGraph.findRoot(this).graphMeeples > 0;
+    }
+
+    /** returns number of features in connected component */
+    public int getComponentSize() {
+        return FeatureGraph.findRoot(this).graphSize;
+    }
 
     @Override
     public Feature getMaster() {
-        return walk(new FindMaster());
+        return FeatureGraph.findRoot(this).graphMaster;
     }
 
     @Override
     public <T> T walk(FeatureVisitor<T> visitor) {
-        Stack<MultiTileFeature> stack = new Stack<MultiTileFeature>();
-        //TODO implement by bit set or marking - this method can be optimized
-        Set<MultiTileFeature> visited = new HashSet<>();
-        MultiTileFeature previous = null; //little optimization - less touching set
-        stack.push(this);
-        visited.add(this);
-        while (!stack.isEmpty()) {
-            MultiTileFeature nextToVisit = stack.pop();
-            if (!visitor.visit(nextToVisit)) {
-                break;
-            }
-            for (MultiTileFeature feature : nextToVisit.edges) {
-                if (feature != null && feature != nextToVisit && previous != feature && ! visited.contains(feature)) {
-                    visited.add(feature);
-                    stack.push(feature);
-                }
-            }
-            previous = nextToVisit;
-        }
+        //features of connected component are linked to cycle,
+        //component size bounds the walk if cycle is broken by inconsistent graph
+        int remaining = FeatureGraph.findRoot(this).graphSize;
+        MultiTileFeature f = this;
+        do {
+            if (!visitor.visit(f)) break;
+            f = f.graphNext;
+        } while (f != this && --remaining > 0);
         return visitor.getResult();
     }
 
@@ -45,12 +45,12 @@ public class Road extends CompletableFeature {
         super.setLocation(location);
         if (isTunnelEnd()) {
             // reallocate - extra edge for tunnel
-            edges = new MultiTileFeature[edges.length + 1];
+            allocateEdges(edges.length + 1);
         }
     }
 
     public void setTunnelEdge(MultiTileFeature f) {
-        edges[edges.length - 1] = f;
+        setEdgeAt(edges.length - 1, f);
     }
 
     @Override
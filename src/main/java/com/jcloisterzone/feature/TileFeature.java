@@ -4,6 +4,7 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.ObjectArrays;
 import com.jcloisterzone.board.Location;
@@ -12,7 +13,7 @@ import com.jcloisterzone.feature.visitor.FeatureVisitor;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.Game;
 
-public abstract class TileFeature implements Feature {
+public abstract class TileFeature implements Feature, Cloneable {
 
     private int id; //unique feature identifier
     private Tile tile;
@@ -25,6 +26,43 @@ public abstract class TileFeature implements Feature {
         return tile.getGame();
     }
 
+    /**
+     * Creates copy of feature placed on given tile copy. Copy holds no meeples and its references
+     * to another features must be updated by {@link #remapReferences(Map)}.
+     */
+    public TileFeature copy(Tile tile) {
+        TileFeature copy;
+        try {
+            copy = (TileFeature) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.tile = tile;
+        copy.meeples = Collections.emptyList();
+        return copy;
+    }
+
+    /**
+     * Replaces references to original features by their copies.
+     * @param mapping original to copy mapping
+     */
+    public void remapReferences(Map<Feature, Feature> mapping) {
+        if (neighbouring != null) {
+            neighbouring = remap(neighbouring, mapping);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T extends Feature> T[] remap(T[] features, Map<Feature, Feature> mapping) {
+        T[] result = features.clone();
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != null) {
+                result[i] = (T) mapping.get(result[i]);
+            }
+        }
+        return result;
+    }
+
     @Override
     public <T> T walk(FeatureVisitor<T> visitor) {
         visitor.visit(this);
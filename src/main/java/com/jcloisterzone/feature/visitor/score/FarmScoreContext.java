@@ -41,6 +41,7 @@ public class FarmScoreContext extends AbstractScoreContext {
         for (Feature feature : adjoiningCities) {
             if (feature instanceof City) {
                 City c = (City) feature;
+                if (c.isComponentOpen()) continue;
                 CityScoreContext ctx = cityCache.get(c);
                 if (ctx == null) {
                     ctx = c.getScoreContext();
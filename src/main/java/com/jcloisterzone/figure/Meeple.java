@@ -3,6 +3,7 @@ package com.jcloisterzone.figure;
 import com.google.common.base.Objects;
 import com.jcloisterzone.Player;
 import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.MeepleEvent;
@@ -120,7 +121,17 @@ public abstract class Meeple extends Figure {
     }
 
     public void setLocation(Location location) {
+        boolean wasDeployed = isDeployed();
         this.location = location;
+        game.getMeepleIndex().update(this, getPosition(), wasDeployed);
+    }
+
+    @Override
+    public void setPosition(Position position) {
+        Position prevPosition = getPosition();
+        boolean wasDeployed = isDeployed();
+        super.setPosition(position);
+        game.getMeepleIndex().update(this, prevPosition, wasDeployed);
     }
 
     public Integer getIndex() {
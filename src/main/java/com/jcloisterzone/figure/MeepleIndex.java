@@ -0,0 +1,149 @@
+package com.jcloisterzone.figure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.base.Objects;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Position;
+
+/**
+ * Index of meeples deployed on board by position and by player.
+ *
+ * Meeple updates index whenever its position or location changes, so index follows deployment,
+ * undo, game copy and game load. Returned lists are immutable and replaced on change, they can
+ * be iterated while meeples are moved. Meeples are ordered by player and by order of player's
+ * meeples (followers first), same as {@link Player#getMeeples()} of all players.
+ */
+public class MeepleIndex {
+
+    private final Map<Meeple, Integer> orders = new IdentityHashMap<>();
+    private final Comparator<Meeple> orderComparator = new Comparator<Meeple>() {
+        @Override
+        public int compare(Meeple m1, Meeple m2) {
+            return Integer.compare(getOrder(m1), getOrder(m2));
+        }
+    };
+
+    private List<Meeple> deployed = Collections.emptyList();
+    private final Map<Position, List<Meeple>> byPosition = new HashMap<>();
+    private final List<List<Meeple>> byPlayer = new ArrayList<>();
+
+    /**
+     * Updates meeple entries after its position or location was changed.
+     * Deployed meeple without position (during its update) is indexed under null position.
+     */
+    void update(Meeple meeple, Position prevPosition, boolean wasDeployed) {
+        boolean isDeployed = meeple.isDeployed();
+        if (wasDeployed && isDeployed && Objects.equal(prevPosition, meeple.getPosition())) return;
+        int playerIndex = meeple.getPlayer().getIndex();
+        while (byPlayer.size() <= playerIndex) {
+            byPlayer.add(Collections.<Meeple>emptyList());
+        }
+        if (wasDeployed) {
+            deployed = without(deployed, meeple);
+            byPlayer.set(playerIndex, without(byPlayer.get(playerIndex), meeple));
+            List<Meeple> onPosition = without(byPosition.get(prevPosition), meeple);
+            if (onPosition.isEmpty()) {
+                byPosition.remove(prevPosition);
+            } else {
+                byPosition.put(prevPosition, onPosition);
+            }
+        }
+        if (isDeployed) {
+            deployed = with(deployed, meeple);
+            byPlayer.set(playerIndex, with(byPlayer.get(playerIndex), meeple));
+            byPosition.put(meeple.getPosition(), with(byPosition.get(meeple.getPosition()), meeple));
+        }
+    }
+
+    public List<Meeple> getDeployedMeeples() {
+        return deployed;
+    }
+
+    /** Returns meeples deployed on tile on given position. */
+    public List<Meeple> getDeployedMeeples(Position pos) {
+        List<Meeple> meeples = byPosition.get(pos);
+        return meeples == null ? Collections.<Meeple>emptyList() : meeples;
+    }
+
+    public List<Meeple> getDeployedMeeples(Player player) {
+        int playerIndex = player.getIndex();
+        return playerIndex < byPlayer.size() ? byPlayer.get(playerIndex) : Collections.<Meeple>emptyList();
+    }
+
+    /**
+     * Returns meeples deployed within given orthogonal distance (see {@link Position#squareDistance(Position)})
+     * from center. Only positions in range or occupied positions are visited, whichever is less.
+     */
+    public List<Meeple> getDeployedMeeples(Position center, int distance) {
+        List<Meeple> result = new ArrayList<>();
+        int rangeSize = 2 * distance * (distance + 1) + 1;
+        if (rangeSize < byPosition.size()) {
+            for (int dx = -distance; dx <= distance; dx++) {
+                int dyMax = distance - Math.abs(dx);
+                for (int dy = -dyMax; dy <= dyMax; dy++) {
+                    List<Meeple> meeples = byPosition.get(new Position(center.x + dx, center.y + dy));
+                    if (meeples != null) result.addAll(meeples);
+                }
+            }
+        } else {
+            for (Entry<Position, List<Meeple>> entry : byPosition.entrySet()) {
+                Position pos = entry.getKey();
+                if (pos != null && center.squareDistance(pos) <= distance) {
+                    result.addAll(entry.getValue());
+                }
+            }
+        }
+        Collections.sort(result, orderComparator);
+        return result;
+    }
+
+    private int getOrder(Meeple meeple) {
+        Integer order = orders.get(meeple);
+        if (order == null) {
+            //meeples are compared by identity, equal meeples can be in supply
+            int i = 0;
+            for (Meeple m : meeple.getPlayer().getMeeples()) {
+                if (m == meeple) break;
+                i++;
+            }
+            order = meeple.getPlayer().getIndex() * 1024 + i;
+            orders.put(meeple, order);
+        }
+        return order;
+    }
+
+    private List<Meeple> with(List<Meeple> meeples, Meeple meeple) {
+        if (meeples == null || meeples.isEmpty()) {
+            return Collections.singletonList(meeple);
+        }
+        int order = getOrder(meeple);
+        List<Meeple> result = new ArrayList<>(meeples.size() + 1);
+        boolean added = false;
+        for (Meeple m : meeples) {
+            if (!added && getOrder(m) > order) {
+                result.add(meeple);
+                added = true;
+            }
+            result.add(m);
+        }
+        if (!added) result.add(meeple);
+        return Collections.unmodifiableList(result);
+    }
+
+    private List<Meeple> without(List<Meeple> meeples, Meeple meeple) {
+        if (meeples == null) return Collections.emptyList();
+        List<Meeple> result = new ArrayList<>(meeples.size());
+        for (Meeple m : meeples) {
+            if (m != meeple) result.add(m);
+        }
+        return result.isEmpty() ? Collections.<Meeple>emptyList() : Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,325 @@
+package com.jcloisterzone.game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.PointCategory;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.TileGroupState;
+import com.jcloisterzone.game.Snapshot.MeepleEntry;
+import com.jcloisterzone.game.Snapshot.PlayerEntry;
+import com.jcloisterzone.game.Snapshot.TileEntry;
+
+/**
+ * Binary encoding of snapshot, game model is written and read in single pass without
+ * XML transformer, parser and document.
+ *
+ * Layout: magic <code>JCZB</code>, format version byte, then snapshot sections in fixed order:
+ * header (app version, phase), rules, expansions, capabilities, players, tile groups, placed tiles
+ * with meeples and discarded tiles. Collections are prefixed by varint size. Capability state
+ * (capability elements and tile state elements) is kept as element: ELEMENT tag, name,
+ * attribute count, attributes (name, value), children and END tag.
+ * All strings are references to string table built during writing - varint 0 followed
+ * by UTF-8 string defines new entry, positive n references entry n-1.
+ */
+final class BinarySnapshotCodec {
+
+    static final byte[] MAGIC = { 'J', 'C', 'Z', 'B' };
+    static final int VERSION = 2;
+
+    private static final int END = 0;
+    private static final int ELEMENT = 1;
+    private static final int TEXT = 2;
+
+    private BinarySnapshotCodec() {
+    }
+
+    static boolean isBinary(byte[] header) {
+        if (header.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    /** Writes snapshot to stream. Stream is flushed, not closed. */
+    static void write(Snapshot snapshot, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        Writer w = new Writer(out);
+        w.writeString(snapshot.appVersion);
+        w.writeString(snapshot.phase);
+
+        writeVarInt(out, snapshot.rules.size());
+        for (CustomRule rule : snapshot.rules) {
+            w.writeString(rule.name());
+        }
+        writeVarInt(out, snapshot.expansions.size());
+        for (Expansion exp : snapshot.expansions) {
+            w.writeString(exp.name());
+        }
+        writeVarInt(out, snapshot.capabilities.size());
+        for (Element el : snapshot.capabilities) {
+            w.writeElement(el);
+        }
+
+        writeVarInt(out, snapshot.turnPlayer);
+        writeVarInt(out, snapshot.players.size());
+        for (PlayerEntry p : snapshot.players) {
+            w.writeString(p.name);
+            out.writeInt(p.points);
+            writeVarInt(out, p.slot);
+            out.writeBoolean(p.local);
+            w.writeString(p.aiClassName == null ? "" : p.aiClassName);
+            writeVarInt(out, p.categoryPoints.size());
+            for (Entry<PointCategory, Integer> entry : p.categoryPoints.entrySet()) {
+                w.writeString(entry.getKey().name());
+                out.writeInt(entry.getValue());
+            }
+        }
+
+        w.writeString(snapshot.nextTile);
+        writeVarInt(out, snapshot.groups.size());
+        for (Entry<String, TileGroupState> entry : snapshot.groups.entrySet()) {
+            w.writeString(entry.getKey());
+            w.writeString(entry.getValue().name());
+        }
+        writeVarInt(out, snapshot.tiles.size());
+        for (TileEntry tile : snapshot.tiles) {
+            w.writeString(tile.name);
+            out.writeInt(tile.position.x);
+            out.writeInt(tile.position.y);
+            w.writeString(tile.rotation.name());
+            writeVarInt(out, tile.meeples.size());
+            for (MeepleEntry m : tile.meeples) {
+                writeVarInt(out, m.player);
+                w.writeString(m.type);
+                w.writeString(m.location.toString());
+            }
+            w.writeElement(tile.state);
+        }
+        writeVarInt(out, snapshot.discardedTiles.size());
+        for (String tileId : snapshot.discardedTiles) {
+            w.writeString(tileId);
+        }
+        out.flush();
+    }
+
+    /** Reads snapshot content from stream, capability elements are created in snapshot fragments document. */
+    static void read(Snapshot snapshot, InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!isBinary(magic)) {
+            throw new SnapshotCorruptedException("Not a binary snapshot.");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new SnapshotVersionException("Binary snapshot format " + version + " is not supported.");
+        }
+
+        Reader r = new Reader(in, snapshot.getFragments());
+        snapshot.appVersion = r.readString();
+        snapshot.phase = r.readString();
+
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            snapshot.rules.add(CustomRule.valueOf(r.readString()));
+        }
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            snapshot.expansions.add(Expansion.valueOf(r.readString()));
+        }
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            r.expectElement();
+            snapshot.capabilities.add(r.readElement());
+        }
+
+        snapshot.turnPlayer = readVarInt(in);
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            PlayerEntry p = new PlayerEntry();
+            p.name = r.readString();
+            p.points = in.readInt();
+            p.slot = readVarInt(in);
+            p.local = in.readBoolean();
+            String aiClassName = r.readString();
+            p.aiClassName = aiClassName.length() == 0 ? null : aiClassName;
+            int categories = readVarInt(in);
+            for (int j = 0; j < categories; j++) {
+                PointCategory cat = PointCategory.valueOf(r.readString());
+                p.categoryPoints.put(cat, in.readInt());
+            }
+            snapshot.players.add(p);
+        }
+
+        snapshot.nextTile = r.readString();
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            String name = r.readString();
+            snapshot.groups.put(name, TileGroupState.valueOf(r.readString()));
+        }
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            TileEntry tile = new TileEntry();
+            tile.name = r.readString();
+            int x = in.readInt();
+            tile.position = new Position(x, in.readInt());
+            tile.rotation = Rotation.valueOf(r.readString());
+            int meeples = readVarInt(in);
+            for (int j = 0; j < meeples; j++) {
+                MeepleEntry m = new MeepleEntry();
+                m.player = readVarInt(in);
+                m.type = r.readString();
+                m.location = Location.valueOf(r.readString());
+                tile.meeples.add(m);
+            }
+            r.expectElement();
+            tile.state = r.readElement();
+            snapshot.tiles.add(tile);
+        }
+        size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            snapshot.discardedTiles.add(r.readString());
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new SnapshotCorruptedException("Malformed varint.");
+    }
+
+    private static class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeString(String s) throws IOException {
+            Integer ref = strings.get(s);
+            if (ref != null) {
+                writeVarInt(out, ref + 1);
+                return;
+            }
+            strings.put(s, strings.size());
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, 0);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        void writeElement(Element el) throws IOException {
+            out.writeByte(ELEMENT);
+            writeString(el.getTagName());
+            NamedNodeMap attrs = el.getAttributes();
+            writeVarInt(out, attrs.getLength());
+            for (int i = 0; i < attrs.getLength(); i++) {
+                Attr attr = (Attr) attrs.item(i);
+                writeString(attr.getName());
+                writeString(attr.getValue());
+            }
+            for (Node child = el.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    writeElement((Element) child);
+                } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                    String text = child.getNodeValue();
+                    if (text.trim().length() > 0) {
+                        out.writeByte(TEXT);
+                        writeString(text);
+                    }
+                }
+            }
+            out.writeByte(END);
+        }
+    }
+
+    private static class Reader {
+        private final DataInputStream in;
+        private final Document doc;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(DataInputStream in, Document doc) {
+            this.in = in;
+            this.doc = doc;
+        }
+
+        String readString() throws IOException {
+            int ref = readVarInt(in);
+            if (ref > 0) {
+                if (ref > strings.size()) throw new SnapshotCorruptedException("Invalid string reference.");
+                return strings.get(ref - 1);
+            }
+            byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(s);
+            return s;
+        }
+
+        void expectElement() throws IOException {
+            if (in.readUnsignedByte() != ELEMENT) {
+                throw new SnapshotCorruptedException("Element expected.");
+            }
+        }
+
+        Element readElement() throws IOException {
+            Element el = doc.createElement(readString());
+            int attrCount = readVarInt(in);
+            for (int i = 0; i < attrCount; i++) {
+                String name = readString();
+                el.setAttribute(name, readString());
+            }
+            while (true) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                case END:
+                    return el;
+                case ELEMENT:
+                    el.appendChild(readElement());
+                    break;
+                case TEXT:
+                    el.appendChild(doc.createTextNode(readString()));
+                    break;
+                default:
+                    throw new SnapshotCorruptedException("Unknown tag " + tag);
+                }
+            }
+        }
+    }
+}
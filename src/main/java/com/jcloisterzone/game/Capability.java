@@ -35,6 +35,11 @@ public abstract class Capability {
         this.game = game;
     }
 
+    /**
+     * Returns capability state for save point. Returned data can be shared by more save points
+     * and must not be modified later, keep state in copy-on-write collections (see
+     * {@link com.jcloisterzone.collection.CopyOnWrite}) to avoid copying it on each backup.
+     */
     public Object backup() {
         return null;
     }
@@ -14,9 +14,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import com.google.common.collect.ClassToInstanceMap;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.MutableClassToInstanceMap;
-import com.google.common.eventbus.EventBus;
 import com.jcloisterzone.EventBusExceptionHandler;
 import com.jcloisterzone.EventProxy;
 import com.jcloisterzone.Player;
@@ -38,17 +36,20 @@ import com.jcloisterzone.event.Undoable;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureGraph;
 import com.jcloisterzone.feature.score.ScoringStrategy;
 import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
 import com.jcloisterzone.feature.visitor.score.ScoreContext;
 import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
-import com.jcloisterzone.figure.predicate.MeeplePredicates;
+import com.jcloisterzone.figure.MeepleIndex;
 import com.jcloisterzone.game.capability.FairyCapability;
 import com.jcloisterzone.game.capability.PrincessCapability;
+import com.jcloisterzone.game.phase.CopyGamePhase;
 import com.jcloisterzone.game.phase.CreateGamePhase;
 import com.jcloisterzone.game.phase.GameOverPhase;
 import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.GameController;
 
 
 /**
@@ -65,6 +66,10 @@ public class Game extends GameSettings implements EventProxy {
     private Tile currentTile;
     /** game board, contains placed tiles */
     private Board board;
+    /** connected components of placed features */
+    private final FeatureGraph featureGraph = new FeatureGraph();
+    /** deployed meeples by position and player */
+    private final MeepleIndex meepleIndex = new MeepleIndex();
 
     /** list of players in game */
     private Player[] plist;
@@ -82,18 +87,46 @@ public class Game extends GameSettings implements EventProxy {
     private Undoable lastUndoable;
     private Phase lastUndoablePhase;
 
-    private final EventBus eventBus = new EventBus(new EventBusExceptionHandler("game event bus"));
+    private final GameEventBus eventBus = new GameEventBus(new EventBusExceptionHandler("game event bus"));
     //events are delayed and fired after phase is handled (and eventually switched to the new one) - important especially for AI handlers to not start before swithc is done
     private final Deque<Event> eventQueue = new ArrayDeque<>();
 
     private int idSequenceCurrVal = 0;
 
+    /** event classes marked as {@link Idempotent}, annotation is looked up once per class */
+    private static final ClassValue<Boolean> IDEMPOTENT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(Idempotent.class);
+        }
+    };
+
     public Game(String gameId) {
         super(gameId);
     }
 
+    /**
+     * Creates independent copy of game - board, tile pack, players, meeples and capabilities state.
+     * Tiles and features are cloned, tile definitions are not parsed again.
+     * Copy is in same phase as this game, its event bus has no listeners.
+     *
+     * @throws UnsupportedOperationException when some capability doesn't support backup
+     */
+    public Game copy(GameController gc) {
+        Game copy = new Game(getGameId());
+        copy.setName(getName());
+        copy.getExpansions().addAll(getExpansions());
+        copy.getCustomRules().addAll(getCustomRules());
+        copy.idSequenceCurrVal = idSequenceCurrVal;
+        CopyGamePhase phase = new CopyGamePhase(copy, this, gc);
+        copy.getPhases().put(phase.getClass(), phase);
+        copy.setPhase(phase);
+        phase.startGame();
+        return copy;
+    }
+
     @Override
-    public EventBus getEventBus() {
+    public GameEventBus getEventBus() {
         return eventBus;
     }
 
@@ -108,7 +141,7 @@ public class Game extends GameSettings implements EventProxy {
                 lastUndoable = (Undoable) event;
                 lastUndoablePhase = phase;
             } else {
-                if (event.getClass().getAnnotation(Idempotent.class) == null) {
+                if (!IDEMPOTENT.get(event.getClass())) {
                     lastUndoable = null;
                     lastUndoablePhase = null;
                 }
@@ -165,12 +198,21 @@ public class Game extends GameSettings implements EventProxy {
         return phases;
     }
 
-    public Iterable<Meeple> getDeployedMeeples() {
-        Iterable<Meeple> iter = Collections.emptyList();
-        for (Player player : plist) {
-            iter = Iterables.concat(iter, player.getFollowers(), player.getSpecialMeeples());
-        }
-        return Iterables.filter(iter, MeeplePredicates.deployed());
+    public MeepleIndex getMeepleIndex() {
+        return meepleIndex;
+    }
+
+    public List<Meeple> getDeployedMeeples() {
+        return meepleIndex.getDeployedMeeples();
+    }
+
+    /** Returns meeples deployed on tile on given position. */
+    public List<Meeple> getDeployedMeeples(Position pos) {
+        return meepleIndex.getDeployedMeeples(pos);
+    }
+
+    public List<Meeple> getDeployedMeeples(Player player) {
+        return meepleIndex.getDeployedMeeples(player);
     }
 
     public Player getTurnPlayer() {
@@ -235,10 +277,14 @@ public class Game extends GameSettings implements EventProxy {
         return board;
     }
 
+    public FeatureGraph getFeatureGraph() {
+        return featureGraph;
+    }
+
 
     public Meeple getMeeple(final Position p, final Location loc, Class<? extends Meeple> meepleType, Player owner) {
-        for (Meeple m : getDeployedMeeples()) {
-            if (m.at(p) && m.getLocation().equals(loc)) {
+        for (Meeple m : getDeployedMeeples(p)) {
+            if (m.getLocation().equals(loc)) {
                 if (m.getClass().equals(meepleType) && m.getPlayer().equals(owner)) {
                     return m;
                 }
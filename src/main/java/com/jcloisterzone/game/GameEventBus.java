@@ -0,0 +1,245 @@
+package com.jcloisterzone.game;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.EventBusExceptionHandler;
+
+/**
+ * Event bus of game. Listeners use Guava {@link Subscribe} annotation as with plain {@link EventBus},
+ * but subscriber methods of each listener class are resolved only once (as method handles)
+ * and handlers of each event class are collected into array on its first post. Registration
+ * replaces handler arrays, so it is cheap to register and unregister listeners often.
+ *
+ * Bus can be switched to silent mode (used for simulated games). Only core listeners,
+ * registered by {@link #registerCore(Object)}, receive events then - eg. undo recording
+ * or AI search. User interface and player listeners are skipped.
+ *
+ * Events posted from handler are queued and dispatched when current event is dispatched
+ * to all handlers (as Guava bus does).
+ */
+public class GameEventBus extends EventBus {
+
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ConcurrentMap<Class<?>, Subscriber[]> SUBSCRIBERS = new ConcurrentHashMap<>();
+
+    private final EventBusExceptionHandler exceptionHandler;
+    private volatile Registry registry = new Registry(new Registration[0]);
+    private volatile boolean silent;
+
+    private final ThreadLocal<Deque<Object>> pending = new ThreadLocal<Deque<Object>>() {
+        @Override
+        protected Deque<Object> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+    private final ThreadLocal<boolean[]> dispatching = new ThreadLocal<boolean[]>() {
+        @Override
+        protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    public GameEventBus(EventBusExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public boolean isSilent() {
+        return silent;
+    }
+
+    /** In silent mode events are delivered to core listeners only. */
+    public void setSilent(boolean silent) {
+        this.silent = silent;
+    }
+
+    /** Registers listener which is skipped in silent mode. */
+    @Override
+    public void register(Object listener) {
+        register(listener, false);
+    }
+
+    /** Registers listener which receives events in silent mode too. */
+    public void registerCore(Object listener) {
+        register(listener, true);
+    }
+
+    private synchronized void register(Object listener, boolean core) {
+        Registration[] registrations = registry.registrations;
+        for (Registration r : registrations) {
+            if (r.listener == listener) return;
+        }
+        registrations = Arrays.copyOf(registrations, registrations.length + 1);
+        registrations[registrations.length - 1] = new Registration(listener, core, getSubscribers(listener.getClass()));
+        registry = new Registry(registrations);
+    }
+
+    /**
+     * @throws IllegalArgumentException if listener is not registered
+     */
+    @Override
+    public synchronized void unregister(Object listener) {
+        Registration[] registrations = registry.registrations;
+        for (int i = 0; i < registrations.length; i++) {
+            if (registrations[i].listener == listener) {
+                Registration[] result = new Registration[registrations.length - 1];
+                System.arraycopy(registrations, 0, result, 0, i);
+                System.arraycopy(registrations, i + 1, result, i, result.length - i);
+                registry = new Registry(result);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Listener " + listener + " is not registered");
+    }
+
+    @Override
+    public void post(Object event) {
+        Deque<Object> queue = pending.get();
+        queue.add(event);
+        boolean[] inDispatch = dispatching.get();
+        if (inDispatch[0]) return;
+        inDispatch[0] = true;
+        try {
+            Object ev;
+            while ((ev = queue.poll()) != null) {
+                dispatch(ev);
+            }
+        } finally {
+            inDispatch[0] = false;
+        }
+    }
+
+    private void dispatch(Object event) {
+        for (Handler handler : registry.getHandlers(event.getClass(), silent)) {
+            try {
+                handler.subscriber.handle.invokeExact(handler.listener, event);
+            } catch (Throwable e) {
+                exceptionHandler.handleException(e, handler.listener, handler.subscriber.method);
+            }
+        }
+    }
+
+    /**
+     * Returns subscriber methods of given listener type. Methods are resolved once per type,
+     * overriding method is subscriber if overridden one is annotated.
+     */
+    private static Subscriber[] getSubscribers(Class<?> type) {
+        Subscriber[] subscribers = SUBSCRIBERS.get(type);
+        if (subscribers == null) {
+            subscribers = createSubscribers(type);
+            SUBSCRIBERS.putIfAbsent(type, subscribers);
+        }
+        return subscribers;
+    }
+
+    private static Subscriber[] createSubscribers(Class<?> type) {
+        List<Subscriber> subscribers = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method m : type.getMethods()) {
+            if (m.getParameterTypes().length != 1 || !isSubscriber(type, m)) continue;
+            try {
+                m.setAccessible(true); //declaring class is not required to be public
+                MethodHandle mh = lookup.unreflect(m).asType(HANDLER_TYPE);
+                subscribers.add(new Subscriber(m.getParameterTypes()[0], mh, m));
+            } catch (IllegalAccessException | SecurityException e) {
+                LoggerFactory.getLogger(GameEventBus.class).error(e.getMessage(), e);
+            }
+        }
+        return subscribers.toArray(new Subscriber[subscribers.size()]);
+    }
+
+    private static boolean isSubscriber(Class<?> type, Method m) {
+        if (type == null) return false;
+        try {
+            if (type.getDeclaredMethod(m.getName(), m.getParameterTypes()).isAnnotationPresent(Subscribe.class)) {
+                return true;
+            }
+        } catch (NoSuchMethodException e) {
+            //not declared on this level
+        }
+        if (isSubscriber(type.getSuperclass(), m)) return true;
+        for (Class<?> iface : type.getInterfaces()) {
+            if (isSubscriber(iface, m)) return true;
+        }
+        return false;
+    }
+
+    private static class Subscriber {
+        final Class<?> eventType;
+        /** handle adapted to (listener, event) signature */
+        final MethodHandle handle;
+        final Method method;
+
+        Subscriber(Class<?> eventType, MethodHandle handle, Method method) {
+            this.eventType = eventType;
+            this.handle = handle;
+            this.method = method;
+        }
+    }
+
+    private static class Registration {
+        final Object listener;
+        final boolean core;
+        final Subscriber[] subscribers;
+
+        Registration(Object listener, boolean core, Subscriber[] subscribers) {
+            this.listener = listener;
+            this.core = core;
+            this.subscribers = subscribers;
+        }
+    }
+
+    private static class Handler {
+        final Object listener;
+        final Subscriber subscriber;
+
+        Handler(Object listener, Subscriber subscriber) {
+            this.listener = listener;
+            this.subscriber = subscriber;
+        }
+    }
+
+    /** Immutable set of registrations with lazily built handler arrays by event class. */
+    private static class Registry {
+        final Registration[] registrations;
+        final ConcurrentMap<Class<?>, Handler[]> handlers = new ConcurrentHashMap<>();
+        final ConcurrentMap<Class<?>, Handler[]> coreHandlers = new ConcurrentHashMap<>();
+
+        Registry(Registration[] registrations) {
+            this.registrations = registrations;
+        }
+
+        Handler[] getHandlers(Class<?> eventType, boolean coreOnly) {
+            ConcurrentMap<Class<?>, Handler[]> cache = coreOnly ? coreHandlers : handlers;
+            Handler[] result = cache.get(eventType);
+            if (result == null) {
+                List<Handler> list = new ArrayList<>();
+                for (Registration r : registrations) {
+                    if (coreOnly && !r.core) continue;
+                    for (Subscriber s : r.subscribers) {
+                        if (s.eventType.isAssignableFrom(eventType)) {
+                            list.add(new Handler(r.listener, s));
+                        }
+                    }
+                }
+                result = list.toArray(new Handler[list.size()]);
+                cache.putIfAbsent(eventType, result);
+            }
+            return result;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.jcloisterzone.game;
 
 import java.util.EnumSet;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import com.jcloisterzone.Expansion;
@@ -12,7 +12,7 @@ public class GameSettings {
     private String name;
     private final Set<CustomRule> customRules = EnumSet.noneOf(CustomRule.class);
     private final Set<Expansion> expansions = EnumSet.noneOf(Expansion.class);
-    private final Set<Class<? extends Capability>> capabilityClasses = new HashSet<>();
+    private final Set<Class<? extends Capability>> capabilityClasses = new LinkedHashSet<>(); //keep insertion order, game copies must create capabilities in same order
 
 
     public GameSettings(String gameId) {
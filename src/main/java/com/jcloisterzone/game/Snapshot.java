@@ -1,5 +1,6 @@
 package com.jcloisterzone.game;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -9,10 +10,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -26,8 +29,11 @@ import javax.xml.transform.stream.StreamResult;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -48,40 +54,104 @@ import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.PlayerSlot.SlotState;
 import com.jcloisterzone.game.phase.Phase;
 
-
+/**
+ * Saved game state. Snapshot holds game model (players, tiles, meeples...) taken when it was created
+ * or loaded, which is written either as XML document or in binary form without DOM.
+ *
+ * Capabilities persist their state through DOM elements, these elements are kept as detached
+ * fragments in both formats.
+ */
 public class Snapshot implements Serializable {
 
     protected transient Logger logger = LoggerFactory.getLogger(getClass());
 
     public static final String COMPATIBLE_FROM = "2.6"; //on incompatible change, remove alsi !capabilityName.startsWith("com.") code
 
-    private Document doc;
-    private Element root;
-
-    private Map<Position, Element> tileElemens; //write cache
+    /** Binary format skips XML serializer and parser, XML is kept as default for readable saves. */
+    public enum Format { XML, BINARY }
 
     private boolean gzipOutput = true;
+    private Format format = Format.XML;
+
+    /** owner document of capability fragments */
+    private transient Document fragments;
+
+    String appVersion;
+    String phase;
+    List<CustomRule> rules;
+    List<Expansion> expansions;
+    /** capability elements, name attribute identifies capability */
+    List<Element> capabilities;
+    List<PlayerEntry> players;
+    int turnPlayer;
+    Map<String, TileGroupState> groups;
+    String nextTile;
+    List<TileEntry> tiles;
+    List<String> discardedTiles;
+
+    static class PlayerEntry {
+        String name;
+        int points;
+        int slot;
+        boolean local;
+        String aiClassName;
+        Map<PointCategory, Integer> categoryPoints = new EnumMap<>(PointCategory.class);
+    }
+
+    static class MeepleEntry {
+        int player;
+        String type;
+        Location location;
+    }
+
+    /** Tile placed on board with meeples deployed on it. */
+    public static class TileEntry {
+        String name;
+        Position position;
+        Rotation rotation;
+        List<MeepleEntry> meeples = new ArrayList<>();
+        /** capability state of tile, see {@link Capability#saveTileToSnapshot(Tile, Document, Element)} */
+        Element state;
+
+        public String getName() {
+            return name;
+        }
 
+        public Position getPosition() {
+            return position;
+        }
+
+        public Rotation getRotation() {
+            return rotation;
+        }
+
+        public Element getState() {
+            return state;
+        }
+    }
 
     public Snapshot(Game game) {
-        createRootStructure(game);
-        createRuleElements(game);
-        createExpansionElements(game);
-        createCapabilityElements(game);
-        createPlayerElements(game);
-        createTileElements(game);
-        createMeepleElements(game);
+        init();
+        appVersion = Application.VERSION;
+        phase = game.getPhase().getClass().getName();
+        for (CustomRule cr : game.getCustomRules()) {
+            if (cr.equals(CustomRule.RANDOM_SEATING_ORDER)) continue;
+            rules.add(cr);
+        }
+        expansions.addAll(game.getExpansions());
+        for (Capability cap : game.getCapabilities()) {
+            Element el = fragments.createElement("capability");
+            el.setAttribute("name", cap.getClass().getSimpleName().replace("Capability", ""));
+            cap.saveToSnapshot(fragments, el);
+            capabilities.add(el);
+        }
+        createPlayerEntries(game);
+        createTileEntries(game);
     }
 
     public Snapshot(File savedGame) throws IOException, SAXException {
-        try {
-            load(new GZIPInputStream(new FileInputStream(savedGame)));
-        } catch (IOException e) {
-            if ("Not in GZIP format".equals(e.getMessage())) {
-                load(new FileInputStream(savedGame));
-            } else {
-                throw e;
-            }
+        try (InputStream is = new FileInputStream(savedGame)) {
+            load(is);
         }
     }
 
@@ -89,6 +159,18 @@ public class Snapshot implements Serializable {
         load(snapshot);
     }
 
+    private void init() {
+        fragments = XmlUtils.newDocument();
+        rules = new ArrayList<>();
+        expansions = new ArrayList<>();
+        capabilities = new ArrayList<>();
+        players = new ArrayList<>();
+        groups = new LinkedHashMap<>();
+        nextTile = "";
+        tiles = new ArrayList<>();
+        discardedTiles = new ArrayList<>();
+    }
+
     public boolean isGzipOutput() {
         return gzipOutput;
     }
@@ -97,110 +179,68 @@ public class Snapshot implements Serializable {
         this.gzipOutput = gzipOutput;
     }
 
-
-    private void createRootStructure(Game game) {
-        doc = XmlUtils.newDocument();
-        root = doc.createElement("game");
-        root.setAttribute("app-version", Application.VERSION);
-        root.setAttribute("phase", game.getPhase().getClass().getName());
-        doc.appendChild(root);
-
-    }
-
-    private void createRuleElements(Game game) {
-        for (CustomRule cr : game.getCustomRules()) {
-            if (cr.equals(CustomRule.RANDOM_SEATING_ORDER)) continue;
-            Element el = doc.createElement("rule");
-            el.setAttribute("name", cr.name());
-            root.appendChild(el);
-        }
+    public Format getFormat() {
+        return format;
     }
 
-    private void createExpansionElements(Game game) {
-        for (Expansion exp : game.getExpansions()) {
-            Element el = doc.createElement("expansion");
-            el.setAttribute("name", exp.name());
-            root.appendChild(el);
-        }
+    public void setFormat(Format format) {
+        this.format = format;
     }
 
-    private void createCapabilityElements(Game game) {
-        for (Capability cap : game.getCapabilities()) {
-            Element el = doc.createElement("capability");
-            el.setAttribute("name", cap.getClass().getSimpleName().replace("Capability", ""));
-            root.appendChild(el);
-            cap.saveToSnapshot(doc, el);
-        }
+    Document getFragments() {
+        return fragments;
     }
 
-
-    private void createPlayerElements(Game game) {
-        Element parent = doc.createElement("players");
-        parent.setAttribute("turn", "" + game.getTurnPlayer().getIndex());
-        root.appendChild(parent);
+    private void createPlayerEntries(Game game) {
+        turnPlayer = game.getTurnPlayer().getIndex();
         for (Player p : game.getAllPlayers()) {
-            Element el = doc.createElement("player");
-            el.setAttribute("name", p.getNick());
-            el.setAttribute("points", "" + p.getPoints());
-            el.setAttribute("slot", "" + p.getSlot().getNumber());
-            if (p.getSlot().isOwn()) {
-                el.setAttribute("local", "true");
-            }
+            PlayerEntry entry = new PlayerEntry();
+            entry.name = p.getNick();
+            entry.points = p.getPoints();
+            entry.slot = p.getSlot().getNumber();
+            entry.local = p.getSlot().isOwn();
             if (p.getSlot().isAi()) {
-                el.setAttribute("ai-class", p.getSlot().getAiClassName());
+                entry.aiClassName = p.getSlot().getAiClassName();
             }
             for (PointCategory cat : PointCategory.values()) {
                 int points = p.getPointsInCategory(cat);
                 if (points != 0) { //can be <0 (ransom)
-                    Element catEl = doc.createElement("point-category");
-                    catEl.setAttribute("name", cat.name());
-                    catEl.setAttribute("points", "" + points);
-                    el.appendChild(catEl);
+                    entry.categoryPoints.put(cat, points);
                 }
             }
-            parent.appendChild(el);
+            players.add(entry);
         }
     }
 
-    private void createTileElements(Game game) {
-        tileElemens = new HashMap<Position, Element>();
-        Element parent = doc.createElement("tiles");
+    private void createTileEntries(Game game) {
         if (game.getCurrentTile() != null) {
-            parent.setAttribute("next", game.getCurrentTile().getId());
+            nextTile = game.getCurrentTile().getId();
         }
-        root.appendChild(parent);
         for (String group : game.getTilePack().getGroups()) {
             if (group.equals(LoadGameTilePackFactory.PLACED_GROUP)) continue; //empty technical group created only when loading game
             if (group.equals(TilePack.INACTIVE_GROUP)) continue; //system always existing group
-            Element el = doc.createElement("group");
-            el.setAttribute("name", group);
-            el.setAttribute("state", game.getTilePack().getGroupState(group).name());
-            parent.appendChild(el);
+            groups.put(group, game.getTilePack().getGroupState(group));
         }
+        Map<Position, TileEntry> byPosition = new LinkedHashMap<>();
         for (Tile tile : game.getBoard().getAllTiles()) {
-            Element el = doc.createElement("tile");
-            el.setAttribute("name", tile.getId());
-            el.setAttribute("rotation", tile.getRotation().name());
-            XmlUtils.injectPosition(el, tile.getPosition());
-            parent.appendChild(el);
-            tileElemens.put(tile.getPosition(), el);
-            game.saveTileToSnapshot(tile, doc, el);
-        }
-        for (Tile tile : game.getBoard().getDiscardedTiles()) {
-            Element el = doc.createElement("discard");
-            el.setAttribute("name", tile.getId());
-            parent.appendChild(el);
+            TileEntry entry = new TileEntry();
+            entry.name = tile.getId();
+            entry.position = tile.getPosition();
+            entry.rotation = tile.getRotation();
+            entry.state = fragments.createElement("tile");
+            game.saveTileToSnapshot(tile, fragments, entry.state);
+            tiles.add(entry);
+            byPosition.put(entry.position, entry);
         }
-    }
-
-    private void createMeepleElements(Game game) {
         for (Meeple m : game.getDeployedMeeples()) {
-            Element tileEl = tileElemens.get(m.getPosition());
-            Element el = doc.createElement("meeple");
-            el.setAttribute("player", "" + m.getPlayer().getIndex());
-            el.setAttribute("type", "" + m.getClass().getSimpleName());
-            el.setAttribute("loc", "" + m.getLocation());
-            tileEl.appendChild(el);
+            MeepleEntry entry = new MeepleEntry();
+            entry.player = m.getPlayer().getIndex();
+            entry.type = m.getClass().getSimpleName();
+            entry.location = m.getLocation();
+            byPosition.get(m.getPosition()).meeples.add(entry);
+        }
+        for (Tile tile : game.getBoard().getDiscardedTiles()) {
+            discardedTiles.add(tile.getId());
         }
     }
 
@@ -214,69 +254,274 @@ public class Snapshot implements Serializable {
 
     //TODO move close on caller
     public void save(OutputStream os, boolean gzipOutput, boolean close) throws TransformerException, IOException {
-        StreamResult streamResult;
-        if (gzipOutput) {
-            streamResult = new StreamResult(new GZIPOutputStream(os));
+        OutputStream out = gzipOutput ? new GZIPOutputStream(os) : os;
+        if (format == Format.BINARY) {
+            BinarySnapshotCodec.write(this, out);
         } else {
-            streamResult = new StreamResult(os);
+            StreamResult streamResult = new StreamResult(out);
+            TransformerFactory tf = TransformerFactory.newInstance();
+            Transformer serializer = tf.newTransformer();
+            serializer.setOutputProperty(OutputKeys.INDENT, "yes");
+            serializer.setOutputProperty(OutputKeys.STANDALONE, "yes");
+            serializer.setOutputProperty(OutputKeys.METHOD, "xml");
+            serializer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            serializer.setOutputProperty(OutputKeys.MEDIA_TYPE, "text/xml");
+            serializer.transform(new DOMSource(toDocument()), streamResult);
         }
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer serializer = tf.newTransformer();
-        serializer.setOutputProperty(OutputKeys.INDENT, "yes");
-        serializer.setOutputProperty(OutputKeys.STANDALONE, "yes");
-        serializer.setOutputProperty(OutputKeys.METHOD, "xml");
-        serializer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-        serializer.setOutputProperty(OutputKeys.MEDIA_TYPE, "text/xml");
-        serializer.transform(new DOMSource(doc), streamResult);
         if (close) {
-            streamResult.getOutputStream().close();
+            out.close();
+        } else if (gzipOutput) {
+            ((GZIPOutputStream) out).finish();
         }
     }
 
+    /** Always returns XML regardless of output format. */
     public String saveToString() throws TransformerException, IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        save(baos, false);
+        Format f = format;
+        format = Format.XML;
+        try {
+            save(baos, false);
+        } finally {
+            format = f;
+        }
         baos.close();
         return new String(baos.toByteArray(),"UTF-8");
     }
 
+    private Document toDocument() {
+        Document doc = XmlUtils.newDocument();
+        Element root = doc.createElement("game");
+        root.setAttribute("app-version", appVersion);
+        root.setAttribute("phase", phase);
+        doc.appendChild(root);
+        for (CustomRule cr : rules) {
+            Element el = doc.createElement("rule");
+            el.setAttribute("name", cr.name());
+            root.appendChild(el);
+        }
+        for (Expansion exp : expansions) {
+            Element el = doc.createElement("expansion");
+            el.setAttribute("name", exp.name());
+            root.appendChild(el);
+        }
+        for (Element cap : capabilities) {
+            root.appendChild(doc.importNode(cap, true));
+        }
+
+        Element parent = doc.createElement("players");
+        parent.setAttribute("turn", "" + turnPlayer);
+        root.appendChild(parent);
+        for (PlayerEntry p : players) {
+            Element el = doc.createElement("player");
+            el.setAttribute("name", p.name);
+            el.setAttribute("points", "" + p.points);
+            el.setAttribute("slot", "" + p.slot);
+            if (p.local) {
+                el.setAttribute("local", "true");
+            }
+            if (p.aiClassName != null) {
+                el.setAttribute("ai-class", p.aiClassName);
+            }
+            for (Entry<PointCategory, Integer> entry : p.categoryPoints.entrySet()) {
+                Element catEl = doc.createElement("point-category");
+                catEl.setAttribute("name", entry.getKey().name());
+                catEl.setAttribute("points", "" + entry.getValue());
+                el.appendChild(catEl);
+            }
+            parent.appendChild(el);
+        }
+
+        parent = doc.createElement("tiles");
+        if (nextTile.length() > 0) {
+            parent.setAttribute("next", nextTile);
+        }
+        root.appendChild(parent);
+        for (Entry<String, TileGroupState> entry : groups.entrySet()) {
+            Element el = doc.createElement("group");
+            el.setAttribute("name", entry.getKey());
+            el.setAttribute("state", entry.getValue().name());
+            parent.appendChild(el);
+        }
+        for (TileEntry tile : tiles) {
+            Element el = (Element) doc.importNode(tile.state, true);
+            el.setAttribute("name", tile.name);
+            el.setAttribute("rotation", tile.rotation.name());
+            XmlUtils.injectPosition(el, tile.position);
+            for (MeepleEntry m : tile.meeples) {
+                Element meepleEl = doc.createElement("meeple");
+                meepleEl.setAttribute("player", "" + m.player);
+                meepleEl.setAttribute("type", m.type);
+                meepleEl.setAttribute("loc", "" + m.location);
+                el.appendChild(meepleEl);
+            }
+            parent.appendChild(el);
+        }
+        for (String tileId : discardedTiles) {
+            Element el = doc.createElement("discard");
+            el.setAttribute("name", tileId);
+            parent.appendChild(el);
+        }
+        return doc;
+    }
+
+    /**
+     * Loads snapshot, gzip compression and binary format are detected from stream header.
+     */
     public void load(InputStream is) throws SnapshotCorruptedException {
-        doc = XmlUtils.parseDocument(is);
-        root = doc.getDocumentElement();
-        String snapshotVersion = root.getAttribute("app-version");
-        if (!snapshotVersion.equals(Application.VERSION) && !snapshotVersion.equals(Application.DEV_VERSION)) {
-            if ((new VersionComparator()).compare(snapshotVersion, Snapshot.COMPATIBLE_FROM) < 0) {
-                throw new SnapshotVersionException("Saved game is not compatible with current JCloisterZone application. (saved in "+snapshotVersion+")");
+        init();
+        try {
+            is = new BufferedInputStream(is);
+            byte[] header = peek(is, 2);
+            if ((header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b) {
+                is = new BufferedInputStream(new GZIPInputStream(is));
+            }
+            if (BinarySnapshotCodec.isBinary(peek(is, BinarySnapshotCodec.MAGIC.length))) {
+                format = Format.BINARY;
+                BinarySnapshotCodec.read(this, is);
+            } else {
+                fromDocument(XmlUtils.parseDocument(is));
+            }
+        } catch (IOException e) {
+            throw new SnapshotCorruptedException(e);
+        }
+        if (!appVersion.equals(Application.VERSION) && !appVersion.equals(Application.DEV_VERSION)) {
+            if ((new VersionComparator()).compare(appVersion, Snapshot.COMPATIBLE_FROM) < 0) {
+                throw new SnapshotVersionException("Saved game is not compatible with current JCloisterZone application. (saved in "+appVersion+")");
             }
         }
     }
 
+    private static byte[] peek(InputStream is, int length) throws IOException {
+        byte[] header = new byte[length];
+        is.mark(length);
+        int read = 0;
+        while (read < length) {
+            int n = is.read(header, read, length - read);
+            if (n == -1) break;
+            read += n;
+        }
+        is.reset();
+        return header;
+    }
+
     public void load(String s) throws SnapshotCorruptedException, IOException {
         ByteArrayInputStream bais = new ByteArrayInputStream(s.getBytes("UTF-8"));
         load(bais);
         bais.close();
     }
 
-    private NodeList getSecondLevelElelents(String first, String second) {
-        return ((Element)root.getElementsByTagName(first).item(0)).getElementsByTagName(second);
-    }
+    /** Reads game model from snapshot document. */
+    private void fromDocument(Document doc) {
+        Element root = doc.getDocumentElement();
+        appVersion = root.getAttribute("app-version");
+        phase = root.getAttribute("phase");
+        NodeList nl = root.getElementsByTagName("rule");
+        for (int i = 0; i < nl.getLength(); i++) {
+            rules.add(CustomRule.valueOf(((Element) nl.item(i)).getAttribute("name")));
+        }
+        nl = root.getElementsByTagName("expansion");
+        for (int i = 0; i < nl.getLength(); i++) {
+            expansions.add(Expansion.valueOf(((Element) nl.item(i)).getAttribute("name")));
+        }
+        nl = root.getElementsByTagName("capability");
+        for (int i = 0; i < nl.getLength(); i++) {
+            capabilities.add(importFragment((Element) nl.item(i)));
+        }
 
-    public Set<Expansion> getExpansions() {
-        Set<Expansion> result = new HashSet<>();
-        NodeList nl = root.getElementsByTagName("expansion");
+        Element parent = (Element) root.getElementsByTagName("players").item(0);
+        turnPlayer = Integer.parseInt(parent.getAttribute("turn"));
+        nl = parent.getElementsByTagName("player");
         for (int i = 0; i < nl.getLength(); i++) {
             Element el = (Element) nl.item(i);
-            Expansion exp = Expansion.valueOf(el.getAttribute("name"));
-            result.add(exp);
+            PlayerEntry p = new PlayerEntry();
+            p.name = el.getAttribute("name");
+            p.points = Integer.parseInt(el.getAttribute("points"));
+            p.slot = Integer.parseInt(el.getAttribute("slot"));
+            p.local = el.hasAttribute("local");
+            if (el.hasAttribute("ai-class")) {
+                p.aiClassName = el.getAttribute("ai-class");
+            }
+            NodeList categories = el.getElementsByTagName("point-category");
+            for (int j = 0; j < categories.getLength(); j++) {
+                Element catEl = (Element) categories.item(j);
+                PointCategory cat = PointCategory.valueOf(catEl.getAttribute("name"));
+                p.categoryPoints.put(cat, Integer.parseInt(catEl.getAttribute("points")));
+            }
+            players.add(p);
         }
-        return result;
+
+        parent = (Element) root.getElementsByTagName("tiles").item(0);
+        nextTile = parent.getAttribute("next");
+        nl = parent.getElementsByTagName("group");
+        for (int i = 0; i < nl.getLength(); i++) {
+            Element el = (Element) nl.item(i);
+            groups.put(el.getAttribute("name"), TileGroupState.valueOf(el.getAttribute("state")));
+        }
+        nl = parent.getElementsByTagName("tile");
+        for (int i = 0; i < nl.getLength(); i++) {
+            tiles.add(readTileElement((Element) nl.item(i)));
+        }
+        nl = parent.getElementsByTagName("discard");
+        for (int i = 0; i < nl.getLength(); i++) {
+            discardedTiles.add(((Element) nl.item(i)).getAttribute("name"));
+        }
+    }
+
+    private TileEntry readTileElement(Element tileEl) {
+        TileEntry tile = new TileEntry();
+        tile.name = tileEl.getAttribute("name");
+        tile.position = XmlUtils.extractPosition(tileEl);
+        tile.rotation = Rotation.valueOf(tileEl.getAttribute("rotation"));
+        tile.state = fragments.createElement("tile");
+        NamedNodeMap attrs = tileEl.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            Attr attr = (Attr) attrs.item(i);
+            switch (attr.getName()) {
+            case "name": case "rotation": case "x": case "y":
+                break;
+            default:
+                tile.state.setAttribute(attr.getName(), attr.getValue());
+            }
+        }
+        for (Node child = tileEl.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) continue;
+            Element el = (Element) child;
+            if (el.getTagName().equals("meeple")) {
+                MeepleEntry m = new MeepleEntry();
+                m.player = Integer.parseInt(el.getAttribute("player"));
+                m.type = el.getAttribute("type");
+                m.location = Location.valueOf(el.getAttribute("loc"));
+                tile.meeples.add(m);
+            } else {
+                tile.state.appendChild(importFragment(el));
+            }
+        }
+        return tile;
+    }
+
+    /** Copies parsed element to fragments document, indentation is dropped. */
+    private Element importFragment(Element source) {
+        Element el = (Element) fragments.importNode(source, false);
+        for (Node child = source.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                el.appendChild(importFragment((Element) child));
+            } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                if (child.getNodeValue().trim().length() > 0) {
+                    el.appendChild(fragments.importNode(child, false));
+                }
+            }
+        }
+        return el;
+    }
+
+    public Set<Expansion> getExpansions() {
+        return new HashSet<>(expansions);
     }
 
     @SuppressWarnings("unchecked")
     public void loadCapabilities(Game game) {
-        NodeList nl = root.getElementsByTagName("capability");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
+        for (Element el : capabilities) {
             String capabilityName = el.getAttribute("name");
             if (!capabilityName.startsWith("com.")) { //else 2.X loaded game
                 capabilityName = "com.jcloisterzone.game.capability." + el.getAttribute("name") + "Capability";
@@ -285,112 +530,77 @@ public class Snapshot implements Serializable {
             //TODO instances should be created here, not in load phase
             Class<? extends Capability> capabilityClass = (Class<? extends Capability>) XmlUtils.classForName(capabilityName);
             Capability capability = game.getCapability(capabilityClass);
-            capability.loadFromSnapshot(doc, el);
+            capability.loadFromSnapshot(el.getOwnerDocument(), el);
         }
     }
 
     public Set<CustomRule> getCustomRules() {
-        Set<CustomRule> result = new HashSet<>();
-        NodeList nl = root.getElementsByTagName("rule");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
-            CustomRule rule = CustomRule.valueOf(el.getAttribute("name"));
-            result.add(rule);
-        }
-        return result;
+        return new HashSet<>(rules);
     }
 
     public List<Player> getPlayers() {
-        List<Player> players = new ArrayList<>();
-        NodeList nl = getSecondLevelElelents("players", "player");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
-            PlayerSlot slot = new PlayerSlot(Integer.parseInt(el.getAttribute("slot")));
-            Player p = new Player(el.getAttribute("name"), i, slot);
-            p.setPoints(Integer.parseInt(el.getAttribute("points")));
-            if (el.hasAttribute("ai-class")) {
-                String aiClassName = el.getAttribute("ai-class");
-                slot.setAiClassName(aiClassName);
+        List<Player> result = new ArrayList<>();
+        for (int i = 0; i < players.size(); i++) {
+            PlayerEntry entry = players.get(i);
+            PlayerSlot slot = new PlayerSlot(entry.slot);
+            Player p = new Player(entry.name, i, slot);
+            p.setPoints(entry.points);
+            if (entry.aiClassName != null) {
+                slot.setAiClassName(entry.aiClassName);
             } else {
-                if (el.hasAttribute("local")) {
+                if (entry.local) {
                     slot.setState(SlotState.OWN);
                 }
             }
-            NodeList categories = el.getElementsByTagName("point-category");
-            for (int j = 0; j < categories.getLength(); j++) {
-                Element catEl = (Element) categories.item(j);
-                PointCategory cat = PointCategory.valueOf(catEl.getAttribute("name"));
-                p.setPointsInCategory(cat, Integer.parseInt(catEl.getAttribute("points")));
+            for (Entry<PointCategory, Integer> cat : entry.categoryPoints.entrySet()) {
+                p.setPointsInCategory(cat.getKey(), cat.getValue());
             }
-            players.add(p);
+            result.add(p);
         }
-        return players;
+        return result;
     }
 
     public int getTurnPlayer() {
-        Element el = (Element) doc.getElementsByTagName("players").item(0);
-        return Integer.parseInt(el.getAttribute("turn"));
+        return turnPlayer;
     }
 
     public Map<String, TileGroupState> getActiveGroups() {
-        Map<String, TileGroupState> result = new HashMap<>();
-        NodeList nl = getSecondLevelElelents("tiles", "group");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
-            TileGroupState state = TileGroupState.valueOf(el.getAttribute("state"));
-            result.put(el.getAttribute("name"), state);
-        }
-        return result;
+        return new LinkedHashMap<>(groups);
     }
 
     public List<String> getDiscardedTiles() {
-        List<String> result = new ArrayList<>();
-        NodeList nl = getSecondLevelElelents("tiles", "discard");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
-            result.add(el.getAttribute("name"));
-        }
-        return result;
-    }
-
-    public Rotation extractTileRotation(Element el) {
-        return Rotation.valueOf(el.getAttribute("rotation"));
+        return discardedTiles;
     }
 
     @SuppressWarnings("unchecked")
-    public List<Meeple> extractTileMeeples(Element tileEl, Game game, Position pos) throws SnapshotCorruptedException {
-        NodeList nl = tileEl.getElementsByTagName("meeple");
+    public List<Meeple> extractTileMeeples(TileEntry tile, Game game) throws SnapshotCorruptedException {
         List<Meeple> result = new ArrayList<>();
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element el = (Element) nl.item(i);
-            Location loc = Location.valueOf(el.getAttribute("loc"));
-            String meepleType = el.getAttribute("type");
+        for (MeepleEntry m : tile.meeples) {
+            String meepleType = m.type;
             if (!meepleType.startsWith("com.")) { // 2.X snapshot compatibility
                 meepleType = "com.jcloisterzone.figure." + meepleType;
             }
             Class<? extends Meeple> mt = (Class<? extends Meeple>) XmlUtils.classForName(meepleType);
-            int playerIndex = Integer.parseInt(el.getAttribute("player"));
-            Meeple meeple = game.getPlayer(playerIndex).getMeepleFromSupply(mt);
-            meeple.setLocation(loc);
-            meeple.setPosition(pos);
+            Meeple meeple = game.getPlayer(m.player).getMeepleFromSupply(mt);
+            meeple.setLocation(m.location);
+            meeple.setPosition(tile.position);
             //don't set feature here. Feature must be set after meeple deployment to correct replace ref during merge
             result.add(meeple);
         }
         return result;
     }
 
-    public NodeList getTileElements() {
-        return getSecondLevelElelents("tiles", "tile");
+    public List<TileEntry> getTiles() {
+        return tiles;
     }
 
     public String getNextTile() {
-        Element el = (Element) root.getElementsByTagName("tiles").item(0);
-        return el.getAttribute("next");
+        return nextTile;
     }
 
     @SuppressWarnings("unchecked")
     public Class<? extends Phase> getActivePhase() throws SnapshotCorruptedException {
-        return (Class<? extends Phase>) XmlUtils.classForName(root.getAttribute("phase"));
+        return (Class<? extends Phase>) XmlUtils.classForName(phase);
     }
 
     public Game asGame(String gameId) {
@@ -410,6 +620,8 @@ public class Snapshot implements Serializable {
     private void readObject(java.io.ObjectInputStream stream) throws IOException, ClassNotFoundException {
         String xml = (String) stream.readObject();
         InputStream is = new ByteArrayInputStream(xml.getBytes());
+        format = Format.XML;
+        gzipOutput = true;
         load(is);
         logger = LoggerFactory.getLogger(getClass());
     }
@@ -421,7 +633,7 @@ public class Snapshot implements Serializable {
         TransformerFactory tf = TransformerFactory.newInstance();
         try {
             Transformer serializer = tf.newTransformer();
-            serializer.transform(new DOMSource(doc), streamResult);
+            serializer.transform(new DOMSource(toDocument()), streamResult);
             stream.writeObject(os.toString());
         } catch (TransformerException e) {
             throw new IOException(e);
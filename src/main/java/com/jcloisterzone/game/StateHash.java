@@ -0,0 +1,148 @@
+package com.jcloisterzone.game;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TileSymmetry;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.game.capability.TowerCapability;
+
+/**
+ * Zobrist style hash of game state. Each state element (placed tile, meeple, player score...)
+ * gets own pseudo random 64-bit key and keys are combined by commutative operation,
+ * so hash doesn't depend on order in which state was reached.
+ *
+ * Tile part is maintained incrementally by {@link com.jcloisterzone.board.Board}.
+ * Rotations of symmetric tiles are normalized, equal looking boards have equal hash.
+ *
+ * Hash is intended for in-memory caches only, capability state is hashed using object hash codes
+ * which are not stable between runs.
+ */
+public final class StateHash {
+
+    private static final long TILE = 0x1L;
+    private static final long MEEPLE = 0x2L;
+    private static final long POINTS = 0x3L;
+    private static final long TOWER = 0x4L;
+    private static final long CAPABILITY = 0x5L;
+    private static final long BRIDGE = 0x6L;
+
+    private StateHash() {
+    }
+
+    /** splitmix64 finalizer, spreads bits of value over whole long */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long key(long kind, long a, long b) {
+        return mix(mix(mix(kind) + a) + b);
+    }
+
+    /** key of tile placed on given position */
+    public static long tileKey(Tile tile, Position p) {
+        int rotation = tile.getRotation().ordinal();
+        TileSymmetry symmetry = tile.getSymmetry();
+        if (symmetry == TileSymmetry.S4) {
+            rotation = 0;
+        } else if (symmetry == TileSymmetry.S2) {
+            rotation = rotation % 2;
+        }
+        return key(TILE, p.pack(), tile.getId().hashCode() * 4L + rotation);
+    }
+
+    private static long meepleKey(Meeple m) {
+        Position p = m.getPosition();
+        long type = m.getClass().getName().hashCode() * 8L + m.getPlayer().getIndex();
+        return key(MEEPLE, p == null ? Long.MIN_VALUE : p.pack(), type * 31 + m.getLocation().hashCode());
+    }
+
+    /**
+     * Computes hash of current game state.
+     * @throws UnsupportedOperationException if some capability doesn't support backup of its state
+     */
+    public static long hash(Game game) {
+        long h = game.getBoard().getTilesHash();
+        h += key(TILE, game.getTilePack().totalSize(), game.getPhase().getClass().getName().hashCode());
+        Tile current = game.getCurrentTile();
+        if (current != null) {
+            Position p = current.getPosition();
+            h += key(TILE, current.getId().hashCode(), p == null ? Long.MIN_VALUE : p.pack());
+        }
+        for (Player player : game.getAllPlayers()) {
+            h += key(POINTS, player.getIndex(), player.getPoints());
+            for (Meeple m : player.getMeeples()) {
+                //meeples are added, same meeples can be in prison
+                if (m.getLocation() != null) {
+                    h += meepleKey(m);
+                }
+            }
+        }
+        if (game.getCapability(TowerCapability.class) != null) {
+            for (Tile tile : game.getBoard().getAllTiles()) {
+                if (tile.getTower() != null) {
+                    h += key(TOWER, tile.getPosition().pack(), tile.getTower().getHeight());
+                }
+            }
+        }
+        if (game.getCapability(BridgeCapability.class) != null) {
+            //bridges are placed on tiles already on board, capability backup holds only bridge counts
+            for (Tile tile : game.getBoard().getAllTiles()) {
+                if (tile.getBridge() != null) {
+                    h += key(BRIDGE, tile.getPosition().pack(), tile.getBridge().getLocation().getMask());
+                }
+            }
+        }
+        List<Capability> capabilities = game.getCapabilities();
+        for (int i = 0; i < capabilities.size(); i++) {
+            h += key(CAPABILITY, i, valueHash(capabilities.get(i).backup()));
+        }
+        return h;
+    }
+
+    /** hash of capability backup, arrays and collections are hashed by content */
+    private static long valueHash(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Object[]) {
+            long h = 1;
+            for (Object item : (Object[]) value) {
+                h = mix(h * 31 + valueHash(item));
+            }
+            return h;
+        }
+        if (value.getClass().isArray()) {
+            return Arrays.deepHashCode(new Object[] { value });
+        }
+        if (value instanceof Map) {
+            long h = 0;
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                h += mix(valueHash(entry.getKey()) * 31 + valueHash(entry.getValue()));
+            }
+            return h;
+        }
+        if (value instanceof List) {
+            long h = 1;
+            for (Object item : (List<?>) value) {
+                h = mix(h * 31 + valueHash(item));
+            }
+            return h;
+        }
+        if (value instanceof Collection) {
+            long h = 0;
+            for (Object item : (Collection<?>) value) {
+                h += mix(valueHash(item));
+            }
+            return h;
+        }
+        return value.hashCode();
+    }
+}
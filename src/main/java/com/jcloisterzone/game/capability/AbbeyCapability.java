@@ -1,6 +1,6 @@
 package com.jcloisterzone.game.capability;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 
 import org.w3c.dom.Document;
@@ -9,12 +9,13 @@ import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.Player;
 import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
 public class AbbeyCapability extends Capability {
 
-    private final Set<Player> unusedAbbey = new HashSet<>();
+    private Set<Player> unusedAbbey = Collections.emptySet(); //copy-on-write
     private Player abbeyRoundLastPlayer; //when last tile is drawn all players can still place abbey
 
     public AbbeyCapability(Game game) {
@@ -24,7 +25,7 @@ public class AbbeyCapability extends Capability {
     @Override
     public Object backup() {
         return new Object[] {
-            new HashSet<>(unusedAbbey),
+            unusedAbbey,
             abbeyRoundLastPlayer
         };
     }
@@ -33,14 +34,13 @@ public class AbbeyCapability extends Capability {
     @Override
     public void restore(Object data) {
         Object[] a = (Object[]) data;
-        unusedAbbey.clear();
-        unusedAbbey.addAll((Set<Player>) a[0]);
+        unusedAbbey = (Set<Player>) a[0];
         abbeyRoundLastPlayer = (Player) a[1];
     }
 
     @Override
     public void initPlayer(Player player) {
-        unusedAbbey.add(player);
+        unusedAbbey = CopyOnWrite.with(unusedAbbey, player);
     }
 
     @Override
@@ -53,13 +53,14 @@ public class AbbeyCapability extends Capability {
     }
 
     public void useAbbey(Player player) {
-        if (!unusedAbbey.remove(player)) {
+        if (!unusedAbbey.contains(player)) {
             throw new IllegalArgumentException("Player alredy used his abbey");
         }
+        unusedAbbey = CopyOnWrite.without(unusedAbbey, player);
     }
     
     public void undoUseAbbey(Player player) {
-    	unusedAbbey.add(player);
+    	unusedAbbey = CopyOnWrite.with(unusedAbbey, player);
     }
 
     public Player getAbbeyRoundLastPlayer() {
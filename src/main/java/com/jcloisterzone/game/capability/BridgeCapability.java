@@ -1,6 +1,6 @@
 package com.jcloisterzone.game.capability;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -17,6 +17,7 @@ import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.BridgeDeployedEvent;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
@@ -24,7 +25,7 @@ import com.jcloisterzone.game.Game;
 public class BridgeCapability extends Capability {
 
     private boolean bridgeUsed;
-    private final Map<Player, Integer> bridges = new HashMap<>();
+    private Map<Player, Integer> bridges = Collections.emptyMap(); //copy-on-write
 
     public BridgeCapability(Game game) {
         super(game);
@@ -34,7 +35,7 @@ public class BridgeCapability extends Capability {
     public Object backup() {
         return new Object[] {
             bridgeUsed,
-            new HashMap<>(bridges)
+            bridges
         };
     }
 
@@ -43,8 +44,7 @@ public class BridgeCapability extends Capability {
     public void restore(Object data) {
         Object[] a = (Object[]) data;
         bridgeUsed = (Boolean) a[0];
-        bridges.clear();
-        bridges.putAll((Map<Player, Integer>) a[1]);
+        bridges = (Map<Player, Integer>) a[1];
     }
 
 
@@ -52,9 +52,9 @@ public class BridgeCapability extends Capability {
     public void initPlayer(Player player) {
         int players = game.getAllPlayers().length;
         if (players < 5) {
-            bridges.put(player, 3);
+            bridges = CopyOnWrite.with(bridges, player, 3);
         } else {
-            bridges.put(player, 2);
+            bridges = CopyOnWrite.with(bridges, player, 2);
         }
     }
 
@@ -188,7 +188,7 @@ public class BridgeCapability extends Capability {
     public void decreaseBridges(Player player) {
         int n = getPlayerBridges(player);
         if (n == 0) throw new IllegalStateException("Player has no bridges");
-        bridges.put(player, n-1);
+        bridges = CopyOnWrite.with(bridges, player, n-1);
     }
 
     public void deployBridge(Position pos, Location loc) {
@@ -198,6 +198,7 @@ public class BridgeCapability extends Capability {
         }
         bridgeUsed = true;
         tile.placeBridge(loc);
+        getBoard().refreshAdjacentAvailMoves(pos);
         game.post(new BridgeDeployedEvent(game.getActivePlayer(), pos, loc));
     }
 
@@ -237,7 +238,7 @@ public class BridgeCapability extends Capability {
         for (int i = 0; i < nl.getLength(); i++) {
             Element playerEl = (Element) nl.item(i);
             Player player = game.getPlayer(Integer.parseInt(playerEl.getAttribute("index")));
-            bridges.put(player, Integer.parseInt(playerEl.getAttribute("bridges")));
+            bridges = CopyOnWrite.with(bridges, player, Integer.parseInt(playerEl.getAttribute("bridges")));
         }
     }
 
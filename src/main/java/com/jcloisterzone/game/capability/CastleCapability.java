@@ -166,8 +166,8 @@ public class CastleCapability extends Capability {
     private Castle convertCityToCastle(Position pos, Location loc, boolean loadFromSnaphot) {
         Castle castle1 = replaceCityWithCastle(getBoard().get(pos), loc);
         Castle castle2 = replaceCityWithCastle(getBoard().get(pos.add(loc)), loc.rev());
-        castle1.getEdges()[0] = castle2;
-        castle2.getEdges()[0] = castle1;
+        castle1.setSecondFeature(castle2);
+        castle2.setSecondFeature(castle1);
         if (!loadFromSnaphot) {
             newCastles.add(castle1.getMaster());
         }
@@ -1,6 +1,6 @@
 package com.jcloisterzone.game.capability;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 
 import org.w3c.dom.Document;
@@ -11,6 +11,7 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.PointCategory;
 import com.jcloisterzone.TradeResource;
 import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.FeatureCompletedEvent;
 import com.jcloisterzone.event.TileEvent;
@@ -24,7 +25,8 @@ import com.jcloisterzone.game.Game;
 
 public class ClothWineGrainCapability extends Capability {
 
-    private final Map<Player, int[]> tradeResources = new HashMap<>();
+    /** copy-on-write map, arrays are never modified too */
+    private Map<Player, int[]> tradeResources = Collections.emptyMap();
 
     public ClothWineGrainCapability(final Game game) {
         super(game);
@@ -43,9 +45,12 @@ public class ClothWineGrainCapability extends Capability {
             int cityTradeResources[] = ((CityScoreContext)ev.getScoreContent()).getCityTradeResources();
             if (cityTradeResources != null) {
                 Player player = game.getActivePlayer();
-                int playersTradeResources[] = tradeResources.get(player);
+                int playersTradeResources[] = tradeResources.get(player).clone();
                 for (int i = 0; i < cityTradeResources.length; i++) {
                     playersTradeResources[i] += cityTradeResources[i];
+                }
+                tradeResources = CopyOnWrite.with(tradeResources, player, playersTradeResources);
+                for (int i = 0; i < cityTradeResources.length; i++) {
                     game.post(new TradeResourceEvent(player, TradeResource.values()[i], cityTradeResources[i]));
                 }
             }
@@ -54,23 +59,24 @@ public class ClothWineGrainCapability extends Capability {
 
     @Override
     public Object backup() {
-        return new HashMap<>(tradeResources);
+        return tradeResources;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void restore(Object data) {
-        tradeResources.clear();
-        tradeResources.putAll((Map<Player, int[]>) data);
+        tradeResources = (Map<Player, int[]>) data;
     }
 
     @Override
     public void initPlayer(Player player) {
-        tradeResources.put(player, new int[TradeResource.values().length]);
+        tradeResources = CopyOnWrite.with(tradeResources, player, new int[TradeResource.values().length]);
     }
 
     public void addTradeResources(Player p, TradeResource res, int n) {
-        tradeResources.get(p)[res.ordinal()] += n;
+        int[] playersTradeResources = tradeResources.get(p).clone();
+        playersTradeResources[res.ordinal()] += n;
+        tradeResources = CopyOnWrite.with(tradeResources, p, playersTradeResources);
     }
 
     public int getTradeResources(Player p, TradeResource res) {
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -14,6 +15,7 @@ import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.TileGroupState;
 import com.jcloisterzone.board.TileTrigger;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.NeutralFigureMoveEvent;
 import com.jcloisterzone.event.TileEvent;
@@ -28,7 +30,7 @@ public class DragonCapability extends Capability {
     private Position dragonPosition;
     private int dragonMovesLeft;
     private Player dragonPlayer;
-    private Set<Position> dragonVisitedTiles;
+    private Set<Position> dragonVisitedTiles; //copy-on-write
 
     public DragonCapability(final Game game) {
         super(game);
@@ -58,7 +60,7 @@ public class DragonCapability extends Capability {
             dragonPosition,
             dragonMovesLeft,
             dragonPlayer,
-            dragonVisitedTiles == null ? null : new HashSet<>(dragonVisitedTiles)
+            dragonVisitedTiles
          };
     }
 
@@ -69,7 +71,7 @@ public class DragonCapability extends Capability {
         dragonPosition = (Position) a[0];
         dragonMovesLeft = (Integer) a[1];
         dragonPlayer = (Player) a[2];
-        dragonVisitedTiles = a[3] == null ? null : new HashSet<>((Set<Position>) a[3]);
+        dragonVisitedTiles = (Set<Position>) a[3];
     }
 
 
@@ -117,8 +119,7 @@ public class DragonCapability extends Capability {
     public void triggerDragonMove() {
         dragonMovesLeft = DRAGON_MOVES;
         dragonPlayer = game.getTurnPlayer();
-        dragonVisitedTiles = new HashSet<>();
-        dragonVisitedTiles.add(dragonPosition);
+        dragonVisitedTiles = Collections.singleton(dragonPosition);
     }
 
     public void endDragonMove() {
@@ -128,7 +129,7 @@ public class DragonCapability extends Capability {
     }
 
     public void moveDragon(Position p) {
-        dragonVisitedTiles.add(p);
+        dragonVisitedTiles = CopyOnWrite.with(dragonVisitedTiles, p);
         dragonPosition = p;
         dragonPlayer = game.getNextPlayer(dragonPlayer);
         dragonMovesLeft--;
@@ -180,11 +181,12 @@ public class DragonCapability extends Capability {
             if (dragon.hasAttribute("moves")) {
                 dragonMovesLeft  = Integer.parseInt(dragon.getAttribute("moves"));
                 dragonPlayer = game.getPlayer(Integer.parseInt(dragon.getAttribute("movingPlayer")));
-                dragonVisitedTiles = new HashSet<>();
+                Set<Position> visited = new HashSet<>();
                 NodeList vl = dragon.getElementsByTagName("visited");
                 for (int i = 0; i < vl.getLength(); i++) {
-                    dragonVisitedTiles.add(XmlUtils.extractPosition((Element) vl.item(i)));
+                    visited.add(XmlUtils.extractPosition((Element) vl.item(i)));
                 }
+                dragonVisitedTiles = Collections.unmodifiableSet(visited);
             }
         }
     }
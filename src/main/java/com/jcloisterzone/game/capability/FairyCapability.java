@@ -7,7 +7,6 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
-import com.google.common.collect.Iterables;
 import com.jcloisterzone.Player;
 import com.jcloisterzone.XmlUtils;
 import com.jcloisterzone.action.FairyAction;
@@ -16,7 +15,7 @@ import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.NeutralFigureMoveEvent;
 import com.jcloisterzone.figure.Follower;
-import com.jcloisterzone.figure.predicate.MeeplePredicates;
+import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -52,8 +51,8 @@ public class FairyCapability extends Capability {
     public void prepareActions(List<PlayerAction<?>> actions, Set<FeaturePointer> followerOptions) {
         FairyAction fairyAction = new FairyAction();
         Player activePlayer = game.getActivePlayer();
-        for (Follower m : Iterables.filter(activePlayer.getFollowers(), MeeplePredicates.deployed())) {
-            if (!m.at(fairyPosition)) {
+        for (Meeple m : game.getDeployedMeeples(activePlayer)) {
+            if (m instanceof Follower && !m.at(fairyPosition)) {
                 fairyAction.add(m.getPosition());
             }
         }
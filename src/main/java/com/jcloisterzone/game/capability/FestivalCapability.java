@@ -5,7 +5,6 @@ import java.util.Set;
 
 import org.w3c.dom.Element;
 
-import com.google.common.collect.Iterables;
 import com.jcloisterzone.Player;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.action.UndeployAction;
@@ -14,7 +13,6 @@ import com.jcloisterzone.board.TileTrigger;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.board.pointer.MeeplePointer;
 import com.jcloisterzone.figure.Meeple;
-import com.jcloisterzone.figure.predicate.MeeplePredicates;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -40,7 +38,7 @@ public class FestivalCapability extends Capability {
         Player activePlayer = game.getActivePlayer();
         UndeployAction action = new UndeployAction(UNDEPLOY_FESTIVAL);
 
-        for (Meeple m : Iterables.filter(activePlayer.getMeeples(), MeeplePredicates.deployed())) {
+        for (Meeple m : game.getDeployedMeeples(activePlayer)) {
             action.add(new MeeplePointer(m));
         }
         if (!action.isEmpty()) {
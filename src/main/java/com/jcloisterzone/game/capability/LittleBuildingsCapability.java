@@ -1,7 +1,7 @@
 package com.jcloisterzone.game.capability;
 
+import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,6 +15,7 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.action.LittleBuildingAction;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.LittleBuildingEvent;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
@@ -22,22 +23,18 @@ import com.jcloisterzone.game.Game;
 public class LittleBuildingsCapability extends Capability {
 
     @SuppressWarnings("unchecked")
-    private Map<Player, Integer>[] buildings = new Map[LittleBuilding.values().length];
+    private Map<Player, Integer>[] buildings = new Map[LittleBuilding.values().length]; //copy-on-write maps
 
     public LittleBuildingsCapability(Game game) {
         super(game);
         for (int i = 0; i < buildings.length; i++) {
-            buildings[i] = new HashMap<>();
+            buildings[i] = Collections.emptyMap();
         }
     }
 
     @Override
     public Object backup() {
-        Object[] a = new Object[buildings.length];
-        for (int i = 0; i < buildings.length; i++) {
-            a[i] = new HashMap<>(buildings[i]);
-        }
-        return a;
+        return buildings.clone();
     }
 
     @SuppressWarnings("unchecked")
@@ -45,8 +42,7 @@ public class LittleBuildingsCapability extends Capability {
     public void restore(Object data) {
         Object[] a = (Object[]) data;
         for (int i = 0; i < buildings.length; i++) {
-            buildings[i].clear();
-            buildings[i].putAll((Map<Player, Integer>) a[i]);
+            buildings[i] = (Map<Player, Integer>) a[i];
         }
     }
 
@@ -54,7 +50,7 @@ public class LittleBuildingsCapability extends Capability {
     public void initPlayer(Player player) {
         int playerCount = game.getAllPlayers().length;
         for (int i = 0; i < buildings.length; i++) {
-            buildings[i].put(player, 6 / playerCount);
+            buildings[i] = CopyOnWrite.with(buildings[i], player, 6 / playerCount);
         }
     }
 
@@ -63,7 +59,7 @@ public class LittleBuildingsCapability extends Capability {
     }
 
     public void  setBuildingsCount(Player player, LittleBuilding lbType, int count) {
-        buildings[lbType.ordinal()].put(player, count);
+        buildings[lbType.ordinal()] = CopyOnWrite.with(buildings[lbType.ordinal()], player, count);
     }
 
     public void placeLittleBuilding(Player player, LittleBuilding lbType) {
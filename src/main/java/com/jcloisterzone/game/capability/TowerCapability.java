@@ -1,13 +1,9 @@
 package com.jcloisterzone.game.capability;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.w3c.dom.Document;
@@ -25,6 +21,7 @@ import com.jcloisterzone.action.TowerPieceAction;
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.MeeplePrisonEvent;
 import com.jcloisterzone.event.TowerIncreasedEvent;
 import com.jcloisterzone.feature.Tower;
@@ -41,16 +38,16 @@ public final class TowerCapability extends Capability {
 
     private static final int RANSOM_POINTS = 3;
 
-    private final Set<Position> towers = new HashSet<>();
-    private final Map<Player, Integer> towerPieces = new HashMap<>();
+    //copy-on-write collections, backup is shared by save points
+    private Set<Position> towers = Collections.emptySet();
+    private Map<Player, Integer> towerPieces = Collections.emptyMap();
     private boolean ransomPaidThisTurn;
 
     private Position lastIncreasedTower; //needed for persist game in TowerCapturePhase
 
     //key is Player who keeps follower imprisoned
-    //synchronized because of GUI is looking inside
-    //TODO fix gui hack
-    private final Map<Player, List<Follower>> prisoners = Collections.synchronizedMap(new HashMap<Player, List<Follower>>());
+    //volatile because of GUI is looking inside
+    private volatile Map<Player, List<Follower>> prisoners = Collections.emptyMap();
 
     public TowerCapability(Game game) {
         super(game);
@@ -58,16 +55,11 @@ public final class TowerCapability extends Capability {
 
     @Override
     public Object backup() {
-        Map<Player, List<Follower>> prisonersCopy = new HashMap<>();
-        for (Entry<Player, List<Follower>> entry : prisoners.entrySet()) {
-            prisonersCopy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-        }
-
         return new Object[] {
             ransomPaidThisTurn,
-            new HashSet<>(towers),
-            new HashMap<>(towerPieces),
-            prisonersCopy
+            towers,
+            towerPieces,
+            prisoners
         };
     }
 
@@ -76,19 +68,13 @@ public final class TowerCapability extends Capability {
     public void restore(Object data) {
         Object[] a = (Object[]) data;
         ransomPaidThisTurn = (Boolean) a[0];
-        towers.clear();
-        towers.addAll((Set<Position>) a[1]);
-        towerPieces.clear();
-        towerPieces.putAll((Map<Player, Integer>) a[2]);
-        for (Entry<Player, List<Follower>> entry : ((Map<Player, List<Follower>>)a[3]).entrySet()) {
-            List<Follower> value = prisoners.get(entry.getKey());
-            value.clear();
-            value.addAll(entry.getValue());
-        }
+        towers = (Set<Position>) a[1];
+        towerPieces = (Map<Player, Integer>) a[2];
+        prisoners = (Map<Player, List<Follower>>) a[3];
     }
 
     public void registerTower(Position p) {
-        towers.add(p);
+        towers = CopyOnWrite.with(towers, p);
     }
 
     public Set<Position> getTowers() {
@@ -114,8 +100,8 @@ public final class TowerCapability extends Capability {
         case 5: pieces = 6; break;
         case 6: pieces = 5; break;
         }
-        towerPieces.put(player, pieces);
-        prisoners.put(player, Collections.synchronizedList(new ArrayList<Follower>()));
+        towerPieces = CopyOnWrite.with(towerPieces, player, pieces);
+        prisoners = CopyOnWrite.with(prisoners, player, Collections.<Follower>emptyList());
     }
 
     public int getTowerPieces(Player player) {
@@ -123,13 +109,15 @@ public final class TowerCapability extends Capability {
     }
 
     public int setTowerPieces(Player player, int pieces) {
-        return towerPieces.put(player, pieces);
+        int old = towerPieces.get(player);
+        towerPieces = CopyOnWrite.with(towerPieces, player, pieces);
+        return old;
     }
 
     public void decreaseTowerPieces(Player player) {
         int pieces = getTowerPieces(player);
         if (pieces == 0) throw new IllegalStateException("Player has no tower pieces");
-        towerPieces.put(player, pieces-1);
+        towerPieces = CopyOnWrite.with(towerPieces, player, pieces-1);
     }
 
     private boolean hasSmallOrBigFollower(Player p) {
@@ -191,10 +179,23 @@ public final class TowerCapability extends Capability {
         return availTower;
     }
 
+    /** Returns unmodifiable map of prisoners, use {@link #addPrisoner} and {@link #removePrisoner} to change it. */
     public Map<Player, List<Follower>> getPrisoners() {
         return prisoners;
     }
 
+    public void addPrisoner(Player keeper, Follower follower) {
+        prisoners = CopyOnWrite.with(prisoners, keeper, CopyOnWrite.with(prisoners.get(keeper), follower));
+    }
+
+    public boolean removePrisoner(Player keeper, Follower follower) {
+        List<Follower> list = prisoners.get(keeper);
+        List<Follower> updated = CopyOnWrite.without(list, follower);
+        if (updated == list) return false;
+        prisoners = CopyOnWrite.with(prisoners, keeper, updated);
+        return true;
+    }
+
     public Position getLastIncreasedTower() {
         return lastIncreasedTower;
     }
@@ -219,7 +220,7 @@ public final class TowerCapability extends Capability {
 
     public void inprison(Meeple m, Player player) {
         assert m.getLocation() == null;
-        prisoners.get(player).add((Follower) m);
+        addPrisoner(player, (Follower) m);
         game.post(new MeeplePrisonEvent(m, null, player));
         m.setLocation(Location.PRISON);
     }
@@ -230,11 +231,9 @@ public final class TowerCapability extends Capability {
         }
         Player opponent = game.getAllPlayers()[playerIndexToPay];
 
-        Iterator<Follower> i = prisoners.get(opponent).iterator();
-        while (i.hasNext()) {
-            Follower meeple = i.next();
+        for (Follower meeple : prisoners.get(opponent)) {
             if (meepleType.isInstance(meeple)) {
-                i.remove();
+                removePrisoner(opponent, meeple);
                 meeple.clearDeployment();
                 opponent.addPoints(RANSOM_POINTS, PointCategory.TOWER_RANSOM);
                 ransomPaidThisTurn = true;
@@ -296,7 +295,7 @@ public final class TowerCapability extends Capability {
             Position towerPos = XmlUtils.extractPosition(te);
             Tower tower = getBoard().get(towerPos).getTower();
             tower.setHeight(Integer.parseInt(te.getAttribute("height")));
-            towers.add(towerPos);
+            registerTower(towerPos);
             if (tower.getHeight() > 0) {
                 game.post(new TowerIncreasedEvent(null, towerPos, tower.getHeight()));
             }
@@ -305,7 +304,7 @@ public final class TowerCapability extends Capability {
         for (int i = 0; i < nl.getLength(); i++) {
             Element playerEl = (Element) nl.item(i);
             Player player = game.getPlayer(Integer.parseInt(playerEl.getAttribute("index")));
-            towerPieces.put(player, Integer.parseInt(playerEl.getAttribute("pieces")));
+            setTowerPieces(player, Integer.parseInt(playerEl.getAttribute("pieces")));
             NodeList priosonerNl = playerEl.getElementsByTagName("prisoner");
             for (int j = 0; j < priosonerNl.getLength(); j++) {
                 Element prisonerEl = (Element) priosonerNl.item(j);
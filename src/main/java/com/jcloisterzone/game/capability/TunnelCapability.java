@@ -1,7 +1,7 @@
 package com.jcloisterzone.game.capability;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,6 +18,7 @@ import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.event.TunnelPiecePlacedEvent;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
@@ -29,8 +30,9 @@ public final class TunnelCapability extends Capability {
 
     private Road placedTunnelCurrentTurn;
 
-    private final Map<Player, Integer> tunnelTokensA = new HashMap<>();
-    private final Map<Player, Integer> tunnelTokensB = new HashMap<>();
+    //copy-on-write maps
+    private Map<Player, Integer> tunnelTokensA = Collections.emptyMap();
+    private Map<Player, Integer> tunnelTokensB = Collections.emptyMap();
 
     private final List<Road> tunnels = new ArrayList<>();
 
@@ -42,8 +44,8 @@ public final class TunnelCapability extends Capability {
     public Object backup() {
         return new Object[] {
             placedTunnelCurrentTurn,
-            new HashMap<>(tunnelTokensA),
-            new HashMap<>(tunnelTokensB)
+            tunnelTokensA,
+            tunnelTokensB
         };
     }
 
@@ -52,16 +54,14 @@ public final class TunnelCapability extends Capability {
     public void restore(Object data) {
         Object[] a = (Object[]) data;
         placedTunnelCurrentTurn = (Road) a[0];
-        tunnelTokensA.clear();
-        tunnelTokensA.putAll((Map<Player, Integer>)a[1]);
-        tunnelTokensA.clear();
-        tunnelTokensA.putAll((Map<Player, Integer>)a[2]);
+        tunnelTokensA = (Map<Player, Integer>) a[1];
+        tunnelTokensB = (Map<Player, Integer>) a[2];
     }
 
     @Override
     public void initPlayer(Player player) {
-        tunnelTokensA.put(player, 2);
-        tunnelTokensB.put(player, game.getAllPlayers().length <= 2 ? 2 : 0);
+        tunnelTokensA = CopyOnWrite.with(tunnelTokensA, player, 2);
+        tunnelTokensB = CopyOnWrite.with(tunnelTokensB, player, game.getAllPlayers().length <= 2 ? 2 : 0);
     }
 
     @Override
@@ -89,10 +89,13 @@ public final class TunnelCapability extends Capability {
     }
 
     public void decreaseTunnelTokens(Player player, boolean isB) {
-        Map<Player, Integer> map = isB ? tunnelTokensB : tunnelTokensA;
-        int tokens = map.get(player);
+        int tokens = getTunnelTokens(player, isB);
         if (tokens == 0) throw new IllegalStateException("Player has no tunnel token");
-        map.put(player, tokens-1);
+        if (isB) {
+            tunnelTokensB = CopyOnWrite.with(tunnelTokensB, player, tokens-1);
+        } else {
+            tunnelTokensA = CopyOnWrite.with(tunnelTokensA, player, tokens-1);
+        }
     }
 
     @Override
@@ -1,6 +1,6 @@
 package com.jcloisterzone.game.capability;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -20,6 +20,7 @@ import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.collection.CopyOnWrite;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Cloister;
 import com.jcloisterzone.feature.Feature;
@@ -33,30 +34,29 @@ import static com.jcloisterzone.XmlUtils.asLocation;
 
 public class WagonCapability extends Capability {
 
-    private final Map<Player, Feature> scoredWagons = new HashMap<>();
+    private Map<Player, Feature> scoredWagons = Collections.emptyMap(); //copy-on-write
 
     public WagonCapability(final Game game) {
         super(game);
     }
 
     public void wagonScored(Wagon m, Feature feature) {
-        scoredWagons.put(m.getPlayer(), feature);
+        scoredWagons = CopyOnWrite.with(scoredWagons, m.getPlayer(), feature);
     }
 
     public void removeScoredWagon(Player owner) {
-        scoredWagons.remove(owner);
+        scoredWagons = CopyOnWrite.without(scoredWagons, owner);
     }
 
     @Override
     public Object backup() {
-        return new HashMap<>(scoredWagons);
+        return scoredWagons;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void restore(Object data) {
-        scoredWagons.clear();
-        scoredWagons.putAll((Map<Player, Feature>) data);
+        scoredWagons = (Map<Player, Feature>) data;
     }
 
     @Override
@@ -64,6 +64,7 @@ public class WagonCapability extends Capability {
         player.addMeeple(new Wagon(game, player));
     }
 
+    /** Returns unmodifiable map, use {@link #removeScoredWagon(Player)} to change it. */
     public Map<Player, Feature> getScoredWagons() {
         return scoredWagons;
     }
@@ -99,7 +100,7 @@ public class WagonCapability extends Capability {
 
     @Override
     public void turnPartCleanUp() {
-        scoredWagons.clear();
+        scoredWagons = Collections.emptyMap();
     }
 
     public Player getWagonPlayer() {
@@ -153,7 +154,7 @@ public class WagonCapability extends Capability {
             Position pos = XmlUtils.extractPosition(wg);
             int playerIndex = Integer.parseInt(wg.getAttribute("player"));
             Player player = game.getPlayer(playerIndex);
-            scoredWagons.put(player, getBoard().get(pos).getFeature(loc));
+            scoredWagons = CopyOnWrite.with(scoredWagons, player, getBoard().get(pos).getFeature(loc));
         }
     }
 }
@@ -0,0 +1,245 @@
+package com.jcloisterzone.game.phase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PointCategory;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TilePack;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.TileFeature;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.capability.BazaarItem;
+import com.jcloisterzone.ui.GameController;
+
+/**
+ * Initializes game as a copy of another running game. Unlike {@link LoadGamePhase}
+ * tile definitions are not parsed again, tiles and features are cloned from original
+ * game and capabilities are filled from their backup data.
+ */
+public class CopyGamePhase extends CreateGamePhase {
+
+    private final Game original;
+
+    private final Map<Tile, Tile> tiles = new IdentityHashMap<>();
+    private final Map<Feature, Feature> features = new IdentityHashMap<>();
+    private final Map<Meeple, Meeple> meeples = new IdentityHashMap<>();
+    private final Map<BazaarItem, BazaarItem> bazaarItems = new IdentityHashMap<>();
+
+    private final Function<Tile, Tile> tileCopier = new Function<Tile, Tile>() {
+        @Override
+        public Tile apply(Tile tile) {
+            return copyTile(tile);
+        }
+    };
+
+    public CopyGamePhase(Game game, Game original, GameController controller) {
+        super(game, controller);
+        this.original = original;
+        setSlots(new PlayerSlot[0]);
+    }
+
+    @Override
+    protected void prepareCapabilities() {
+        game.getCapabilityClasses().addAll(original.getCapabilityClasses());
+    }
+
+    @Override
+    protected void preparePlayers() {
+        List<Player> players = new ArrayList<>();
+        for (Player p : original.getAllPlayers()) {
+            Player copy = new Player(p.getNick(), p.getIndex(), p.getSlot());
+            copy.setPoints(p.getPoints());
+            for (PointCategory cat : PointCategory.values()) {
+                int points = p.getPointsInCategory(cat);
+                if (points != 0) {
+                    copy.setPointsInCategory(cat, points);
+                }
+            }
+            players.add(copy);
+        }
+        game.setPlayers(players, original.getTurnPlayer().getIndex());
+        initializePlayersMeeples();
+        for (Player p : original.getAllPlayers()) {
+            Player copy = game.getPlayer(p.getIndex());
+            mapMeeples(p.getFollowers(), copy.getFollowers());
+            mapMeeples(p.getSpecialMeeples(), copy.getSpecialMeeples());
+        }
+    }
+
+    /** pairs meeples of same type, meeple order can differ if capabilities were initialized in another order */
+    private void mapMeeples(List<? extends Meeple> originalMeeples, List<? extends Meeple> copies) {
+        List<Meeple> unpaired = new LinkedList<Meeple>(copies);
+        for (Meeple m : originalMeeples) {
+            Iterator<Meeple> iter = unpaired.iterator();
+            while (iter.hasNext()) {
+                Meeple copy = iter.next();
+                if (copy.getClass().equals(m.getClass())) {
+                    meeples.put(m, copy);
+                    iter.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void preparePhases() {
+        super.preparePhases();
+        setDefaultNext(game.getPhases().get(original.getPhase().getClass()));
+    }
+
+    @Override
+    protected void prepareTilePack() {
+        TilePack originalPack = original.getTilePack();
+        DefaultTilePack tilePack = ((DefaultTilePack) originalPack).copy(tileCopier);
+        game.setTilePack(tilePack);
+        game.begin();
+        //capabilities can change group states on begin
+        for (String group : originalPack.getGroups()) {
+            tilePack.setGroupState(group, originalPack.getGroupState(group));
+        }
+    }
+
+    @Override
+    protected void prepareAiPlayers() {
+        //no AI players on game copy
+    }
+
+    @Override
+    protected void preplaceTiles() {
+        game.getBoard().copyFrom(original.getBoard(), tileCopier);
+        if (original.getCurrentTile() != null) {
+            game.setCurrentTile(copyTile(original.getCurrentTile()));
+        }
+        for (Capability cap : original.getCapabilities()) {
+            game.getCapability(cap.getClass()).restore(copyValue(cap.backup()));
+        }
+        //all tiles are copied now (capability backup can refer tiles outside pack and board, eg. bazaar supply)
+        for (Feature feature : features.values()) {
+            ((TileFeature) feature).remapReferences(features);
+        }
+        copyMeeplesDeployment();
+    }
+
+    private void copyMeeplesDeployment() {
+        for (Entry<Meeple, Meeple> entry : meeples.entrySet()) {
+            Meeple m = entry.getKey();
+            Meeple copy = entry.getValue();
+            copy.setPosition(m.getPosition());
+            copy.setLocation(m.getLocation());
+            if (m.getFeature() != null) {
+                copy.setFeature(features.get(m.getFeature()));
+            }
+        }
+        for (Entry<Feature, Feature> entry : features.entrySet()) {
+            for (Meeple m : entry.getKey().getMeeples()) {
+                Meeple copy = meeples.get(m);
+                entry.getValue().addMeeple(copy);
+                copy.setIndex(m.getIndex());
+            }
+        }
+    }
+
+    @Override
+    public void next() {
+        super.next();
+        getDefaultNext().setEntered(original.getPhase().isEntered());
+    }
+
+    private Tile copyTile(Tile tile) {
+        Tile copy = tiles.get(tile);
+        if (copy == null) {
+            copy = tile.copy(game);
+            tiles.put(tile, copy);
+            List<Feature> originalFeatures = tile.getFeatures();
+            for (int i = 0; i < originalFeatures.size(); i++) {
+                features.put(originalFeatures.get(i), copy.getFeatures().get(i));
+            }
+        }
+        return copy;
+    }
+
+    private BazaarItem copyBazaarItem(BazaarItem item) {
+        BazaarItem copy = bazaarItems.get(item);
+        if (copy == null) {
+            copy = new BazaarItem(copyTile(item.getTile()));
+            copy.setOwner((Player) copyValue(item.getOwner()));
+            copy.setCurrentPrice(item.getCurrentPrice());
+            copy.setCurrentBidder((Player) copyValue(item.getCurrentBidder()));
+            bazaarItems.put(item, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Translates capability backup data to copied game. Collections are copied,
+     * references to players, meeples, tiles and features are replaced by their copies.
+     */
+    private Object copyValue(Object value) {
+        if (value == null) return null;
+        if (value instanceof Player) {
+            return game.getPlayer(((Player) value).getIndex());
+        }
+        if (value instanceof Meeple) {
+            return meeples.get(value);
+        }
+        if (value instanceof Feature) {
+            return features.get(value);
+        }
+        if (value instanceof Tile) {
+            return copyTile((Tile) value);
+        }
+        if (value instanceof BazaarItem) {
+            return copyBazaarItem((BazaarItem) value);
+        }
+        if (value instanceof Object[]) {
+            Object[] a = (Object[]) value;
+            Object[] result = new Object[a.length];
+            for (int i = 0; i < a.length; i++) {
+                result[i] = copyValue(a[i]);
+            }
+            return result;
+        }
+        if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        }
+        if (value instanceof List) {
+            List<Object> result = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                result.add(copyValue(item));
+            }
+            return result;
+        }
+        if (value instanceof Set) {
+            Set<Object> result = new HashSet<>();
+            for (Object item : (Set<?>) value) {
+                result.add(copyValue(item));
+            }
+            return result;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> result = new HashMap<>();
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                result.put(copyValue(entry.getKey()), copyValue(entry.getValue()));
+            }
+            return result;
+        }
+        //immutable values - positions, pointers, enums, numbers ...
+        return value;
+    }
+}
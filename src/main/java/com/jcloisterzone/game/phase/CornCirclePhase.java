@@ -115,9 +115,8 @@ public class CornCirclePhase extends Phase {
 
     private List<PlayerAction<?>> prepareDeploymentAction(Class<? extends Feature> cornType) {
         List<FeaturePointer> pointers = new ArrayList<>();
-        for (Meeple m : game.getDeployedMeeples()) {
+        for (Meeple m : game.getDeployedMeeples(getActivePlayer())) {
             if (!(m instanceof Follower)) continue;
-            if (m.getPlayer() != getActivePlayer()) continue;
             if (!cornType.isInstance(m.getFeature())) continue;
             pointers.add(new FeaturePointer(m.getPosition(), m.getLocation()));
         }
@@ -145,9 +144,8 @@ public class CornCirclePhase extends Phase {
 
     private List<PlayerAction<?>> prepareRemovalAction(Class<? extends Feature> cornType) {
         UndeployAction action = null;
-        for (Meeple m : game.getDeployedMeeples()) {
+        for (Meeple m : game.getDeployedMeeples(getActivePlayer())) {
             if (!(m instanceof Follower)) continue;
-            if (m.getPlayer() != getActivePlayer()) continue;
             if (!cornType.isInstance(m.getFeature())) continue;
             if (action == null) {
                 action = new UndeployAction("undeploy");
@@ -189,11 +189,15 @@ public class CreateGamePhase extends ServerAwarePhase {
         }
     }
 
+    protected AiPlayer createAiPlayer(PlayerSlot slot) throws ReflectiveOperationException {
+        return (AiPlayer) Class.forName(slot.getAiClassName()).newInstance();
+    }
+
     protected void prepareAiPlayers() {
         for (PlayerSlot slot : slots) {
             if (slot != null && slot.isAi() && slot.isOwn()) {
                 try {
-                    AiPlayer ai = (AiPlayer) Class.forName(slot.getAiClassName()).newInstance();
+                    AiPlayer ai = createAiPlayer(slot);
                     ai.setGame(game);
                     ai.setGameController(getGameController());
                     for (Player player : game.getAllPlayers()) {
@@ -56,8 +56,8 @@ public class DragonMovePhase extends Phase {
         Player player = getActivePlayer();
         Position fromPosition = dragonCap.getDragonPosition();
         dragonCap.moveDragon(p);
-        for (Meeple m : game.getDeployedMeeples()) {
-            if (m.at(p) && m.canBeEatenByDragon()) {
+        for (Meeple m : game.getDeployedMeeples(p)) {
+            if (m.canBeEatenByDragon()) {
                 m.undeploy();
             }
         }
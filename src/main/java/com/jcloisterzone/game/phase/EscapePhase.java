@@ -97,9 +97,8 @@ public class EscapePhase extends Phase {
 
     public UndeployAction prepareEscapeAction() {
         UndeployAction escapeAction = null;
-        for (Meeple m : game.getDeployedMeeples()) {
+        for (Meeple m : game.getDeployedMeeples(getActivePlayer())) {
         	if (!(m instanceof Follower)) continue;
-            if (m.getPlayer() != getActivePlayer()) continue;
             if (!(m.getFeature() instanceof City)) continue;
 
             FeatureVisitor<Boolean> visitor = game.hasRule(CustomRule.ESCAPE_RGG) ? new FindNearbyCloisterRgg() : new FindNearbyCloister();
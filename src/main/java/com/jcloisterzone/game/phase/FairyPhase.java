@@ -26,8 +26,8 @@ public class FairyPhase extends Phase {
     public void enter() {
         Position fairyPos = fairyCap.getFairyPosition();
         if (fairyPos != null) {
-            for (Meeple m : game.getDeployedMeeples()) {
-                if (m.at(fairyPos) && m.getPlayer() == getActivePlayer()) {
+            for (Meeple m : game.getDeployedMeeples(fairyPos)) {
+                if (m.getPlayer() == getActivePlayer()) {
                     m.getPlayer().addPoints(1, PointCategory.FAIRY);
                     game.post(new ScoreEvent(m.getPosition(), m.getPlayer(), 1, PointCategory.FAIRY));
                     break;
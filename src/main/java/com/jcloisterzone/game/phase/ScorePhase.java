@@ -22,6 +22,7 @@ import com.jcloisterzone.feature.Cloister;
 import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.MultiTileFeature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.visitor.score.CityScoreContext;
 import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
@@ -184,6 +185,12 @@ public class ScorePhase extends Phase {
     }
 
     private void scoreCompleted(Completable completable, boolean triggerBuilder) {
+        if (completable instanceof MultiTileFeature) {
+            MultiTileFeature mf = (MultiTileFeature) completable;
+            //open feature can only trigger builder, skip walk if it's not possible
+            boolean builderCheck = triggerBuilder && builderCap != null && mf.isComponentOccupied();
+            if (mf.isComponentOpen() && !builderCheck) return;
+        }
         CompletableScoreContext ctx = completable.getScoreContext();
         completable.walk(ctx);
         if (triggerBuilder && builderCap != null) {
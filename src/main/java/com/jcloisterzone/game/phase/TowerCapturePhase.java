@@ -46,11 +46,10 @@ public class TowerCapturePhase extends Phase {
     private TakePrisonerAction prepareCapture(Position p, int range) {
         //TODO custom rule - opponent only
         TakePrisonerAction captureAction = new TakePrisonerAction();
-        for (Meeple pf : game.getDeployedMeeples()) {
+        for (Meeple pf : game.getMeepleIndex().getDeployedMeeples(p, range)) {
             if (!(pf instanceof Follower)) continue;
             Position pos = pf.getPosition();
             if (pos.x != p.x && pos.y != p.y) continue; //check if is in same row or column
-            if (pos.squareDistance(p) > range) continue;
             captureAction.add(new MeeplePointer(pf));
         }
         return captureAction;
@@ -77,7 +76,7 @@ public class TowerCapturePhase extends Phase {
             } else {
                 //opponent has my prisoner - figure exchange
                 Follower exchanged = myCapturedFollowers.get(0); //TODO same type?
-                boolean removeOk = prisoners.remove(exchanged);
+                boolean removeOk = towerCap.removePrisoner(m.getPlayer(), exchanged);
                 assert removeOk;
                 exchanged.clearDeployment();
                 game.post(new MeeplePrisonEvent(exchanged, m.getPlayer(), null));
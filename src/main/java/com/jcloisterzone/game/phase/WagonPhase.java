@@ -2,7 +2,6 @@ package com.jcloisterzone.game.phase;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import com.jcloisterzone.Player;
@@ -70,16 +69,15 @@ public class WagonPhase extends Phase {
     }
 
     private boolean existsLegalMove() {
-        Map<Player, Feature> rw = wagonCap.getScoredWagons();
         Player wagonPlayer;
         while ((wagonPlayer = wagonCap.getWagonPlayer()) != null) {
-            Feature f = rw.get(wagonPlayer);
+            Feature f = wagonCap.getScoredWagons().get(wagonPlayer);
             List<FeaturePointer> wagonMoves = prepareWagonMoves(f);
             if (!wagonMoves.isEmpty()) {
                 game.post(new SelectActionEvent(getActivePlayer(), new MeepleAction(Wagon.class).addAll(wagonMoves), true));
                 return true;
             } else {
-                rw.remove(wagonPlayer);
+                wagonCap.removeScoredWagon(wagonPlayer);
             }
         }
         return false;
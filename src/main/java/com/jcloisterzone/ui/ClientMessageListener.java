@@ -4,7 +4,6 @@ import static com.jcloisterzone.ui.I18nUtils._;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -35,14 +34,12 @@ import com.jcloisterzone.game.PlayerSlot.SlotState;
 import com.jcloisterzone.game.Snapshot;
 import com.jcloisterzone.game.phase.CreateGamePhase;
 import com.jcloisterzone.game.phase.LoadGamePhase;
-import com.jcloisterzone.game.phase.Phase;
 import com.jcloisterzone.online.Channel;
 import com.jcloisterzone.ui.view.ChannelView;
 import com.jcloisterzone.ui.view.GameSetupView;
 import com.jcloisterzone.wsio.Connection;
 import com.jcloisterzone.wsio.MessageDispatcher;
 import com.jcloisterzone.wsio.MessageListener;
-import com.jcloisterzone.wsio.RmiProxy;
 import com.jcloisterzone.wsio.WsSubscribe;
 import com.jcloisterzone.wsio.message.ChannelMessage;
 import com.jcloisterzone.wsio.message.ChatMessage;
@@ -352,17 +349,8 @@ public class ClientMessageListener implements MessageListener {
     public void handleRmi(RmiMessage msg) {
         Game game = getGame(msg);
         try {
-            Phase phase = game.getPhase();
-            Method[] methods = RmiProxy.class.getMethods();
-            for (int i = 0; i < methods.length; i++) {
-                if (methods[i].getName().equals(msg.getMethod())) {
-                    methods[i].invoke(phase, (Object[]) msg.decode(msg.getArgs()));
-                    return;
-                }
-            }
-        } catch (InvocationTargetException ie) {
-            logger.error(ie.getMessage(), ie.getCause());
-        } catch (Exception e) {
+            dispatcher.dispatchRmi(game.getPhase(), msg.getMethod(), msg.getArguments());
+        } catch (Throwable e) {
             logger.error(e.getMessage(), e);
         }
     }
@@ -89,7 +89,7 @@ public class GameController extends EventProxyUiController<Game> implements Invo
         return null;
     }
 
-    void phaseLoop() {
+    protected void phaseLoop() {
         Phase phase = game.getPhase();
         while (phase != null && !phase.isEntered()) {
             logger.debug("Entering phase {}",  phase.getClass().getSimpleName());
@@ -3,6 +3,7 @@ package com.jcloisterzone.ui.animation;
 import java.awt.Graphics2D;
 import java.util.concurrent.Delayed;
 
+import com.jcloisterzone.board.Position;
 import com.jcloisterzone.ui.grid.layer.AnimationLayer;
 
 
@@ -13,4 +14,7 @@ public interface Animation extends Delayed {
 
     void paint(AnimationLayer l, Graphics2D g2);
 
+    /** Returns position of tile which animation is painted on. */
+    Position getPosition();
+
 }
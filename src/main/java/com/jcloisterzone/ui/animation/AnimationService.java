@@ -20,7 +20,7 @@ public class AnimationService extends Thread {
 
     public void registerAnimation(Animation a) {
         animations.add(a);
-        gridPanel.repaint();
+        gridPanel.repaintTile(a.getPosition());
     }
 
     public DelayQueue<Animation> getAnimations() {
@@ -40,7 +40,7 @@ public class AnimationService extends Thread {
                     animations.add(an);
                 }
                 if (gridPanel != null) {
-                    gridPanel.repaint();
+                    gridPanel.repaintTile(an.getPosition());
                 }
             } catch (InterruptedException e) {
                 //empty
@@ -18,6 +18,11 @@ public class FlierDiceRollAnimation extends AbstractAnimation {
         nextFrame = System.currentTimeMillis() + 5000;
     }
 
+    @Override
+    public Position getPosition() {
+        return tilePosition;
+    }
+
     @Override
     public void paint(AnimationLayer l, Graphics2D g2) {
         int sqSize = l.getSquareSize(),
@@ -37,6 +37,11 @@ public class RecentPlacement extends AbstractAnimation {
 		return true;
 	}
 
+	@Override
+	public Position getPosition() {
+		return position;
+	}
+
 	@Override
 	public void paint(AnimationLayer l, Graphics2D g) {
 		g.setColor(color);
@@ -33,6 +33,11 @@ public class ScoreAnimation extends AbstractAnimation {
     }
 
 
+    @Override
+    public Position getPosition() {
+        return tilePosition;
+    }
+
     @Override
     public void paint(AnimationLayer l, Graphics2D g) {
         Color bgColor;
@@ -0,0 +1,255 @@
+package com.jcloisterzone.ui.grid;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.event.MeepleEvent;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.ui.ImmutablePoint;
+import com.jcloisterzone.ui.grid.layer.MeepleLayer;
+import com.jcloisterzone.ui.resources.ResourceManager;
+import com.jcloisterzone.ui.theme.FigureTheme;
+
+/**
+ * Off-screen board image (placed tiles and deployed meeples) independent on {@link GridPanel}.
+ *
+ * Board is divided into chunks of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} squares, each chunk
+ * has own raster. Raster is subscribed to game events, tile and meeple events mark touched chunks
+ * dirty and only dirty chunks are rendered again when board image is requested.
+ *
+ * Raster reads game state, it must be used from thread processing game events.
+ */
+public class BoardRaster {
+
+    public static final int CHUNK_SIZE = 8;
+
+    private static final Color DEFAULT_MEEPLE_COLOR = Color.GRAY;
+
+    private final Game game;
+    private final ResourceManager resourceManager;
+    private final FigureTheme figureTheme;
+    private final int squareSize;
+    private final int chunkPixels;
+    /** meeple can overlap neighbouring squares */
+    private final int margin;
+
+    /** chunk rasters by chunk coordinates */
+    private final Map<Position, BufferedImage> chunks = new HashMap<>();
+    private final Set<Position> dirty = new HashSet<>();
+    private int renderedChunks;
+
+    public BoardRaster(Game game, ResourceManager resourceManager, FigureTheme figureTheme, int squareSize) {
+        this.game = game;
+        this.resourceManager = resourceManager;
+        this.figureTheme = figureTheme;
+        this.squareSize = squareSize;
+        this.chunkPixels = CHUNK_SIZE * squareSize;
+        this.margin = (int) (squareSize * MeepleLayer.FIGURE_SIZE_RATIO);
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            invalidate(tile.getPosition());
+        }
+        game.getEventBus().register(this);
+    }
+
+    /** Stops tracking of game changes. */
+    public void dispose() {
+        game.getEventBus().unregister(this);
+    }
+
+    @Subscribe
+    public void tileEvent(TileEvent ev) {
+        if (ev.getType() == TileEvent.PLACEMENT || ev.getType() == TileEvent.REMOVE) {
+            invalidate(ev.getPosition());
+        }
+    }
+
+    @Subscribe
+    public void meepleEvent(MeepleEvent ev) {
+        if (ev.getFrom() != null) {
+            invalidate(ev.getFrom().getPosition());
+        }
+        if (ev.getTo() != null) {
+            invalidate(ev.getTo().getPosition());
+        }
+    }
+
+    private static int floorDiv(int x, int y) {
+        int r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) r--;
+        return r;
+    }
+
+    /** Marks chunks covered by square on given position (including overlapping meeples) as dirty. */
+    public void invalidate(Position pos) {
+        int x0 = floorDiv(pos.x * squareSize - margin, chunkPixels);
+        int x1 = floorDiv((pos.x + 1) * squareSize + margin - 1, chunkPixels);
+        int y0 = floorDiv(pos.y * squareSize - margin, chunkPixels);
+        int y1 = floorDiv((pos.y + 1) * squareSize + margin - 1, chunkPixels);
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                dirty.add(new Position(x, y));
+            }
+        }
+    }
+
+    /**
+     * Returns image of whole board, dirty chunks are rendered first.
+     * @return board image, null if board is empty
+     */
+    public BufferedImage createBoardImage() {
+        Bounds tiles = new Bounds();
+        if (tiles.isEmpty()) return null;
+        renderDirtyChunks();
+
+        BufferedImage result = new BufferedImage((tiles.right - tiles.left + 1) * squareSize,
+                (tiles.bottom - tiles.top + 1) * squareSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = result.createGraphics();
+        g2.translate(-tiles.left * squareSize, -tiles.top * squareSize);
+        for (Map.Entry<Position, BufferedImage> entry : chunks.entrySet()) {
+            Position chunk = entry.getKey();
+            g2.drawImage(entry.getValue(), chunk.x * chunkPixels, chunk.y * chunkPixels, null);
+        }
+        g2.dispose();
+        return result;
+    }
+
+    /** returns count of chunk renders since raster was created */
+    public int getRenderedChunks() {
+        return renderedChunks;
+    }
+
+    public int getSquareSize() {
+        return squareSize;
+    }
+
+    private void renderDirtyChunks() {
+        for (Position chunk : dirty) {
+            BufferedImage img = renderChunk(chunk);
+            if (img == null) {
+                chunks.remove(chunk);
+            } else {
+                chunks.put(chunk, img);
+            }
+            renderedChunks++;
+        }
+        dirty.clear();
+    }
+
+    private BufferedImage renderChunk(Position chunk) {
+        Board board = game.getBoard();
+        //squares overlapping chunk, neighbours are included because of meeples
+        int left = chunk.x * CHUNK_SIZE - 1, right = (chunk.x + 1) * CHUNK_SIZE;
+        int top = chunk.y * CHUNK_SIZE - 1, bottom = (chunk.y + 1) * CHUNK_SIZE;
+
+        List<Tile> tiles = new ArrayList<>();
+        List<Meeple> meeples = new ArrayList<>();
+        for (int x = left; x <= right; x++) {
+            for (int y = top; y <= bottom; y++) {
+                boolean inside = x > left && x < right && y > top && y < bottom;
+                if (inside) {
+                    Tile tile = board.get(x, y);
+                    if (tile != null) {
+                        tiles.add(tile);
+                    }
+                }
+                meeples.addAll(game.getDeployedMeeples(new Position(x, y)));
+            }
+        }
+        if (tiles.isEmpty() && meeples.isEmpty()) return null;
+
+        BufferedImage img = new BufferedImage(chunkPixels, chunkPixels, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.translate(-chunk.x * chunkPixels, -chunk.y * chunkPixels);
+        for (Tile tile : tiles) {
+            paintTile(g2, tile);
+        }
+        paintMeeples(g2, meeples);
+        g2.dispose();
+        return img;
+    }
+
+    private void paintTile(Graphics2D g2, Tile tile) {
+        Image img = resourceManager.getTileImage(tile);
+        Position pos = tile.getPosition();
+        AffineTransform at = AffineTransform.getTranslateInstance(pos.x * squareSize, pos.y * squareSize);
+        at.concatenate(tile.getRotation().getAffineTransform(squareSize));
+        double ratio = squareSize / (double) img.getWidth(null);
+        at.concatenate(AffineTransform.getScaleInstance(ratio, ratio));
+        g2.drawImage(img, at, null);
+    }
+
+    /** meeples sharing feature are shifted, small followers first (as {@link MeepleLayer} does) */
+    private void paintMeeples(Graphics2D g2, List<Meeple> meeples) {
+        Map<FeaturePointer, Integer> order = new HashMap<>();
+        for (Meeple m : meeples) {
+            if (m.getClass().equals(SmallFollower.class)) {
+                paintMeeple(g2, m, order);
+            }
+        }
+        for (Meeple m : meeples) {
+            if (!m.getClass().equals(SmallFollower.class)) {
+                paintMeeple(g2, m, order);
+            }
+        }
+    }
+
+    private void paintMeeple(Graphics2D g2, Meeple m, Map<FeaturePointer, Integer> order) {
+        FeaturePointer fp = new FeaturePointer(m.getPosition(), m.getLocation());
+        Integer n = order.get(fp);
+        n = n == null ? 0 : n + 1;
+        order.put(fp, n);
+
+        Feature feature = game.getBoard().get(fp);
+        ImmutablePoint offset = resourceManager.getMeeplePlacement(feature.getTile(), m.getClass(), fp.getLocation());
+        Color color = m.getPlayer().getColors() == null ? DEFAULT_MEEPLE_COLOR : m.getPlayer().getColors().getMeepleColor();
+        Image img = figureTheme.getFigureImage(m.getClass(), color, MeepleLayer.getExtraDecoration(m.getClass(), fp));
+        if (fp.getLocation() == Location.ABBOT) {
+            img = MeepleLayer.rotate(img, 90);
+        }
+        int boxSize = margin;
+        ImmutablePoint point = offset.translate(10 * n, 0).scale(squareSize, boxSize);
+        g2.drawImage(img, m.getPosition().x * squareSize + point.getX(), m.getPosition().y * squareSize + point.getY(),
+                boxSize, boxSize, null);
+    }
+
+    /** bounds of placed tiles */
+    private class Bounds {
+        int left = Integer.MAX_VALUE, right = Integer.MIN_VALUE, top = Integer.MAX_VALUE, bottom = Integer.MIN_VALUE;
+
+        Bounds() {
+            for (Tile tile : game.getBoard().getAllTiles()) {
+                Position p = tile.getPosition();
+                left = Math.min(left, p.x);
+                right = Math.max(right, p.x);
+                top = Math.min(top, p.y);
+                bottom = Math.max(bottom, p.y);
+            }
+        }
+
+        boolean isEmpty() {
+            return left > right;
+        }
+    }
+}
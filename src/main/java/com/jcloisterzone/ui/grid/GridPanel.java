@@ -5,6 +5,7 @@ import java.awt.Component;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -21,16 +22,13 @@ import javax.swing.event.MouseInputListener;
 
 import net.miginfocom.swing.MigLayout;
 
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
 import com.jcloisterzone.Player;
-import com.jcloisterzone.XmlUtils;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.config.ConfigLoader;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.Snapshot.TileEntry;
 import com.jcloisterzone.ui.Client;
 import com.jcloisterzone.ui.GameController;
 import com.jcloisterzone.ui.animation.AnimationService;
@@ -102,10 +100,8 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         bottom = 0 + STARTING_GRID_SIZE / 2;
 
         if (snapshot != null) {
-            NodeList nl = snapshot.getTileElements();
-            for (int i = 0; i < nl.getLength(); i++) {
-                Element el = (Element) nl.item(i);
-                Position pos = XmlUtils.extractPosition(el);
+            for (TileEntry tile : snapshot.getTiles()) {
+                Position pos = tile.getPosition();
                 if (pos.x <= left) left = pos.x - 1;
                 if (pos.x >= right) right = pos.x + 1;
                 if (pos.y <= top) top = pos.y - 1;
@@ -234,6 +230,16 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         return offsetY;
     }
 
+    /**
+     * Repaints area of tile on given position only. Area is extended by half of square
+     * on each side to cover score labels overlapping neighbouring tiles.
+     */
+    public void repaintTile(Position pos) {
+        int margin = squareSize / 2;
+        repaint(new Rectangle(offsetX + pos.x * squareSize - margin, offsetY + pos.y * squareSize - margin,
+            squareSize + 2 * margin, squareSize + 2 * margin));
+    }
+
     public ChatPanel getChatPanel() {
         return chatPanel;
     }
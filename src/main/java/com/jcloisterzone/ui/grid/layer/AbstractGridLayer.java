@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.font.FontRenderContext;
 import java.awt.font.TextLayout;
@@ -125,6 +126,16 @@ public abstract class AbstractGridLayer implements GridLayer {
         return gridPanel.getSquareSize();
     }
 
+    /**
+     * Returns true if square on given position (extended by margin) intersects painted area.
+     * @param clip clip bounds of graphics translated by grid offset, null if whole grid is painted
+     */
+    protected boolean isVisible(Rectangle clip, Position pos, int margin) {
+        if (clip == null) return true;
+        int size = getSquareSize();
+        return clip.intersects(getOffsetX(pos) - margin, getOffsetY(pos) - margin, size + 2 * margin, size + 2 * margin);
+    }
+
     protected Client getClient() {
         return gridPanel.getClient();
     }
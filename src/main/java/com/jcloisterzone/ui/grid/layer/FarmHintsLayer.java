@@ -7,16 +7,24 @@ import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.MeepleEvent;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.feature.Farm;
@@ -31,12 +39,31 @@ import com.jcloisterzone.ui.resources.ResourceManager;
 
 public class FarmHintsLayer extends AbstractGridLayer {
 
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
     private static final int FULL_SIZE = 300;
     private static final AlphaComposite HINT_ALPHA_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, .4f);
 
-    private boolean doRefreshHints;
-    final Map<Tile, Map<Location, Area>> areas = new HashMap<>();
-    private final List<FarmHint> hints = new ArrayList<>();
+    /**
+     * Farms are walked on thread which delivers game events, only hint areas are built outside of it.
+     * Tasks of all layers are processed in order by single thread.
+     */
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "FarmHints");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    //accessed from worker thread only
+    private final Map<Tile, Map<Location, Area>> areas = new HashMap<>();
+    private final Map<Feature, FarmHint> farmHints = new HashMap<>();
+    private final Set<FarmHint> components = new LinkedHashSet<>();
+
+    /** displayed hints, replaced at once when computation is finished */
+    private volatile List<FarmHint> hints = Collections.emptyList();
 
     public FarmHintsLayer(GridPanel gridPanel, GameController gc) {
         super(gridPanel, gc);
@@ -53,11 +80,6 @@ public class FarmHintsLayer extends AbstractGridLayer {
         Double scale = sqSize == FULL_SIZE ? null : (double) sqSize / FULL_SIZE;
         TextureFactory textures = new TextureFactory(sqSize);
 
-        if (doRefreshHints) {
-            doRefreshHints = false;
-            fillHints();
-        }
-
         for (FarmHint fh : hints) {
             if (fh.scaledArea == null) {
                 if (scale == null) {
@@ -80,23 +102,37 @@ public class FarmHintsLayer extends AbstractGridLayer {
     }
 
     public void tileEvent(TileEvent ev) {
-        Tile tile = ev.getTile();
+        final Tile tile = ev.getTile();
         if (ev.getType() == TileEvent.PLACEMENT) {
-            ResourceManager resourceManager = getClient().getResourceManager();
-            Set<Location> farmLocations = new HashSet<>();
+            Set<Farm> farms = new HashSet<>();
+            final Set<Location> farmLocations = new HashSet<>();
             for (Feature f : tile.getFeatures()) {
                 if (f instanceof Farm) {
+                    farms.add((Farm) f);
                     farmLocations.add(f.getLocation());
                 }
             }
-            if (farmLocations.isEmpty()) return;
-            Map<Location, Area> tAreas = resourceManager.getFeatureAreas(tile, FULL_SIZE, farmLocations);
-            areas.put(tile, tAreas);
-            refreshHints();
+            if (farms.isEmpty()) return;
+            final List<FarmHint> updated = createHints(farms);
+            final ResourceManager resourceManager = getClient().getResourceManager();
+            worker.execute(new HintsTask() {
+                @Override
+                protected void update() {
+                    areas.put(tile, resourceManager.getFeatureAreas(tile, FULL_SIZE, farmLocations));
+                    updateHints(updated);
+                }
+            });
         }
         if (ev.getType() == TileEvent.REMOVE) {
-            areas.remove(tile);
-            refreshHints();
+            //farm can be split into more parts, rebuild all
+            final List<FarmHint> all = createAllHints();
+            worker.execute(new HintsTask() {
+                @Override
+                protected void update() {
+                    areas.remove(tile);
+                    replaceHints(all);
+                }
+            });
         }
 
     }
@@ -106,95 +142,178 @@ public class FarmHintsLayer extends AbstractGridLayer {
             (ev.getFrom() != null && ev.getFrom().getLocation().isFarmLocation()) ||
             (ev.getTo() != null && ev.getTo().getLocation().isFarmLocation())
         ) {
-            refreshHints();
+            Set<Farm> farms = new HashSet<>();
+            for (FeaturePointer fp : new FeaturePointer[] { ev.getFrom(), ev.getTo() }) {
+                if (fp == null) continue;
+                Feature f = getGame().getBoard().get(fp);
+                if (!(f instanceof Farm)) {
+                    //eg. barn is placed on tile corner
+                    refreshHints();
+                    return;
+                }
+                farms.add((Farm) f);
+            }
+            final List<FarmHint> updated = createHints(farms);
+            worker.execute(new HintsTask() {
+                @Override
+                protected void update() {
+                    updateHints(updated);
+                }
+            });
         }
     }
 
 
     public void refreshHints() {
-        doRefreshHints = true;
+        final List<FarmHint> all = createAllHints();
+        worker.execute(new HintsTask() {
+            @Override
+            protected void update() {
+                replaceHints(all);
+            }
+        });
     }
 
-    private void fillHints() {
-        hints.clear();
-        final Set<Feature> processed = new HashSet<>();
-        for (Entry<Tile, Map<Location, Area>> entry : areas.entrySet()) {
-            for (Feature f : entry.getKey().getFeatures()) {
-                if (!(f instanceof Farm)) continue;
-                if (processed.contains(f)) continue;
-
-                FarmHint fh = f.walk(new FeatureVisitor<FarmHint>() {
-                    FarmHint result = new FarmHint(new Area(), null);
-                    int x = Integer.MAX_VALUE;
-                    int y = Integer.MAX_VALUE;
-                    int size = 0;
-                    boolean hasCity = false;
-                    int[] power = new int[getGame().getAllPlayers().length];
-
-                    @Override
-                    public boolean visit(Feature feature) {
-                        Farm f = (Farm) feature;
-                        processed.add(f);
-                        size++;
-                        hasCity = hasCity || f.getAdjoiningCities() != null || f.isAdjoiningCityOfCarcassonne();
-                        for (Meeple m : f.getMeeples()) {
-                            if (m instanceof Follower) {
-                                power[m.getPlayer().getIndex()] += ((Follower)m).getPower();
-                            }
-                            if (m instanceof Barn) {
-                                power[m.getPlayer().getIndex()] += 1;
-                            }
-                        }
-                        Position pos = f.getTile().getPosition();
-                        if (pos.x < x) {
-                            if (x != Integer.MAX_VALUE) result.area.transform(AffineTransform.getTranslateInstance(FULL_SIZE * (x-pos.x), 0));
-                            x = pos.x;
-                        }
-                        if (pos.y < y) {
-                            if (y != Integer.MAX_VALUE) result.area.transform(AffineTransform.getTranslateInstance(0, FULL_SIZE * (y-pos.y)));
-                            y = pos.y;
-                        }
-                        Map<Location, Area> tileAreas = areas.get(f.getTile());
-                        if (tileAreas != null) { //sync issue, feature can be extended in other thread, so it is not registered in areas yet
-                            Area featureArea = new Area(tileAreas.get(f.getLocation()));
-                            featureArea.transform(AffineTransform.getTranslateInstance(FULL_SIZE * (pos.x-x), FULL_SIZE*(pos.y-y)));
-                            result.area.add(featureArea);
-                        }
-                        return true;
+    private List<FarmHint> createAllHints() {
+        Set<Farm> farms = new HashSet<>();
+        for (Tile tile : getGame().getBoard().getAllTiles()) {
+            for (Feature f : tile.getFeatures()) {
+                if (f instanceof Farm) {
+                    farms.add((Farm) f);
+                }
+            }
+        }
+        return createHints(farms);
+    }
+
+    /** walks farms connected with given ones, must be called on thread which delivers game events */
+    private List<FarmHint> createHints(Set<Farm> farms) {
+        List<FarmHint> result = new ArrayList<>();
+        Set<Feature> processed = new HashSet<>();
+        for (Farm farm : farms) {
+            if (processed.contains(farm)) continue;
+            FarmHint fh = createHint(farm);
+            processed.addAll(fh.farms);
+            result.add(fh);
+        }
+        return result;
+    }
+
+    private void replaceHints(List<FarmHint> all) {
+        farmHints.clear();
+        components.clear();
+        updateHints(all);
+    }
+
+    /** builds areas of given hints, hints of merged farms are replaced */
+    private void updateHints(List<FarmHint> updated) {
+        for (FarmHint fh : updated) {
+            fh.area = createArea(fh);
+            for (Feature f : fh.farms) {
+                FarmHint old = farmHints.put(f, fh);
+                if (old != null) {
+                    components.remove(old);
+                }
+            }
+            components.add(fh);
+        }
+    }
+
+    private Area createArea(FarmHint fh) {
+        Area area = new Area();
+        for (FarmPart part : fh.parts) {
+            Map<Location, Area> tileAreas = areas.get(part.tile);
+            if (tileAreas != null) { //tile placed before layer was created
+                Area featureArea = new Area(tileAreas.get(part.location));
+                featureArea.transform(AffineTransform.getTranslateInstance(FULL_SIZE * (part.position.x-fh.position.x), FULL_SIZE * (part.position.y-fh.position.y)));
+                area.add(featureArea);
+            }
+        }
+        return area;
+    }
+
+    private FarmHint createHint(Farm seed) {
+        return seed.walk(new FeatureVisitor<FarmHint>() {
+            FarmHint result = new FarmHint();
+            int x = Integer.MAX_VALUE;
+            int y = Integer.MAX_VALUE;
+            int size = 0;
+            boolean hasCity = false;
+            int[] power = new int[getGame().getAllPlayers().length];
+
+            @Override
+            public boolean visit(Feature feature) {
+                Farm f = (Farm) feature;
+                result.farms.add(f);
+                size++;
+                hasCity = hasCity || f.getAdjoiningCities() != null || f.isAdjoiningCityOfCarcassonne();
+                for (Meeple m : f.getMeeples()) {
+                    if (m instanceof Follower) {
+                        power[m.getPlayer().getIndex()] += ((Follower)m).getPower();
+                    }
+                    if (m instanceof Barn) {
+                        power[m.getPlayer().getIndex()] += 1;
                     }
+                }
+                Position pos = f.getTile().getPosition();
+                x = Math.min(x, pos.x);
+                y = Math.min(y, pos.y);
+                result.parts.add(new FarmPart(f.getTile(), f.getLocation(), pos));
+                return true;
+            }
+
+            @Override
+            public FarmHint getResult() {
+                result.position = new Position(x, y);
 
-                    @Override
-                    public FarmHint getResult() {
-                        result.position = new Position(x, y);
-
-                        int bestPower = 0;
-                        List<Integer> bestPlayerIndexes = new ArrayList<>();
-                        for (int i = 0; i < power.length; i++) {
-                            if (power[i] == bestPower) {
-                                bestPlayerIndexes.add(i);
-                            }
-                            if (power[i] > bestPower) {
-                                bestPower = power[i];
-                                bestPlayerIndexes.clear();
-                                bestPlayerIndexes.add(i);
-                            }
-                        }
-                        if (bestPower == 0) {
-                            if (size < 2 || !hasCity) return null; //don't display unimportant farms
-                            result.colors = new Color[] { Color.DARK_GRAY };
-                        } else {
-                            result.colors = new Color[bestPlayerIndexes.size()];
-                            int i = 0;
-                            for (Integer index : bestPlayerIndexes) {
-                                result.colors[i++] = getGame().getPlayer(index).getColors().getMeepleColor();
-                            }
-                        }
-                        return result;
+                int bestPower = 0;
+                List<Integer> bestPlayerIndexes = new ArrayList<>();
+                for (int i = 0; i < power.length; i++) {
+                    if (power[i] == bestPower) {
+                        bestPlayerIndexes.add(i);
+                    }
+                    if (power[i] > bestPower) {
+                        bestPower = power[i];
+                        bestPlayerIndexes.clear();
+                        bestPlayerIndexes.add(i);
                     }
-                });
-                if (fh == null) continue; //to small farm
-                hints.add(fh);
+                }
+                if (bestPower == 0) {
+                    if (size < 2 || !hasCity) return result; //don't display unimportant farms
+                    result.colors = new Color[] { Color.DARK_GRAY };
+                } else {
+                    result.colors = new Color[bestPlayerIndexes.size()];
+                    int i = 0;
+                    for (Integer index : bestPlayerIndexes) {
+                        result.colors[i++] = getGame().getPlayer(index).getColors().getMeepleColor();
+                    }
+                }
+                return result;
             }
+        });
+    }
+
+    /** Builds hint areas on worker thread and publishes result to EDT. */
+    private abstract class HintsTask implements Runnable {
+
+        protected abstract void update();
+
+        @Override
+        public void run() {
+            try {
+                update();
+            } catch (RuntimeException e) {
+                logger.warn("Farm hints update failed", e);
+                return;
+            }
+            List<FarmHint> visible = new ArrayList<>();
+            for (FarmHint fh : components) {
+                if (fh.colors != null) {
+                    visible.add(fh);
+                }
+            }
+            hints = visible;
+            gridPanel.repaint();
         }
     }
 
@@ -209,10 +328,22 @@ public class FarmHintsLayer extends AbstractGridLayer {
         public Area area;
         public Area scaledArea;
         public Position position;
+        /** null for unimportant farm, which is not displayed */
         public Color colors[];
+        /** farm parts of hint */
+        public final Set<Feature> farms = new HashSet<>();
+        /** geometry of farm parts, captured when farm is walked */
+        public final List<FarmPart> parts = new ArrayList<>();
+    }
+
+    static class FarmPart {
+        public final Tile tile;
+        public final Location location;
+        public final Position position;
 
-        public FarmHint(Area area, Position position) {
-            this.area = area;
+        public FarmPart(Tile tile, Location location, Position position) {
+            this.tile = tile;
+            this.location = location;
             this.position = position;
         }
     }
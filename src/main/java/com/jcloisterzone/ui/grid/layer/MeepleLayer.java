@@ -140,7 +140,7 @@ public class MeepleLayer extends AbstractGridLayer {
 
 
     //TODO path from Theme
-    public String getExtraDecoration(Class<? extends Meeple> type, FeaturePointer fp) {
+    public static String getExtraDecoration(Class<? extends Meeple> type, FeaturePointer fp) {
         if (Follower.class.isAssignableFrom(type) && fp.getLocation().isFarmLocation()) {
             return "farm.png";
         }
@@ -0,0 +1,75 @@
+package com.jcloisterzone.ui.grid.layer;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.ui.UiUtils;
+
+/**
+ * Tile images rotated and scaled to square size, so painting of tile is plain image copy
+ * instead of transformed draw. Images are cached by tile id and rotation for each zoom level,
+ * images of least recently used zoom levels are released.
+ */
+public class ScaledTileImageCache {
+
+    /** count of zoom levels kept (current one and previous one to make zoom back and screenshot cheap) */
+    private static final int ZOOM_LEVELS = 2;
+
+    private final Map<Integer, Map<String, Image[]>> levels = new LinkedHashMap<Integer, Map<String, Image[]>>(4, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Map<String, Image[]>> eldest) {
+            return size() > ZOOM_LEVELS;
+        }
+    };
+
+    /**
+     * Returns tile image scaled to given square size and rotated by tile rotation.
+     * @param source unscaled tile image
+     */
+    public Image getImage(Tile tile, Image source, int squareSize) {
+        Map<String, Image[]> level = levels.get(squareSize);
+        if (level == null) {
+            level = new HashMap<>();
+            levels.put(squareSize, level);
+        }
+        Image[] rotations = level.get(tile.getId());
+        if (rotations == null) {
+            rotations = new Image[Rotation.values().length];
+            level.put(tile.getId(), rotations);
+        }
+        Rotation rot = tile.getRotation();
+        Image img = rotations[rot.ordinal()];
+        if (img == null) {
+            img = createImage(source, rot, squareSize);
+            rotations[rot.ordinal()] = img;
+        }
+        return img;
+    }
+
+    public void clear() {
+        levels.clear();
+    }
+
+    private Image createImage(Image source, Rotation rot, int squareSize) {
+        BufferedImage img = UiUtils.newTransparentImage(squareSize, squareSize);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        AffineTransform at = rot.getAffineTransform(squareSize);
+        double ratio = squareSize / (double) source.getWidth(null);
+        at.concatenate(AffineTransform.getScaleInstance(ratio, ratio));
+        g2.drawImage(source, at, null);
+        g2.dispose();
+        return img;
+    }
+}
@@ -3,6 +3,7 @@ package com.jcloisterzone.ui.grid.layer;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +16,7 @@ public class TileLayer extends AbstractGridLayer {
 
     //keep own copy of tiles in Swing thread to prevent concurent modification ex. of tile list on game
     private List<Tile> placedTiles = new ArrayList<>();
+    private final ScaledTileImageCache imageCache = new ScaledTileImageCache();
 
     public TileLayer(GridPanel gridPanel, GameController gc) {
         super(gridPanel, gc);
@@ -22,14 +24,17 @@ public class TileLayer extends AbstractGridLayer {
 
     @Override
     public void paint(Graphics2D g2) {
+        //tiles out of painted part of viewport are skipped
+        Rectangle clip = g2.getClipBounds();
+        int squareSize = getSquareSize();
+
         //TODO nice shadow
         if (!getClient().getGridPanel().isLayerVisible(AbstractTilePlacementLayer.class)) {
             g2.setColor(Color.WHITE);
-            int squareSize = getSquareSize(),
-                thickness = squareSize / 11;
+            int thickness = squareSize / 11;
             for (Tile tile : placedTiles) {
                 Position p = tile.getPosition();
-                if (tile.getPosition() != null) { //threading, tile can be removed
+                if (p != null && isVisible(clip, p, thickness)) { //threading, tile can be removed
                     int x = getOffsetX(p), y = getOffsetY(p);
                     g2.fillRect(x-thickness, y-thickness, squareSize+2*thickness, squareSize+2*thickness);
                 }
@@ -37,9 +42,11 @@ public class TileLayer extends AbstractGridLayer {
         }
 
         for (Tile tile : placedTiles) {
-            if (tile.getPosition() != null) {
-                Image img = getClient().getResourceManager().getTileImage(tile);
-                g2.drawImage(img, getAffineTransform(img.getWidth(null), tile.getPosition(), tile.getRotation()), null);
+            Position p = tile.getPosition();
+            if (p != null && isVisible(clip, p, 0)) {
+                Image source = getClient().getResourceManager().getTileImage(tile);
+                Image img = imageCache.getImage(tile, source, squareSize);
+                g2.drawImage(img, getOffsetX(p), getOffsetY(p), null);
             }
         }
     }
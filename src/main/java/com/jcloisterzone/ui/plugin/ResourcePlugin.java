@@ -7,8 +7,11 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -23,6 +26,7 @@ import org.xml.sax.SAXException;
 
 import com.jcloisterzone.Expansion;
 import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.feature.Bridge;
 import com.jcloisterzone.feature.Castle;
@@ -41,12 +45,24 @@ import com.jcloisterzone.ui.theme.ThemeGeometry;
 public class ResourcePlugin extends Plugin implements ResourceManager {
 
     public static final int NORMALIZED_SIZE = 1000;
+    /** max count of cached feature area maps */
+    public static final int FEATURE_AREAS_CACHE_SIZE = 512;
 
     private static ThemeGeometry defaultGeometry;
     private ThemeGeometry pluginGeometry;
 
     private Set<String> supportedExpansions = new HashSet<>(); //expansion codes
 
+    /** feature areas are same for all tiles with same id, rotation and features, least recently used are evicted */
+    private final Map<FeatureAreasKey, Map<Location, Area>> featureAreasCache = new LinkedHashMap<FeatureAreasKey, Map<Location, Area>>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FeatureAreasKey, Map<Location, Area>> eldest) {
+            return size() > FEATURE_AREAS_CACHE_SIZE;
+        }
+    };
+
     static {
         try {
             defaultGeometry = new ThemeGeometry(ResourcePlugin.class.getClassLoader(), "defaults");
@@ -156,10 +172,29 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
         return false;
     }
 
+    /**
+     * Returns feature areas of given tile. Areas are cached and shared between calls,
+     * caller must not modify them.
+     */
     @Override
     public Map<Location, Area> getFeatureAreas(Tile tile, int size, Set<Location> locations) {
         if (!containsTile(tile.getId())) return null;
 
+        FeatureAreasKey key = new FeatureAreasKey(tile, size, locations);
+        Map<Location, Area> areas;
+        synchronized (featureAreasCache) {
+            areas = featureAreasCache.get(key);
+        }
+        if (areas == null) {
+            areas = createFeatureAreas(tile, size, locations);
+            synchronized (featureAreasCache) {
+                featureAreasCache.put(key, areas);
+            }
+        }
+        return new HashMap<>(areas);
+    }
+
+    private Map<Location, Area> createFeatureAreas(Tile tile, int size, Set<Location> locations) {
         Map<Location, Area> areas = new HashMap<>();
         Area subsBridge = getBaseRoadAndCitySubstractions(tile);
         Area subsRoadCity = new Area(subsBridge);
@@ -207,17 +242,52 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
             transform1 = AffineTransform.getScaleInstance(ratio,ratio);
         }
         //TODO rotation - 3 rotations are done - Location rotation, getArea and this affine
-        AffineTransform transform2 = tile.getRotation().getAffineTransform(size);
+        AffineTransform transform = tile.getRotation().getAffineTransform(size);
+        transform.concatenate(transform1); //scale first, single pass over area
 
         for (Entry<Location, Area> entry : areas.entrySet()) {
-            Area a = entry.getValue();
-            a = a.createTransformedArea(transform1);
-            a = a.createTransformedArea(transform2);
-            transformed.put(entry.getKey(), a);
+            transformed.put(entry.getKey(), entry.getValue().createTransformedArea(transform));
         }
         return transformed;
     }
 
+    /**
+     * Cache key of tile feature areas. Besides tile id and rotation, features are part of key
+     * because they can be changed during game (bridge is added, city is replaced with castle).
+     */
+    private static class FeatureAreasKey {
+        private final String tileId;
+        private final Rotation rotation;
+        private final int size;
+        private final Set<Location> locations;
+        private final List<Object> features = new ArrayList<>();
+
+        public FeatureAreasKey(Tile tile, int size, Set<Location> locations) {
+            this.tileId = tile.getId();
+            this.rotation = tile.getRotation();
+            this.size = size;
+            this.locations = new HashSet<>(locations); //caller's set can be changed later
+            for (Feature piece : tile.getFeatures()) {
+                features.add(piece.getClass());
+                features.add(piece.getLocation());
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return ((tileId.hashCode() * 31 + rotation.hashCode()) * 31 + size) * 31 + locations.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof FeatureAreasKey)) return false;
+            FeatureAreasKey other = (FeatureAreasKey) obj;
+            return size == other.size && rotation == other.rotation && tileId.equals(other.tileId)
+                && locations.equals(other.locations) && features.equals(other.features);
+        }
+    }
+
     @Override
     public Map<Location, Area> getBarnTileAreas(Tile tile, int size, Set<Location> corners) {
         return null;
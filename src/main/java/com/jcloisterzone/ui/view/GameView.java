@@ -403,6 +403,9 @@ public class GameView extends AbstractUiView implements WindowStateListener {
                     if (debugConfig != null && "plain".equals(debugConfig.getSave_format())) {
                         snapshot.setGzipOutput(false);
                     }
+                    if (debugConfig != null && "binary".equals(debugConfig.getSave_format())) {
+                        snapshot.setFormat(Snapshot.Format.BINARY);
+                    }
                     snapshot.save(new FileOutputStream(file));
                 } catch (IOException | TransformerException ex) {
                     logger.error(ex.getMessage(), ex);
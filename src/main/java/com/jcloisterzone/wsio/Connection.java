@@ -78,6 +78,14 @@ public class Connection {
         ws.connect();
     }
 
+    /**
+     * Creates connection without websocket for games running in same process.
+     * Subclass must override {@link #send(WsMessage)} and {@link #close()}.
+     */
+    protected Connection(MessageListener listener) {
+        this.listener = listener;
+    }
+
 
     public void send(WsMessage arg) {
         try {
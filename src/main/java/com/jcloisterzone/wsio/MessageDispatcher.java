@@ -1,7 +1,13 @@
 package com.jcloisterzone.wsio;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +18,11 @@ public class MessageDispatcher {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class, WsMessage.class);
+    private static final ConcurrentMap<Class<?>, Map<Class<?>, MethodHandle>> HANDLERS = new ConcurrentHashMap<>();
+    /** RmiProxy methods by name, adapted to signature (target, arguments) */
+    private static final Map<String, MethodHandle> RMI_HANDLERS = createRmiHandlers();
+
 //    private List<Object> subscribers = new ArrayList<>();
 //
 //    public void register(Object subscriber) {
@@ -32,36 +43,79 @@ public class MessageDispatcher {
     }
 
 
-    //TODO what about cache targets
     private boolean dispatchOn(WsMessage msg, Object context, Object target) {
-        Class<?> type = target.getClass();
+        MethodHandle handler = getHandlers(target.getClass()).get(msg.getClass());
+        if (handler == null) return false;
+        try {
+            handler.invokeExact(target, context, msg);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Calls {@link RmiProxy} method on target.
+     * @throws IllegalArgumentException if method is unknown
+     * @throws Throwable anything thrown by called method
+     */
+    public void dispatchRmi(RmiProxy target, String method, Object[] args) throws Throwable {
+        MethodHandle handler = RMI_HANDLERS.get(method);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown RMI method " + method);
+        }
+        handler.invokeExact((Object) target, args);
+    }
+
+    /**
+     * Returns handlers of given target type by message type. Table is built once per type,
+     * handlers are adapted to common signature (target, context, message).
+     */
+    private static Map<Class<?>, MethodHandle> getHandlers(Class<?> type) {
+        Map<Class<?>, MethodHandle> handlers = HANDLERS.get(type);
+        if (handlers == null) {
+            handlers = createHandlers(type);
+            HANDLERS.putIfAbsent(type, handlers);
+        }
+        return handlers;
+    }
+
+    private static Map<Class<?>, MethodHandle> createHandlers(Class<?> type) {
+        Map<Class<?>, MethodHandle> handlers = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         for (Method m : type.getMethods()) {
             WsSubscribe handler = m.getAnnotation(WsSubscribe.class);
-            if (handler != null) {
-                Class<?> params[] = m.getParameterTypes();
-                @SuppressWarnings("unchecked")
-                Class<? extends WsMessage> cls = (Class<? extends WsMessage>) params[params.length-1];
-                if (cls.equals(msg.getClass())) {
-                    try {
-                        if (params.length == 1) {
-                            m.invoke(target, msg);
-                        } else {
-                            m.invoke(target, context, msg);
-                        }
-                    } catch (InvocationTargetException e) {
-                        if (e.getCause() instanceof RuntimeException) {
-                            throw (RuntimeException) e.getCause();
-                        } else {
-                            logger.error(e.getMessage(), e);
-                        }
-                    } catch (IllegalAccessException e) {
-                        logger.error(e.getMessage(), e);
-                    }
-                    return true;
+            if (handler == null) continue;
+            Class<?> params[] = m.getParameterTypes();
+            Class<?> cls = params[params.length-1];
+            if (handlers.containsKey(cls)) continue; //first declared handler wins
+            try {
+                m.setAccessible(true); //declaring class is not required to be public
+                MethodHandle mh = lookup.unreflect(m);
+                if (params.length == 1) {
+                    mh = MethodHandles.dropArguments(mh, 1, Object.class);
                 }
+                handlers.put(cls, mh.asType(HANDLER_TYPE));
+            } catch (IllegalAccessException | SecurityException e) {
+                LoggerFactory.getLogger(MessageDispatcher.class).error(e.getMessage(), e);
             }
         }
-        return false;
+        return handlers;
     }
 
+    private static Map<String, MethodHandle> createRmiHandlers() {
+        Map<String, MethodHandle> handlers = new HashMap<>();
+        MethodType type = MethodType.methodType(void.class, Object.class, Object[].class);
+        for (Method m : RmiProxy.class.getMethods()) {
+            try {
+                MethodHandle mh = MethodHandles.publicLookup().unreflect(m);
+                handlers.put(m.getName(), mh.asSpreader(Object[].class, m.getParameterTypes().length).asType(type));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return handlers;
+    }
 }
@@ -0,0 +1,192 @@
+package com.jcloisterzone.wsio;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jcloisterzone.LittleBuilding;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.figure.Meeple;
+
+/**
+ * Typed wire encoding of {@link RmiProxy} call arguments. Schema of each method is given
+ * by its parameter types, every argument is encoded as short string (null stays null).
+ *
+ * <ul>
+ * <li>Position - <code>x,y</code></li>
+ * <li>Location - location mask</li>
+ * <li>FeaturePointer - <code>x,y,mask</code></li>
+ * <li>Rotation, LittleBuilding - enum name</li>
+ * <li>meeple class - simple name for classes from figure package, otherwise full name</li>
+ * <li>Integer, boolean - number, <code>true</code>/<code>false</code></li>
+ * </ul>
+ */
+public final class RmiCodec {
+
+    private static abstract class ArgCodec {
+        abstract String encode(Object value);
+        abstract Object decode(String value);
+    }
+
+    private static final String FIGURE_PACKAGE = Meeple.class.getPackage().getName() + ".";
+
+    private static final Map<Class<?>, ArgCodec> TYPE_CODECS = new HashMap<>();
+    private static final Map<String, ArgCodec[]> SCHEMA = new HashMap<>();
+
+    static {
+        ArgCodec position = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                Position p = (Position) value;
+                return p.x + "," + p.y;
+            }
+            @Override
+            Object decode(String value) {
+                int i = value.indexOf(',');
+                return new Position(Integer.parseInt(value.substring(0, i)), Integer.parseInt(value.substring(i + 1)));
+            }
+        };
+        ArgCodec location = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                return Integer.toString(((Location) value).getMask());
+            }
+            @Override
+            Object decode(String value) {
+                return Location.create(Integer.parseInt(value));
+            }
+        };
+        ArgCodec featurePointer = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                FeaturePointer fp = (FeaturePointer) value;
+                Position p = fp.getPosition();
+                return p.x + "," + p.y + "," + fp.getLocation().getMask();
+            }
+            @Override
+            Object decode(String value) {
+                String[] s = value.split(",");
+                Position p = new Position(Integer.parseInt(s[0]), Integer.parseInt(s[1]));
+                return new FeaturePointer(p, Location.create(Integer.parseInt(s[2])));
+            }
+        };
+        ArgCodec meepleType = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                String name = ((Class<?>) value).getName();
+                return name.startsWith(FIGURE_PACKAGE) ? name.substring(FIGURE_PACKAGE.length()) : name;
+            }
+            @Override
+            Object decode(String value) {
+                String name = value.indexOf('.') == -1 ? FIGURE_PACKAGE + value : value;
+                try {
+                    //don't initialize class before it is verified to be meeple
+                    return Class.forName(name, false, Meeple.class.getClassLoader()).asSubclass(Meeple.class);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalArgumentException("Unknown meeple type " + value, e);
+                }
+            }
+        };
+        ArgCodec integer = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                return value.toString();
+            }
+            @Override
+            Object decode(String value) {
+                return Integer.valueOf(value);
+            }
+        };
+        ArgCodec bool = new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                return value.toString();
+            }
+            @Override
+            Object decode(String value) {
+                return Boolean.valueOf(value);
+            }
+        };
+        TYPE_CODECS.put(Position.class, position);
+        TYPE_CODECS.put(Location.class, location);
+        TYPE_CODECS.put(FeaturePointer.class, featurePointer);
+        TYPE_CODECS.put(Class.class, meepleType);
+        TYPE_CODECS.put(Integer.class, integer);
+        TYPE_CODECS.put(Boolean.class, bool);
+        TYPE_CODECS.put(boolean.class, bool);
+        TYPE_CODECS.put(Rotation.class, enumCodec(Rotation.class));
+        TYPE_CODECS.put(LittleBuilding.class, enumCodec(LittleBuilding.class));
+
+        for (Method m : RmiProxy.class.getMethods()) {
+            Class<?>[] types = m.getParameterTypes();
+            ArgCodec[] codecs = new ArgCodec[types.length];
+            for (int i = 0; i < types.length; i++) {
+                codecs[i] = TYPE_CODECS.get(types[i]);
+                if (codecs[i] == null) {
+                    codecs = null; //method is transferred with legacy encoding
+                    break;
+                }
+            }
+            if (codecs != null) {
+                SCHEMA.put(m.getName(), codecs);
+            }
+        }
+    }
+
+    private static <T extends Enum<T>> ArgCodec enumCodec(final Class<T> type) {
+        return new ArgCodec() {
+            @Override
+            String encode(Object value) {
+                return ((Enum<?>) value).name();
+            }
+            @Override
+            Object decode(String value) {
+                return Enum.valueOf(type, value);
+            }
+        };
+    }
+
+    private RmiCodec() {
+    }
+
+    public static boolean isSupported(String method) {
+        return SCHEMA.containsKey(method);
+    }
+
+    /**
+     * Encodes call arguments.
+     * @return encoded arguments or null if method has no typed schema
+     */
+    public static String[] encode(String method, Object[] args) {
+        ArgCodec[] codecs = SCHEMA.get(method);
+        if (codecs == null) return null;
+        int length = args == null ? 0 : args.length;
+        if (length != codecs.length) {
+            throw new IllegalArgumentException("Invalid argument count for " + method);
+        }
+        String[] result = new String[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = args[i] == null ? null : codecs[i].encode(args[i]);
+        }
+        return result;
+    }
+
+    public static Object[] decode(String method, String[] params) {
+        ArgCodec[] codecs = SCHEMA.get(method);
+        if (codecs == null) {
+            throw new IllegalArgumentException("Unknown method " + method);
+        }
+        int length = params == null ? 0 : params.length;
+        if (length != codecs.length) {
+            throw new IllegalArgumentException("Invalid argument count for " + method);
+        }
+        Object[] result = new Object[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = params[i] == null ? null : codecs[i].decode(params[i]);
+        }
+        return result;
+    }
+}
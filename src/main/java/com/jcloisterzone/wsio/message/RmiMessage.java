@@ -9,8 +9,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 
+import com.jcloisterzone.wsio.RmiCodec;
 import com.jcloisterzone.wsio.WsMessageCommand;
 
+/**
+ * Remote call of {@link com.jcloisterzone.wsio.RmiProxy} method. Arguments are sent typed
+ * as {@link #params} (see {@link RmiCodec}), methods without typed schema and clients
+ * supporting only legacy protocol use Java serialized {@link #args}.
+ */
 @WsMessageCommand("RMI")
 public class RmiMessage implements WsInGameMessage {
 
@@ -18,12 +24,36 @@ public class RmiMessage implements WsInGameMessage {
 
     private String gameId;
     private String method;
-    private String args; //serialized
+    private String[] params; //typed
+    private String args; //serialized, legacy
 
-    public RmiMessage(String gameId, String method, Object[] args) {
+    private RmiMessage(String gameId, String method) {
         this.gameId = gameId;
         this.method = method;
-        this.args = encode(args);
+    }
+
+    public RmiMessage(String gameId, String method, Object[] args) {
+        this(gameId, method);
+        this.params = RmiCodec.encode(method, args);
+        if (params == null) {
+            this.args = encode(args);
+        }
+    }
+
+    /** Returns copy of message with arguments in legacy encoding. */
+    public RmiMessage toLegacy() {
+        if (params == null) return this;
+        RmiMessage legacy = new RmiMessage(gameId, method);
+        legacy.setArgs(encode(getArguments()));
+        return legacy;
+    }
+
+    /** Returns decoded call arguments. */
+    public Object[] getArguments() {
+        if (params != null) {
+            return RmiCodec.decode(method, params);
+        }
+        return (Object[]) decode(args);
     }
 
     public String encode(Object object) {
@@ -68,6 +98,14 @@ public class RmiMessage implements WsInGameMessage {
         this.method = method;
     }
 
+    public String[] getParams() {
+        return params;
+    }
+
+    public void setParams(String[] params) {
+        this.params = params;
+    }
+
     public String getArgs() {
         return args;
     }
@@ -80,7 +118,7 @@ public class RmiMessage implements WsInGameMessage {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("RMI {\"gameID\": \"").append(gameId).append("\", \"method\": \"").append(method).append("\"} args=[");
-        Object[] oargs = (Object[]) decode(args);
+        Object[] oargs = getArguments();
         if (oargs != null) {
             for (int i = 0; i < oargs.length; i++) {
                 if (i > 0) sb.append(", ");
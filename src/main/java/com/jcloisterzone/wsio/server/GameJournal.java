@@ -0,0 +1,343 @@
+package com.jcloisterzone.wsio.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.xml.transform.TransformerException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Append-only journal of started game. Messages changing game state (draws, dice rolls,
+ * RMI calls and undo) are appended as they are broadcasted, so cost of each record doesn't
+ * depend on game size.
+ *
+ * Journal consists of checkpoint file (game message of started game, as any client receives it)
+ * and segment files with sequenced records following checkpoint. When segment is full, new
+ * one is opened and checkpoint is moved forward in background by {@link JournalReplay}
+ * - old segments are deleted then. Game is recovered by replaying records after checkpoint.
+ *
+ * Files of game <code>id</code> are <code>id.checkpoint</code> and <code>id.N.journal</code>
+ * where N is sequence number of first record in segment.
+ *
+ * Each record is flushed to OS when appended. Full segments and new checkpoints are synced
+ * to disk before journal moves on, so OS crash can lose only records of open segment.
+ */
+public class GameJournal {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 200;
+
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    /** Checkpoint - game state before record with given sequence number. */
+    public static final class Checkpoint {
+        private final int seq;
+        private final String hostClientId;
+        private final GameMessage game;
+
+        public Checkpoint(int seq, String hostClientId, GameMessage game) {
+            this.seq = seq;
+            this.hostClientId = hostClientId;
+            this.game = game;
+        }
+
+        public int getSeq() {
+            return seq;
+        }
+
+        public String getHostClientId() {
+            return hostClientId;
+        }
+
+        public GameMessage getGame() {
+            return game;
+        }
+    }
+
+    private final File dir;
+    private final String gameId;
+    private final int checkpointInterval;
+    private final Executor executor;
+    private final MessageParser parser = new MessageParser();
+
+    private Writer segment;
+    private FileOutputStream segmentFile;
+    private int segmentStart;
+    private int seq;
+    private boolean closed;
+
+    private GameJournal(File dir, String gameId, int checkpointInterval, Executor executor) {
+        this.dir = dir;
+        this.gameId = gameId;
+        this.checkpointInterval = checkpointInterval;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts new journal of started game, previous journal of same game is replaced.
+     * @param executor executor used for checkpointing
+     */
+    public static GameJournal create(File dir, GameMessage started, String hostClientId,
+            int checkpointInterval, Executor executor) throws IOException {
+        GameJournal journal = new GameJournal(dir, started.getGameId(), checkpointInterval, executor);
+        journal.deleteSegments(Integer.MAX_VALUE);
+        journal.writeCheckpoint(new Checkpoint(0, hostClientId, started));
+        journal.openSegment();
+        return journal;
+    }
+
+    /**
+     * Opens journal of recovered game, records are appended after last readable one.
+     * @param executor executor used for checkpointing
+     */
+    public static GameJournal open(File dir, String gameId, int checkpointInterval, Executor executor) throws IOException {
+        GameJournal journal = new GameJournal(dir, gameId, checkpointInterval, executor);
+        int from = readCheckpoint(dir, gameId).getSeq();
+        journal.seq = from + readRecords(dir, gameId, from, Integer.MAX_VALUE).size();
+        journal.openSegment();
+        return journal;
+    }
+
+    /** Returns ids of games with journal in given directory. */
+    public static List<String> listGames(File dir) {
+        List<String> result = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) return result;
+        for (File f : files) {
+            String name = f.getName();
+            if (name.endsWith(CHECKPOINT_SUFFIX)) {
+                result.add(name.substring(0, name.length() - CHECKPOINT_SUFFIX.length()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends message to journal. Record is flushed to file before method returns.
+     */
+    public synchronized void append(WsInGameMessage msg) throws IOException {
+        if (closed) return;
+        segment.write(seq + " " + parser.toJson((WsMessage) msg) + "\n");
+        segment.flush();
+        seq++;
+        if (seq - segmentStart >= checkpointInterval) {
+            closeSegment();
+            openSegment();
+            final int upTo = segmentStart;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        checkpoint(upTo);
+                    } catch (Exception e) {
+                        logger.error("Checkpoint of game " + gameId + " failed", e);
+                    }
+                }
+            });
+        }
+    }
+
+    public synchronized int getSeq() {
+        return seq;
+    }
+
+    /** Closes journal, files are kept for recovery. */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            logger.warn("Closing journal of game " + gameId + " failed", e);
+        }
+    }
+
+    /** Closes journal and deletes its files, game can't be recovered then. */
+    public synchronized void delete() {
+        close();
+        deleteSegments(Integer.MAX_VALUE);
+        new File(dir, gameId + CHECKPOINT_SUFFIX).delete();
+    }
+
+    private void openSegment() throws IOException {
+        segmentStart = seq;
+        File f = new File(dir, gameId + "." + seq + SEGMENT_SUFFIX);
+        segmentFile = new FileOutputStream(f, true);
+        segment = new BufferedWriter(new OutputStreamWriter(segmentFile, StandardCharsets.UTF_8));
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            segment.flush();
+            segmentFile.getFD().sync();
+        } finally {
+            segment.close();
+        }
+    }
+
+    /**
+     * Moves checkpoint to last state before record <code>upTo</code> which can be checkpointed.
+     * Segments fully covered by new checkpoint are deleted.
+     */
+    void checkpoint(int upTo) throws IOException, TransformerException {
+        Checkpoint cp = readCheckpoint(dir, gameId);
+        List<WsInGameMessage> records = readRecords(dir, gameId, cp.getSeq(), upTo);
+        Config config = new Config();
+        JournalReplay replay = new JournalReplay(cp.getGame(), config);
+        int safe = 0;
+        for (int i = 0; i < records.size(); i++) {
+            replay.apply(records.get(i));
+            if (replay.isCheckpointSafe()) {
+                safe = i + 1;
+            }
+        }
+        if (safe == 0) return;
+        if (safe < records.size()) {
+            //replay overshot last safe state, undoable action is pending there
+            replay = new JournalReplay(cp.getGame(), config);
+            for (int i = 0; i < safe; i++) {
+                replay.apply(records.get(i));
+            }
+        }
+        int newSeq = cp.getSeq() + safe;
+        GameMessage game = replay.createGameMessage(cp.getGame());
+        synchronized (this) {
+            if (closed) return;
+            writeCheckpoint(new Checkpoint(newSeq, cp.getHostClientId(), game));
+            deleteSegments(newSeq);
+        }
+        logger.debug("Game {} checkpointed at {}", gameId, newSeq);
+    }
+
+    /** Deletes segments which contain only records before given sequence number. */
+    private void deleteSegments(int before) {
+        List<File> segments = listSegments(dir, gameId);
+        for (int i = 0; i < segments.size(); i++) {
+            int nextStart = i + 1 < segments.size() ? segmentStart(segments.get(i + 1), gameId) : Integer.MAX_VALUE;
+            if (before == Integer.MAX_VALUE || nextStart <= before) {
+                segments.get(i).delete();
+            }
+        }
+    }
+
+    private void writeCheckpoint(Checkpoint cp) throws IOException {
+        File target = new File(dir, gameId + CHECKPOINT_SUFFIX);
+        File tmp = new File(dir, gameId + CHECKPOINT_SUFFIX + ".tmp");
+        try (FileOutputStream os = new FileOutputStream(tmp); Writer w = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+            w.write(cp.getSeq() + "\n");
+            w.write((cp.getHostClientId() == null ? "" : cp.getHostClientId()) + "\n");
+            w.write(parser.toJson(cp.getGame()) + "\n");
+            w.flush();
+            os.getFD().sync();
+        }
+        //replace checkpoint at once, crash during write keeps previous one
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint readCheckpoint(File dir, String gameId) throws IOException {
+        File f = new File(dir, gameId + CHECKPOINT_SUFFIX);
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+            int seq = Integer.parseInt(r.readLine());
+            String hostClientId = r.readLine();
+            GameMessage game = (GameMessage) new MessageParser().fromJson(r.readLine());
+            return new Checkpoint(seq, hostClientId.isEmpty() ? null : hostClientId, game);
+        }
+    }
+
+    /**
+     * Reads records in range <code>[from, to)</code>. Incomplete last record (server crashed
+     * during write) is ignored.
+     */
+    public static List<WsInGameMessage> readRecords(File dir, String gameId, int from, int to) throws IOException {
+        MessageParser parser = new MessageParser();
+        List<WsInGameMessage> result = new ArrayList<>();
+        int expected = from;
+        for (File f : listSegments(dir, gameId)) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    int recordSeq;
+                    WsInGameMessage msg;
+                    try {
+                        int i = line.indexOf(' ');
+                        recordSeq = Integer.parseInt(line.substring(0, i));
+                        msg = (WsInGameMessage) parser.fromJson(line.substring(i + 1));
+                    } catch (RuntimeException e) {
+                        if (r.readLine() == null) break; //torn write of last record
+                        throw new IOException("Journal of game " + gameId + " is corrupted", e);
+                    }
+                    if (recordSeq < expected) continue;
+                    if (recordSeq >= to) return result;
+                    if (recordSeq != expected) {
+                        throw new IOException("Journal of game " + gameId + " is not continuous at " + expected);
+                    }
+                    result.add(msg);
+                    expected++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<File> listSegments(File dir, final String gameId) {
+        List<File> result = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files == null) return result;
+        for (File f : files) {
+            String name = f.getName();
+            if (name.startsWith(gameId + ".") && name.endsWith(SEGMENT_SUFFIX)) {
+                result.add(f);
+            }
+        }
+        File[] sorted = result.toArray(new File[result.size()]);
+        Arrays.sort(sorted, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return Integer.compare(segmentStart(o1, gameId), segmentStart(o2, gameId));
+            }
+        });
+        return Arrays.asList(sorted);
+    }
+
+    private static int segmentStart(File f, String gameId) {
+        String name = f.getName();
+        return Integer.parseInt(name.substring(gameId.length() + 1, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Rebuilds game from checkpoint and following records.
+     */
+    public static JournalReplay recover(File dir, String gameId) throws IOException {
+        Checkpoint cp = readCheckpoint(dir, gameId);
+        JournalReplay replay = new JournalReplay(cp.getGame(), new Config());
+        for (WsInGameMessage msg : readRecords(dir, gameId, cp.getSeq(), Integer.MAX_VALUE)) {
+            replay.apply(msg);
+        }
+        return replay;
+    }
+}
@@ -0,0 +1,247 @@
+package com.jcloisterzone.wsio.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.transform.TransformerException;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.GameSettings;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.wsio.message.ClientListMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+
+/**
+ * Single game hosted by {@link SimpleServer} - game settings, player slots and connected clients.
+ * Messages are broadcasted to room members only.
+ *
+ * Loaded snapshot is kept serialized, room doesn't hold any game model.
+ *
+ * Room is accessed by connection threads. Members, slots and settings are guarded by room lock,
+ * server holds it while it changes them and while it broadcasts.
+ */
+public class GameRoom {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    static final String HOST_SESSION_PLACEHOLDER = "!host";
+
+    private final GameSettings game;
+    private final ServerPlayerSlot[] slots = new ServerPlayerSlot[PlayerSlot.COUNT];
+    private int slotSerial;
+
+    private String snapshot;
+    private boolean gameStarted;
+
+    private final Map<WebSocket, RemoteClient> members = new HashMap<>(4);
+    private final String hostClientId;
+
+    private GameJournal journal;
+
+    public GameRoom(String gameId, Snapshot snapshot, Game settings, String hostClientId) {
+        this.hostClientId = hostClientId;
+        game = new GameSettings(gameId);
+        if (snapshot != null) {
+            try {
+                this.snapshot = snapshot.saveToString();
+            } catch (TransformerException | IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+            game.getExpansions().addAll(snapshot.getExpansions());
+            game.getCustomRules().addAll(snapshot.getCustomRules());
+            loadSlotsFromSnapshot(snapshot);
+        } else if (settings != null) {
+            game.getExpansions().addAll(settings.getExpansions());
+            game.getCustomRules().addAll(settings.getCustomRules());
+            loadSlotsFromGame(settings);
+        } else {
+            game.getExpansions().add(Expansion.BASIC);
+            for (CustomRule cr : CustomRule.defaultEnabled()) {
+                game.getCustomRules().add(cr);
+            }
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ServerPlayerSlot(i);
+            }
+        }
+    }
+
+    private void loadSlotsFromGame(Game settings) {
+        //Game is game from client since, so we can use isLocalHuman
+        int maxSerial = 0;
+        for (Player player : settings.getAllPlayers()) {
+            int slotNumber = player.getSlot().getNumber();
+            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
+            slots[slotNumber] = slot;
+            boolean isAi = player.getSlot().isAi();
+            if (player.isLocalHuman() || isAi) {
+                slot.setNickname(player.getNick());
+                slot.setOwner(HOST_SESSION_PLACEHOLDER);
+                if (isAi) {
+                    slot.setAiClassName(player.getSlot().getAiClassName());
+                }
+                maxSerial = Math.max(maxSerial, player.getSlot().getSerial());
+                slot.setSerial(player.getSlot().getSerial());
+            }
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                slots[i] = new ServerPlayerSlot(i);
+            }
+        }
+        slotSerial = maxSerial + 1;
+    }
+
+    private void loadSlotsFromSnapshot(Snapshot snapshot) {
+        List<Player> players = snapshot.getPlayers();
+        for (Player player : players) {
+            int slotNumber = player.getSlot().getNumber();
+            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
+            slot.setNickname(player.getNick());
+            slot.setAiClassName(player.getSlot().getAiClassName());
+            if (player.getSlot().getState() == SlotState.OWN || slot.getAiClassName() != null) {
+                slot.setOwner(HOST_SESSION_PLACEHOLDER);
+            }
+            slots[slotNumber] = slot;
+        }
+    }
+
+    public String getGameId() {
+        return game.getGameId();
+    }
+
+    public GameSettings getGame() {
+        return game;
+    }
+
+    public ServerPlayerSlot[] getSlots() {
+        return slots;
+    }
+
+    public synchronized int nextSlotSerial() {
+        return ++slotSerial;
+    }
+
+    /** true if game was loaded from snapshot, slots of loaded game keep its players */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public synchronized boolean isGameStarted() {
+        return gameStarted;
+    }
+
+    public synchronized void setGameStarted(boolean gameStarted) {
+        this.gameStarted = gameStarted;
+    }
+
+    public String getHostClientId() {
+        return hostClientId;
+    }
+
+    /** journal of started game, null if journaling is disabled */
+    public synchronized GameJournal getJournal() {
+        return journal;
+    }
+
+    public synchronized void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /** Deletes journal of finished or abandoned game. */
+    public synchronized void discardJournal() {
+        if (journal != null) {
+            journal.delete();
+            journal = null;
+        }
+    }
+
+    /** Returns members, caller must hold room lock while iterating them. */
+    public Map<WebSocket, RemoteClient> getMembers() {
+        return members;
+    }
+
+    public synchronized boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public synchronized void join(WebSocket ws, RemoteClient client, String clientId) {
+        members.put(ws, client);
+        if (clientId != null && clientId.equals(hostClientId)) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null && HOST_SESSION_PLACEHOLDER.equals(slots[i].getOwner())) {
+                    slots[i].setOwner(client.getSessionId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes client from room, slots of not started game owned by client are released.
+     * @return released slots
+     */
+    public synchronized List<ServerPlayerSlot> leave(WebSocket ws) {
+        List<ServerPlayerSlot> released = new ArrayList<>();
+        RemoteClient client = members.remove(ws);
+        if (client != null && !gameStarted) {
+            for (ServerPlayerSlot slot : slots) {
+                if (slot != null && client.getSessionId().equals(slot.getOwner())) {
+                    leaveSlot(slot);
+                    released.add(slot);
+                }
+            }
+        }
+        return released;
+    }
+
+    public synchronized void leaveSlot(ServerPlayerSlot slot) {
+        if (snapshot == null) {
+            slot.setNickname(null);
+            slot.setAiClassName(null);
+            slot.setSupportedExpansions(null);
+        }
+        slot.setSerial(null);
+        slot.setOwner(null);
+    }
+
+    public synchronized SlotMessage newSlotMessage(ServerPlayerSlot slot) {
+        SlotMessage msg = new SlotMessage(game.getGameId(), slot.getNumber(), slot.getSerial(), slot.getOwner(), slot.getNickname());
+        msg.setAiClassName(slot.getAiClassName());
+        msg.setSupportedExpansions(slot.getSupportedExpansions());
+        return msg;
+    }
+
+    public synchronized GameMessage newGameMessage() {
+        GameSetupMessage gsm = new GameSetupMessage(game.getGameId(), game.getCustomRules(), game.getExpansions(), game.getCapabilityClasses());
+        GameMessage gm = new GameMessage(game.getGameId(), "", gameStarted ? GameState.RUNNING : GameState.OPEN, gsm);
+        List<SlotMessage> slotMsgs = new ArrayList<>();
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null) {
+                SlotMessage sm = newSlotMessage(slot);
+                slotMsgs.add(sm);
+            }
+        }
+        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
+        gm.setSnapshot(snapshot);
+        return gm;
+    }
+
+    public synchronized ClientListMessage newClientListMessage() {
+        RemoteClient[] clients = members.values().toArray(new RemoteClient[members.size()]);
+        return new ClientListMessage(game.getGameId(), clients);
+    }
+}
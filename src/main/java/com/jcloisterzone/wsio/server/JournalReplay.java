@@ -0,0 +1,149 @@
+package com.jcloisterzone.wsio.server;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import javax.xml.transform.TransformerException;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+import com.jcloisterzone.game.phase.LoadGamePhase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.wsio.Connection;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Game model rebuilt from journal. Started game message is applied first, then journaled
+ * messages are applied in same way as remote client does it. There is no user interface,
+ * AI players and no connection - requests made by phases (eg. draw) are ignored, their
+ * results are part of journal.
+ */
+public class JournalReplay extends GameController {
+
+    private final Config config;
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+    private final Connection connection = new ReplayConnection();
+
+    public JournalReplay(GameMessage started, Config config) throws IOException {
+        this(started, started.getSnapshot() == null ? null : new Snapshot(started.getSnapshot()), config);
+    }
+
+    private JournalReplay(GameMessage started, Snapshot snapshot, Config config) {
+        super(null, snapshot == null ? new Game(started.getGameId()) : snapshot.asGame(started.getGameId()));
+        this.config = config;
+        //there is no ui to be notified
+        getGame().getEventBus().unregister(getInvokeInSwingUiAdapter());
+
+        Game game = getGame();
+        CreateGamePhase phase;
+        if (snapshot == null) {
+            game.getExpansions().addAll(started.getGameSetup().getExpansions());
+            game.getCustomRules().addAll(started.getGameSetup().getCustomRules());
+            phase = new CreateGamePhase(game, this);
+        } else {
+            phase = new LoadGamePhase(game, snapshot, this);
+        }
+        PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+        for (SlotMessage slotMsg : started.getSlots()) {
+            PlayerSlot slot = new PlayerSlot(slotMsg.getNumber());
+            slot.setNickname(slotMsg.getNickname());
+            slot.setSerial(slotMsg.getSerial());
+            slot.setAiClassName(slotMsg.getAiClassName());
+            //all players are remote, replay doesn't create AI players
+            slot.setState(slotMsg.getOwner() == null ? SlotState.OPEN : SlotState.REMOTE);
+            slots[slotMsg.getNumber()] = slot;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                slots[i] = new PlayerSlot(i);
+            }
+        }
+        phase.setSlots(slots);
+        game.getPhases().put(phase.getClass(), phase);
+        game.setPhase(phase);
+        phase.startGame();
+        phaseLoop();
+    }
+
+    @Override
+    public Config getConfig() {
+        return config;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        //nobody plays replayed game
+        return null;
+    }
+
+    public void apply(WsInGameMessage msg) {
+        Game game = getGame();
+        if (msg instanceof RmiMessage) {
+            RmiMessage rmi = (RmiMessage) msg;
+            try {
+                dispatcher.dispatchRmi(game.getPhase(), rmi.getMethod(), rmi.getArguments());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        } else if (msg instanceof UndoMessage) {
+            game.undo();
+        } else {
+            dispatcher.dispatch((WsMessage) msg, connection, game.getPhase());
+        }
+        phaseLoop();
+    }
+
+    /**
+     * Returns true if game state can be checkpointed - there is no pending undoable action.
+     * Undo isn't possible after game is loaded from checkpoint.
+     */
+    public boolean isCheckpointSafe() {
+        return !getGame().isUndoAllowed();
+    }
+
+    public Snapshot createSnapshot() {
+        return new Snapshot(getGame());
+    }
+
+    /** Returns started game message describing current game state. */
+    public GameMessage createGameMessage(GameMessage started) throws TransformerException, IOException {
+        GameMessage msg = new GameMessage(started.getGameId(), started.getName(), started.getState(), started.getGameSetup());
+        msg.setChannel(started.getChannel());
+        msg.setSlots(started.getSlots());
+        msg.setSnapshot(createSnapshot().saveToString());
+        return msg;
+    }
+
+    private static class ReplayConnection extends Connection {
+
+        public ReplayConnection() {
+            super(null);
+        }
+
+        @Override
+        public void send(WsMessage msg) {
+            //draws, dice rolls and game over are already journaled or don't affect state
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
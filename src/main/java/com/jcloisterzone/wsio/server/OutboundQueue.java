@@ -0,0 +1,182 @@
+package com.jcloisterzone.wsio.server;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of outgoing frames of single connection. Queue is drained by writer task
+ * running on shared executor, so slow client never blocks message handling. Writer doesn't
+ * pass more frames to socket until previously sent data are flushed, frames of slow client
+ * accumulate in queue and {@link SlowConsumerPolicy} is applied when queue is full.
+ */
+public class OutboundQueue implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    /** close code of policy violation (RFC 6455) */
+    static final int CLOSE_POLICY_VIOLATION = 1008;
+    /** max frames written in one writer run, other connections get their turn then */
+    private static final int BATCH_SIZE = 16;
+    /** delay before next write attempt when socket still has buffered data */
+    private static final long RETRY_DELAY_MS = 20;
+
+    public enum SlowConsumerPolicy {
+        /** droppable frames are discarded when queue is full, connection is closed if other frame doesn't fit */
+        DROP,
+        /** queued frames are replaced by newer frame with same coalesce key, connection is closed if it doesn't help */
+        COALESCE,
+        /** connection is closed when queue is full */
+        DISCONNECT
+    }
+
+    /** Serialized message, single instance is shared by all recipients. */
+    public static final class Frame {
+        private final String payload;
+        private final String coalesceKey;
+        private final boolean droppable;
+
+        public Frame(String payload, String coalesceKey) {
+            this(payload, coalesceKey, false);
+        }
+
+        public Frame(String payload, String coalesceKey, boolean droppable) {
+            this.payload = payload;
+            this.coalesceKey = coalesceKey;
+            this.droppable = droppable;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        /** frames with equal key carry state, newer frame supersedes older one */
+        public String getCoalesceKey() {
+            return coalesceKey;
+        }
+
+        /** frame can be lost without breaking client state (eg. chat), other frames are never dropped */
+        public boolean isDroppable() {
+            return droppable;
+        }
+    }
+
+    private final WebSocket ws;
+    private final ScheduledExecutorService executor;
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean closed;
+    private int dropped;
+
+    public OutboundQueue(WebSocket ws, ScheduledExecutorService executor, int capacity, SlowConsumerPolicy policy) {
+        this.ws = ws;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Adds frame to queue and schedules writer.
+     * @return false if frame was discarded or connection closed by slow consumer policy
+     */
+    public boolean offer(Frame frame) {
+        synchronized (this) {
+            if (closed) return false;
+            if (policy == SlowConsumerPolicy.COALESCE && frame.getCoalesceKey() != null) {
+                Iterator<Frame> iter = frames.iterator();
+                while (iter.hasNext()) {
+                    if (frame.getCoalesceKey().equals(iter.next().getCoalesceKey())) {
+                        iter.remove();
+                    }
+                }
+            }
+            if (frames.size() >= capacity && policy == SlowConsumerPolicy.DROP && !frame.isDroppable()) {
+                //make room by discarding queued frame which can be lost
+                Iterator<Frame> iter = frames.iterator();
+                while (iter.hasNext()) {
+                    if (iter.next().isDroppable()) {
+                        iter.remove();
+                        dropped++;
+                        break;
+                    }
+                }
+            }
+            if (frames.size() < capacity) {
+                frames.add(frame);
+                if (!scheduled) {
+                    scheduled = true;
+                    executor.execute(this);
+                }
+                return true;
+            }
+            if (policy == SlowConsumerPolicy.DROP && frame.isDroppable()) {
+                dropped++;
+                return false;
+            }
+            closed = true;
+            frames.clear();
+        }
+        logger.warn("Closing slow connection {}, {} frames queued", ws.getRemoteSocketAddress(), capacity);
+        ws.close(CLOSE_POLICY_VIOLATION, "Slow consumer");
+        return false;
+    }
+
+    /** Discards queued frames, writer stops. */
+    public synchronized void close() {
+        closed = true;
+        frames.clear();
+    }
+
+    public synchronized int size() {
+        return frames.size();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public synchronized int getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            synchronized (this) {
+                if (closed) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            if (ws.hasBufferedData()) {
+                //socket is not flushed yet, don't buffer more data in it
+                executor.schedule(this, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+                return;
+            }
+            Frame frame;
+            synchronized (this) {
+                frame = closed ? null : frames.poll();
+                if (frame == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                ws.send(frame.getPayload());
+            } catch (RuntimeException e) {
+                logger.debug("Sending to closed connection", e);
+                close();
+                return;
+            }
+        }
+        executor.execute(this);
+    }
+}
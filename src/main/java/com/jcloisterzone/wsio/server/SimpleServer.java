@@ -1,15 +1,20 @@
 package com.jcloisterzone.wsio.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-
-import javax.xml.transform.TransformerException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
@@ -20,28 +25,27 @@ import org.slf4j.LoggerFactory;
 import com.jcloisterzone.Application;
 import com.jcloisterzone.Expansion;
 import com.jcloisterzone.KeyUtils;
-import com.jcloisterzone.Player;
 import com.jcloisterzone.VersionComparator;
 import com.jcloisterzone.config.ConfigLoader;
 import com.jcloisterzone.game.CustomRule;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.GameSettings;
-import com.jcloisterzone.game.PlayerSlot;
-import com.jcloisterzone.game.PlayerSlot.SlotState;
 import com.jcloisterzone.game.Snapshot;
 import com.jcloisterzone.wsio.MessageDispatcher;
 import com.jcloisterzone.wsio.MessageParser;
 import com.jcloisterzone.wsio.WsSubscribe;
 import com.jcloisterzone.wsio.message.ChatMessage;
 import com.jcloisterzone.wsio.message.ClientListMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
 import com.jcloisterzone.wsio.message.DrawMessage;
 import com.jcloisterzone.wsio.message.ErrorMessage;
 import com.jcloisterzone.wsio.message.FlierDiceMessage;
 import com.jcloisterzone.wsio.message.GameMessage;
-import com.jcloisterzone.wsio.message.GameMessage.GameState;
 import com.jcloisterzone.wsio.message.GameOverMessage;
 import com.jcloisterzone.wsio.message.GameSetupMessage;
 import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
+import com.jcloisterzone.wsio.message.LeaveGameMessage;
 import com.jcloisterzone.wsio.message.LeaveSlotMessage;
 import com.jcloisterzone.wsio.message.MakeDrawMessage;
 import com.jcloisterzone.wsio.message.PostChatMessage;
@@ -54,28 +58,48 @@ import com.jcloisterzone.wsio.message.StartGameMessage;
 import com.jcloisterzone.wsio.message.TakeSlotMessage;
 import com.jcloisterzone.wsio.message.UndoMessage;
 import com.jcloisterzone.wsio.message.WelcomeMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
 import com.jcloisterzone.wsio.message.WsMessage;
-
+import com.jcloisterzone.wsio.server.OutboundQueue.Frame;
+import com.jcloisterzone.wsio.server.OutboundQueue.SlowConsumerPolicy;
+
+/**
+ * Websocket game server. By default server hosts single game created by {@link #createGame(Snapshot, Game, String)}
+ * and every connected client joins it. In multi game mode clients create and join games
+ * by {@link CreateGameMessage} and {@link JoinGameMessage}, each game is isolated in own {@link GameRoom}.
+ */
 public class SimpleServer extends WebSocketServer  {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
-    private String HOST_SESSION_PLACEHOLDER = "!host";
+    public static final int DEFAULT_OUTBOUND_CAPACITY = 256;
 
     private final SimpleServerErrorHandler errHandler;
 
     private MessageParser parser = new MessageParser();
     private MessageDispatcher dispatcher = new MessageDispatcher();
 
-    private GameSettings game;
-    protected final ServerPlayerSlot[] slots;
-    protected int slotSerial;
+    /** hosted games by game id */
+    protected final Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
+    /** game joined by every client in single game mode, null in multi game mode */
+    protected GameRoom defaultRoom;
 
-    private Snapshot snapshot;
-    private boolean gameStarted;
+    protected final Map<WebSocket, RemoteClient> connections = new ConcurrentHashMap<>();
+    protected final Map<WebSocket, GameRoom> clientRooms = new ConcurrentHashMap<>();
+    protected final Map<WebSocket, String> clientIds = new ConcurrentHashMap<>();
+    /** clients connected with legacy protocol, they receive RMI arguments Java serialized */
+    protected final Set<WebSocket> legacyClients = Collections.newSetFromMap(new ConcurrentHashMap<WebSocket, Boolean>());
 
-    protected final Map<WebSocket, RemoteClient> connections = new HashMap<>();
-    private String hostClientId;
+    /** outgoing messages, each connection has own bounded queue drained by writers pool */
+    private final Map<WebSocket, OutboundQueue> outbound = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writers;
+    private int outboundCapacity = DEFAULT_OUTBOUND_CAPACITY;
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.COALESCE;
+
+    /** directory of game journals, null if journaling is disabled */
+    private File journalDir;
+    private int checkpointInterval = GameJournal.DEFAULT_CHECKPOINT_INTERVAL;
+    private ExecutorService checkpointer;
 
     private Random random = new Random();
 
@@ -84,91 +108,177 @@ public class SimpleServer extends WebSocketServer  {
     }
 
     public SimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler) {
+        this(address, errHandler, Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "SimpleServer-writer");
+                t.setDaemon(true);
+                return t;
+            }
+        }));
+    }
+
+    /** @param writers executor draining outbound queues */
+    SimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler, ScheduledExecutorService writers) {
         super(address);
         this.errHandler = errHandler;
-        slots = new ServerPlayerSlot[PlayerSlot.COUNT];
+        this.writers = writers;
     }
 
-    public void createGame(Snapshot snapshot, Game settings, String hostClientId) {
-        slotSerial = 0;
-        gameStarted = false;
-        this.snapshot = null;
-        this.hostClientId = hostClientId;
-        game = new GameSettings(KeyUtils.createRandomId());
-        if (snapshot != null) {
-            this.snapshot =  snapshot;
-            game.getExpansions().addAll(snapshot.getExpansions());
-            game.getCustomRules().addAll(snapshot.getCustomRules());
-            loadSlotsFromSnapshot();
-        } else if (settings != null) {
-            game.getExpansions().addAll(settings.getExpansions());
-            game.getCustomRules().addAll(settings.getCustomRules());
-            loadSlotsFromGame(settings);
-        } else {
-            game.getExpansions().add(Expansion.BASIC);
-            for (CustomRule cr : CustomRule.defaultEnabled()) {
-                game.getCustomRules().add(cr);
-            }
-            for (int i = 0; i < slots.length; i++) {
-                slots[i] = new ServerPlayerSlot(i);
-            }
-        }
+    /** max count of messages queued for single client */
+    public void setOutboundCapacity(int outboundCapacity) {
+        this.outboundCapacity = outboundCapacity;
     }
 
-    private void loadSlotsFromGame(Game settings) {
-        //Game is game from client since, so we can use isLocalHuman
-        int maxSerial = 0;
-        for (Player player : settings.getAllPlayers()) {
-            int slotNumber = player.getSlot().getNumber();
-            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
-            slots[slotNumber] = slot;
-            boolean isAi = player.getSlot().isAi();
-            if (player.isLocalHuman() || isAi) {
-                slot.setNickname(player.getNick());
-                slot.setOwner(HOST_SESSION_PLACEHOLDER);
-                if (isAi) {
-                    slot.setAiClassName(player.getSlot().getAiClassName());
+    /** what to do with client which doesn't read messages fast enough */
+    public void setSlowConsumerPolicy(SlowConsumerPolicy slowConsumerPolicy) {
+        this.slowConsumerPolicy = slowConsumerPolicy;
+    }
+
+    /**
+     * Enables journaling of started games, they can be recovered by {@link #recoverGames()} after server restart.
+     * @param checkpointInterval count of journal records between checkpoints
+     */
+    public void setJournal(File journalDir, int checkpointInterval) {
+        this.journalDir = journalDir;
+        this.checkpointInterval = checkpointInterval;
+        if (checkpointer == null) {
+            checkpointer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "SimpleServer-checkpoint");
+                    t.setDaemon(true);
+                    return t;
                 }
-                maxSerial = Math.max(maxSerial, player.getSlot().getSerial());
-                slot.setSerial(player.getSlot().getSerial());
+            });
+        }
+    }
+
+    /**
+     * Recreates games from journals. Recovered games are not started, they are hosted as loaded
+     * games with same game id and clients start them again. Journal stays attached to recovered
+     * room, so it is discarded with abandoned room and replaced when game is started again.
+     */
+    public List<GameRoom> recoverGames() {
+        List<GameRoom> recovered = new ArrayList<>();
+        if (journalDir == null) return recovered;
+        for (String gameId : GameJournal.listGames(journalDir)) {
+            try {
+                String hostClientId = GameJournal.readCheckpoint(journalDir, gameId).getHostClientId();
+                Snapshot snapshot = GameJournal.recover(journalDir, gameId).createSnapshot();
+                GameRoom room = new GameRoom(gameId, snapshot, null, hostClientId);
+                room.setJournal(GameJournal.open(journalDir, gameId, checkpointInterval, checkpointer));
+                rooms.put(gameId, room);
+                recovered.add(room);
+                logger.info("Game {} recovered from journal.", gameId);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Unable to recover game " + gameId, e);
             }
         }
-        for (int i = 0; i < slots.length; i++) {
-            if (slots[i] == null) {
-                slots[i] = new ServerPlayerSlot(i);
+        return recovered;
+    }
+
+    @Override
+    public void stop() throws IOException, InterruptedException {
+        super.stop();
+        writers.shutdownNow();
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+        }
+        for (GameRoom room : rooms.values()) {
+            if (room.getJournal() != null) {
+                room.getJournal().close(); //keep journal for recovery
             }
         }
-        slotSerial = maxSerial + 1;
     }
 
-    private void loadSlotsFromSnapshot() {
-        List<Player> players = snapshot.getPlayers();
-        for (Player player : players) {
-            int slotNumber = player.getSlot().getNumber();
-            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
-            slot.setNickname(player.getNick());
-            slot.setAiClassName(player.getSlot().getAiClassName());
-            if (player.getSlot().getState() == SlotState.OWN || slot.getAiClassName() != null) {
-                slot.setOwner(HOST_SESSION_PLACEHOLDER);
+    /**
+     * Creates game joined by all clients (single game mode).
+     */
+    public void createGame(Snapshot snapshot, Game settings, String hostClientId) {
+        if (defaultRoom != null) {
+            rooms.remove(defaultRoom.getGameId());
+            defaultRoom.discardJournal();
+        }
+        defaultRoom = createRoom(snapshot, settings, hostClientId);
+    }
+
+    protected GameRoom createRoom(Snapshot snapshot, Game settings, String hostClientId) {
+        GameRoom room = new GameRoom(KeyUtils.createRandomId(), snapshot, settings, hostClientId);
+        rooms.put(room.getGameId(), room);
+        return room;
+    }
+
+    protected void removeRoom(GameRoom room) {
+        synchronized (room) {
+            rooms.remove(room.getGameId());
+            room.discardJournal();
+            for (WebSocket ws : room.getMembers().keySet()) {
+                clientRooms.remove(ws);
             }
-            slots[slotNumber] = slot;
         }
     }
 
+    public boolean isMultiGame() {
+        return defaultRoom == null;
+    }
+
+    public GameRoom getRoom(String gameId) {
+        return gameId == null ? null : rooms.get(gameId);
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /** returns room of message game id, client must be room member */
+    private GameRoom getRoom(WebSocket ws, WsInGameMessage msg) {
+        GameRoom room = getRoom(msg.getGameId());
+        if (room == null || clientRooms.get(ws) != room) throw new IllegalArgumentException("Invalid game id.");
+        return room;
+    }
+
+    private void joinRoom(WebSocket ws, GameRoom room) {
+        RemoteClient client = getClient(ws);
+        leaveRoom(ws);
+        synchronized (room) {
+            //room could be removed by its last member meanwhile
+            if (rooms.get(room.getGameId()) != room) throw new IllegalArgumentException("Invalid game id.");
+            room.join(ws, client, clientIds.get(ws));
+            clientRooms.put(ws, room);
+            send(ws, room.newGameMessage());
+            broadcast(room, room.newClientListMessage());
+        }
+    }
+
+    private void leaveRoom(WebSocket ws) {
+        GameRoom room = clientRooms.remove(ws);
+        if (room == null) return;
+        synchronized (room) {
+            for (ServerPlayerSlot slot : room.leave(ws)) {
+                broadcast(room, room.newSlotMessage(slot));
+            }
+            if (room != defaultRoom && room.isEmpty()) {
+                rooms.remove(room.getGameId());
+                room.discardJournal();
+            } else {
+                broadcast(room, room.newClientListMessage());
+            }
+        }
+    }
 
     @Override
     public void onClose(WebSocket ws, int code, String reason, boolean remote) {
-        if (!remote) return;
+        OutboundQueue queue = outbound.remove(ws);
+        if (queue != null) {
+            queue.close();
+        }
+        //connections closed by server (slow consumer, game over) must release their rooms too
         RemoteClient conn = connections.remove(ws);
+        clientIds.remove(ws);
+        legacyClients.remove(ws);
         if (conn == null) return;
-        if (!gameStarted) {
-            for (ServerPlayerSlot slot : slots) {
-                if (slot != null && conn.getSessionId().equals(slot.getOwner())) {
-                    leaveSlot(slot);
-                }
-            }
-        }
-        broadcast(newClientListMessage());
+        leaveRoom(ws);
     }
 
     @Override
@@ -185,43 +295,18 @@ public class SimpleServer extends WebSocketServer  {
 
     @Override
     public void onOpen(WebSocket ws, ClientHandshake hs) {
+        outbound.put(ws, new OutboundQueue(ws, writers, outboundCapacity, slowConsumerPolicy));
     }
 
-    private String getSessionId(WebSocket ws) {
-        return connections.get(ws).getSessionId();
-    }
-
-    private SlotMessage newSlotMessage(ServerPlayerSlot slot) {
-        SlotMessage msg = new SlotMessage(game.getGameId(), slot.getNumber(), slot.getSerial(), slot.getOwner(), slot.getNickname());
-        msg.setAiClassName(slot.getAiClassName());
-        msg.setSupportedExpansions(slot.getSupportedExpansions());
-        return msg;
-    }
-
-    private GameMessage newGameMessage() {
-        GameSetupMessage gsm = new GameSetupMessage(game.getGameId(), game.getCustomRules(), game.getExpansions(), game.getCapabilityClasses());
-        GameMessage gm = new GameMessage(game.getGameId(), "", gameStarted ? GameState.RUNNING : GameState.OPEN, gsm);
-        List<SlotMessage> slotMsgs = new ArrayList<>();
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null) {
-                SlotMessage sm = newSlotMessage(slot);
-                slotMsgs.add(sm);
-            }
-        }
-        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
-        if (snapshot != null) {
-            try {
-                gm.setSnapshot(snapshot.saveToString());
-            } catch (TransformerException | IOException e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
-        return gm;
+    /** returns client which already introduced itself by hello message */
+    private RemoteClient getClient(WebSocket ws) {
+        RemoteClient client = connections.get(ws);
+        if (client == null) throw new IllegalArgumentException("Hello message expected.");
+        return client;
     }
 
-    private ClientListMessage newClientListMessage() {
-        RemoteClient[] clients = connections.values().toArray(new RemoteClient[connections.size()]);
-        return new ClientListMessage(game.getGameId(), clients);
+    private String getSessionId(WebSocket ws) {
+        return getClient(ws).getSessionId();
     }
 
     private String getWebsocketHost(WebSocket ws) {
@@ -231,188 +316,300 @@ public class SimpleServer extends WebSocketServer  {
 
     @WsSubscribe
     public void handleHello(WebSocket ws, HelloMessage msg) {
-        if (new VersionComparator().compare(Application.PROTCOL_VERSION, msg.getProtocolVersion()) != 0) {
-            send(ws, new ErrorMessage(ErrorMessage.BAD_VERSION, "Protocol version " + Application.PROTCOL_VERSION + " required."));
+        boolean legacy = Application.LEGACY_PROTOCOL_VERSION.equals(msg.getProtocolVersion());
+        if (!legacy && new VersionComparator().compare(Application.PROTCOL_VERSION, msg.getProtocolVersion()) != 0) {
+            //sent directly, connection is closed immediately
+            ws.send(parser.toJson(new ErrorMessage(ErrorMessage.BAD_VERSION, "Protocol version " + Application.PROTCOL_VERSION + " required.")));
             ws.close();
             return;
         }
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        if (defaultRoom != null && defaultRoom.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
         String nickname = msg.getNickname() + '@' + getWebsocketHost(ws);
         String sessionId = KeyUtils.createRandomId();
         RemoteClient client = new RemoteClient(sessionId, nickname);
         connections.put(ws, client);
-        if (msg.getClientId().equals(hostClientId)) {
-            for (int i = 0; i < slots.length; i++) {
-                if (slots[i] != null && HOST_SESSION_PLACEHOLDER.equals(slots[i].getOwner())) {
-                    slots[i].setOwner(sessionId);
-                }
-            }
+        if (legacy) {
+            legacyClients.add(ws);
+        }
+        if (msg.getClientId() != null) {
+            clientIds.put(ws, msg.getClientId());
         }
 
         send(ws, new WelcomeMessage(sessionId, nickname));
-        send(ws, newGameMessage());
-        broadcast(newClientListMessage());
+        if (defaultRoom != null) {
+            joinRoom(ws, defaultRoom);
+        }
     }
 
+    @WsSubscribe
+    public void handleCreateGame(WebSocket ws, CreateGameMessage msg) {
+        if (!isMultiGame()) throw new IllegalArgumentException("Server hosts single game only.");
+        getClient(ws);
+        joinRoom(ws, createRoom(null, null, null));
+    }
 
     @WsSubscribe
-    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        game.getExpansions().clear();
-        game.getExpansions().addAll(msg.getExpansions());
-        game.getCustomRules().clear();
-        game.getCustomRules().addAll(msg.getCustomRules());
-        broadcast(msg);
+    public void handleJoinGame(WebSocket ws, JoinGameMessage msg) {
+        getClient(ws);
+        GameRoom room = getRoom(msg.getGameId());
+        if (room == null) throw new IllegalArgumentException("Invalid game id.");
+        if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+        joinRoom(ws, room);
     }
 
+    @WsSubscribe
+    public void handleLeaveGame(WebSocket ws, LeaveGameMessage msg) {
+        getRoom(ws, msg);
+        leaveRoom(ws);
+    }
 
     @WsSubscribe
-    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        String sessionId = getSessionId(ws);
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
-            return;
-        }
-        ServerPlayerSlot slot = slots[number];
-        if (!slot.isOccupied()) {
-            slot.setSerial(++slotSerial);
+    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            GameSettings game = room.getGame();
+            game.getExpansions().clear();
+            game.getExpansions().addAll(msg.getExpansions());
+            game.getCustomRules().clear();
+            game.getCustomRules().addAll(msg.getCustomRules());
+            broadcast(room, msg);
         }
-        slot.setNickname(msg.getNickname());
-        slot.setAiClassName(msg.getAiClassName());
-        slot.setOwner(sessionId);
-        slot.setSupportedExpansions(msg.getSupportedExpansions());
-        broadcast(newSlotMessage(slot));
     }
 
-    private void leaveSlot(ServerPlayerSlot slot) {
-        if (snapshot == null) {
-            slot.setNickname(null);
-            slot.setAiClassName(null);
-            slot.setSupportedExpansions(null);
+
+    @WsSubscribe
+    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            String sessionId = getSessionId(ws);
+            ServerPlayerSlot[] slots = room.getSlots();
+            int number = msg.getNumber();
+            if (number < 0 || number >= slots.length || slots[number] == null) {
+                send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
+                return;
+            }
+            ServerPlayerSlot slot = slots[number];
+            if (!slot.isOccupied()) {
+                slot.setSerial(room.nextSlotSerial());
+            }
+            slot.setNickname(msg.getNickname());
+            slot.setAiClassName(msg.getAiClassName());
+            slot.setOwner(sessionId);
+            slot.setSupportedExpansions(msg.getSupportedExpansions());
+            broadcast(room, room.newSlotMessage(slot));
         }
-        slot.setSerial(null);
-        slot.setOwner(null);
-        broadcast(newSlotMessage(slot));
     }
 
     @WsSubscribe
     public void handleLeaveSlot(WebSocket ws, LeaveSlotMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
-            return;
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            ServerPlayerSlot[] slots = room.getSlots();
+            int number = msg.getNumber();
+            if (number < 0 || number >= slots.length || slots[number] == null) {
+                send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
+                return;
 
+            }
+            ServerPlayerSlot slot = slots[number];
+            room.leaveSlot(slot);
+            broadcast(room, room.newSlotMessage(slot));
         }
-        ServerPlayerSlot slot = slots[number];
-        leaveSlot(slot);
     }
 
     @WsSubscribe
     public void handleSetExpansion(WebSocket ws, SetExpansionMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        Expansion expansion = msg.getExpansion();
-        if (!expansion.isImplemented() || expansion == Expansion.BASIC) {
-            logger.error("Invalid expansion {}", expansion);
-            return;
-        }
-        if (msg.isEnabled()) {
-            game.getExpansions().add(msg.getExpansion());
-        } else {
-            game.getExpansions().remove(msg.getExpansion());
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            Expansion expansion = msg.getExpansion();
+            if (!expansion.isImplemented() || expansion == Expansion.BASIC) {
+                logger.error("Invalid expansion {}", expansion);
+                return;
+            }
+            if (msg.isEnabled()) {
+                room.getGame().getExpansions().add(msg.getExpansion());
+            } else {
+                room.getGame().getExpansions().remove(msg.getExpansion());
+            }
+            broadcast(room, msg);
         }
-        broadcast(msg);
     }
 
     @WsSubscribe
     public void handleSetRule(WebSocket ws, SetRuleMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        CustomRule rule = msg.getRule();
-        if (msg.isEnabled()) {
-            game.getCustomRules().add(rule);
-        } else {
-            game.getCustomRules().remove(rule);
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            CustomRule rule = msg.getRule();
+            if (msg.isEnabled()) {
+                room.getGame().getCustomRules().add(rule);
+            } else {
+                room.getGame().getCustomRules().remove(rule);
+            }
+            broadcast(room, msg);
         }
-        broadcast(msg);
     }
 
     @WsSubscribe
     public void handleStartGame(WebSocket ws, StartGameMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        if (snapshot == null) {
-            for (ServerPlayerSlot slot : slots) {
-                if (!slot.isOccupied()) continue;
-                if (slot.getSupportedExpansions() != null) {
-                    game.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (room.isGameStarted()) throw new IllegalArgumentException("Game is already started.");
+            GameSettings game = room.getGame();
+            if (!room.isLoaded()) {
+                for (ServerPlayerSlot slot : room.getSlots()) {
+                    if (!slot.isOccupied()) continue;
+                    if (slot.getSupportedExpansions() != null) {
+                        game.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
+                    }
+
+                    if (game.hasRule(CustomRule.RANDOM_SEATING_ORDER)) {
+                        slot.setSerial(random.nextInt());
+                    }
                 }
-
-                if (game.hasRule(CustomRule.RANDOM_SEATING_ORDER)) {
-                    slot.setSerial(random.nextInt());
+            }
+            room.setGameStarted(true);
+            GameMessage started = room.newGameMessage();
+            broadcast(room, started);
+            if (journalDir != null) {
+                if (room.getJournal() != null) {
+                    room.getJournal().close(); //journal of recovered game, replaced by new one
+                }
+                try {
+                    room.setJournal(GameJournal.create(journalDir, started, room.getHostClientId(), checkpointInterval, checkpointer));
+                } catch (IOException e) {
+                    logger.error("Unable to create journal of game " + room.getGameId(), e);
                 }
             }
         }
-        gameStarted = true;
-        broadcast(newGameMessage());
+    }
+
+    /** appends message changing game state to game journal */
+    private void record(GameRoom room, WsInGameMessage msg) {
+        GameJournal journal = room.getJournal();
+        if (journal == null) return;
+        try {
+            journal.append(msg);
+        } catch (IOException e) {
+            logger.error("Journal of game " + room.getGameId() + " failed, journaling is stopped", e);
+            journal.close();
+            room.setJournal(null);
+        }
     }
 
     @WsSubscribe
     public void handleMakeDraw(WebSocket ws, MakeDrawMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        int[] result = new int[msg.getK()];
-        int n = msg.getPackSize();
-        for (int i = 0; i < msg.getK(); i++) {
-            result[i] = random.nextInt(n--);
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (!room.isGameStarted()) throw new IllegalArgumentException("Game is not started.");
+            int[] result = new int[msg.getK()];
+            int n = msg.getPackSize();
+            for (int i = 0; i < msg.getK(); i++) {
+                result[i] = random.nextInt(n--);
+            }
+            DrawMessage draw = new DrawMessage(msg.getGameId(), msg.getPackSize(), result);
+            record(room, draw);
+            broadcast(room, draw);
         }
-        broadcast(new DrawMessage(msg.getGameId(), msg.getPackSize(), result));
     }
 
     @WsSubscribe
     public void handleRollFlierDice(WebSocket ws, RollFlierDiceMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        broadcast(new FlierDiceMessage(msg.getGameId(),msg.getMeepleType(), 1+random.nextInt(3)));
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (!room.isGameStarted()) throw new IllegalArgumentException("Game is not started.");
+            FlierDiceMessage dice = new FlierDiceMessage(msg.getGameId(),msg.getMeepleType(), 1+random.nextInt(3));
+            record(room, dice);
+            broadcast(room, dice);
+        }
     }
 
     @WsSubscribe
     public void handleRmi(WebSocket ws, RmiMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        broadcast(msg);
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (!room.isGameStarted()) throw new IllegalArgumentException("Game is not started.");
+            record(room, msg);
+            Frame frame = createFrame(msg);
+            Frame legacyFrame = null;
+            for (WebSocket member : room.getMembers().keySet()) {
+                if (legacyClients.contains(member)) {
+                    if (legacyFrame == null) {
+                        legacyFrame = createFrame(msg.toLegacy());
+                    }
+                    enqueue(member, legacyFrame);
+                } else {
+                    enqueue(member, frame);
+                }
+            }
+        }
     }
 
     @WsSubscribe
     public void handleUndo(WebSocket ws, UndoMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        broadcast(msg);
+        GameRoom room = getRoom(ws, msg);
+        synchronized (room) {
+            if (!room.isGameStarted()) throw new IllegalArgumentException("Game is not started.");
+            record(room, msg);
+            broadcast(room, msg);
+        }
     }
 
     @WsSubscribe
     public void handlePostChat(WebSocket ws, PostChatMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
+        GameRoom room = getRoom(ws, msg);
         String sessionId = getSessionId(ws);
         ChatMessage reMsg = new ChatMessage(sessionId, msg.getText());
         reMsg.setGameId(msg.getGameId());
-        broadcast(reMsg);
+        broadcast(room, reMsg);
+    }
+
+    /**
+     * Serializes message. Client list, slot and game setup messages carry whole state
+     * of its subject, they get coalesce key. Chat and client list can be dropped for slow client,
+     * client list is resent on next change.
+     */
+    protected Frame createFrame(WsMessage message) {
+        String key = null;
+        if (message instanceof ChatMessage) {
+            return new Frame(parser.toJson(message), null, true);
+        }
+        if (message instanceof ClientListMessage) {
+            return new Frame(parser.toJson(message), "CLIENTS", true);
+        }
+        if (message instanceof SlotMessage) {
+            key = "SLOT " + ((SlotMessage) message).getNumber();
+        } else if (message instanceof GameSetupMessage) {
+            key = "SETUP";
+        }
+        return new Frame(parser.toJson(message), key);
+    }
+
+    private void enqueue(WebSocket ws, Frame frame) {
+        OutboundQueue queue = outbound.get(ws);
+        if (queue != null) {
+            queue.offer(frame);
+        }
     }
 
     public void send(WebSocket ws, WsMessage message) {
-        ws.send(parser.toJson(message));
+        enqueue(ws, createFrame(message));
     }
 
-    public void broadcast(WsMessage data) {
-        String payload = parser.toJson(data);
-        for (WebSocket ws : connections.keySet()) {
-            ws.send(payload);
+    /**
+     * Sends message to all members of given game, message is serialized once.
+     * Room is locked, so concurrent broadcasts reach all members in same order.
+     */
+    public void broadcast(GameRoom room, WsMessage data) {
+        Frame frame = createFrame(data);
+        synchronized (room) {
+            for (WebSocket ws : room.getMembers().keySet()) {
+                enqueue(ws, frame);
+            }
         }
     }
 
@@ -424,12 +621,27 @@ public class SimpleServer extends WebSocketServer  {
 
         @WsSubscribe
         public void handleStandaloneGameOver(WebSocket ws, GameOverMessage msg) {
-            for (WebSocket conn : connections.keySet()) {
-                conn.close();
+            GameRoom room = getRoom(msg.getGameId());
+            if (room == null || clientRooms.get(ws) != room) return;
+            if (isMultiGame()) {
+                //members stay connected and can create or join another game
+                removeRoom(room);
+                logger.info("Game {} finished.", room.getGameId());
+            } else {
+                List<WebSocket> members;
+                synchronized (room) {
+                    members = new ArrayList<>(room.getMembers().keySet());
+                }
+                for (WebSocket conn : members) {
+                    conn.close();
+                }
+                removeRoom(room);
+                connections.clear();
+                clientIds.clear();
+                legacyClients.clear();
+                createGame(null, null, null);
+                logger.info("Game finished. Starting a new one.");
             }
-            connections.clear();
-            createGame(null, null, null);
-            logger.info("Game finished. Starting a new one.");
         }
     }
 
@@ -446,8 +658,35 @@ public class SimpleServer extends WebSocketServer  {
                 logger.error(ex.getMessage(), ex);
             }
         });
-        server.createGame(null, null, null);
+        boolean multiGame = Boolean.getBoolean("multiGame");
+        String journalDir = System.getProperty("journalDir");
+        List<GameRoom> recovered = Collections.emptyList();
+        if (journalDir != null && journalDir.length() > 0) {
+            File dir = new File(journalDir);
+            dir.mkdirs();
+            server.setJournal(dir, Integer.getInteger("checkpointInterval", GameJournal.DEFAULT_CHECKPOINT_INTERVAL));
+            recovered = server.recoverGames();
+        }
+        if (!multiGame) {
+            if (recovered.size() > 1) {
+                for (GameRoom room : recovered) {
+                    room.getJournal().close();
+                }
+                logger.error("{} interrupted games found in {}, single game mode can resume only one. Start server with -DmultiGame=true to resume all of them.", recovered.size(), journalDir);
+                return;
+            }
+            if (recovered.isEmpty()) {
+                server.createGame(null, null, null);
+            } else {
+                server.defaultRoom = recovered.get(0);
+            }
+        }
+        server.setOutboundCapacity(Integer.getInteger("outboundCapacity", DEFAULT_OUTBOUND_CAPACITY));
+        String policy = System.getProperty("slowConsumerPolicy");
+        if (policy != null) {
+            server.setSlowConsumerPolicy(SlowConsumerPolicy.valueOf(policy.toUpperCase()));
+        }
         server.start();
-        logger.info("Simple server started on port {}", port);
+        logger.info("Simple server started on port {}{}", port, multiGame ? " (multi game mode)" : "");
     }
 }
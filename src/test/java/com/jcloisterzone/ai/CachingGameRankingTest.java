@@ -0,0 +1,53 @@
+package com.jcloisterzone.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.ai.legacyplayer.LegacyRanking;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.game.StateHash;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+
+public class CachingGameRankingTest extends AbstractIntegrationTest {
+
+    @Test
+    public void cachedSearchMatchesUncached() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        RankingAiPlayer ai = createAiPlayer(game, new LegacyAiPlayer());
+
+        long hash = StateHash.hash(game);
+        CachingGameRanking cached = new CachingGameRanking(new LegacyRanking(ai));
+        String uncachedChain = new SelectActionTask(ai, ev, new LegacyRanking(ai), null).search().chainToString();
+        String cachedChain = new SelectActionTask(ai, ev, cached, null).search().chainToString();
+
+        assertEquals(uncachedChain, cachedChain);
+        assertTrue(cached.getMisses() > 0);
+        //search restores game state
+        assertEquals(hash, StateHash.hash(game));
+    }
+
+    @Test
+    public void bridgeChangesHash() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        game.getCapabilities().add(new BridgeCapability(game));
+        long hash = StateHash.hash(game);
+
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Location loc : new Location[] { Location.NS, Location.WE }) {
+                if (tile.isBridgeAllowed(loc)) {
+                    tile.placeBridge(loc);
+                    assertTrue(hash != StateHash.hash(game));
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("Tile allowing bridge expected");
+    }
+}
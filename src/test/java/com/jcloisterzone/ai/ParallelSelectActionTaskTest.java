@@ -0,0 +1,40 @@
+package com.jcloisterzone.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+
+public class ParallelSelectActionTaskTest extends AbstractIntegrationTest {
+
+    @Test
+    public void parallelSearchMatchesSequential() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        RankingAiPlayer ai = createAiPlayer(game, new LegacyAiPlayer());
+
+        AiChoice sequential = new SelectActionTask(ai, ev).search();
+        AiChoice parallel = new ParallelSelectActionTask(ai, ev, 4).search();
+
+        assertNotNull(sequential);
+        assertNotNull(parallel);
+        assertEquals(sequential.chainToString(), parallel.chainToString());
+    }
+
+    @Test
+    public void parallelSearchIsDeterministic() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        RankingAiPlayer ai = createAiPlayer(game, new LegacyAiPlayer());
+
+        String first = new ParallelSelectActionTask(ai, ev, 3).search().chainToString();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(first, new ParallelSelectActionTask(ai, ev, 3).search().chainToString());
+        }
+    }
+}
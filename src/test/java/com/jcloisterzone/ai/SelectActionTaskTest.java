@@ -0,0 +1,50 @@
+package com.jcloisterzone.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+
+public class SelectActionTaskTest extends AbstractIntegrationTest {
+
+    @Test
+    public void sufficientBudgetFindsBestChain() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        RankingAiPlayer ai = createAiPlayer(game, new LegacyAiPlayer());
+
+        SelectActionTask unlimited = new SelectActionTask(ai, ev);
+        unlimited.search();
+        SelectActionTask budgeted = new SelectActionTask(ai, ev);
+        budgeted.setBudget(60000);
+        budgeted.search();
+
+        assertFalse(budgeted.isBudgetExceeded());
+        assertTrue(budgeted.getProbed() > 0);
+        assertEquals(unlimited.getExplored(), budgeted.getExplored());
+        assertEquals(unlimited.getBestSoFarRanking(), budgeted.getBestSoFarRanking(), 1e-9);
+    }
+
+    @Test
+    public void exceededBudgetReturnsChain() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        RankingAiPlayer ai = createAiPlayer(game, new LegacyAiPlayer());
+
+        SelectActionTask task = new SelectActionTask(ai, ev);
+        task.setDeadline(System.nanoTime());
+        AiChoice best = task.search();
+
+        assertNotNull(best);
+        assertTrue(task.isBudgetExceeded());
+        assertEquals(0, task.getProbed());
+        assertTrue(task.getUnexplored() > 0);
+    }
+}
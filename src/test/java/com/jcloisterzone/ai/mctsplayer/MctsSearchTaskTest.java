@@ -0,0 +1,62 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.choice.TilePlacementChoice;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+
+public class MctsSearchTaskTest extends AbstractIntegrationTest {
+
+    private MctsAiPlayer createMctsPlayer(EventCatchingGame game) {
+        MctsAiPlayer ai = createAiPlayer(game, new MctsAiPlayer());
+        ai.setIterations(100);
+        return ai;
+    }
+
+    @Test
+    public void searchSelectsLegalPlacement() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        MctsSearchTask task = createMctsPlayer(game).createSearchTask(ev);
+        int tiles = game.getBoard().getAllTiles().size();
+
+        AiChoice choice = task.search();
+
+        assertEquals(100, task.getPlayed());
+        assertTrue(choice instanceof TilePlacementChoice);
+        TilePlacementAction action = (TilePlacementAction) ev.getActions().get(0);
+        assertTrue(action.getOptions().contains(((TilePlacementChoice) choice).getValue()));
+        //search plays on game copies
+        assertEquals(tiles, game.getBoard().getAllTiles().size());
+    }
+
+    @Test
+    public void searchIsRepeatable() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+
+        AiChoice first = createMctsPlayer(game).createSearchTask(ev).search();
+        AiChoice second = createMctsPlayer(game).createSearchTask(ev).search();
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    public void treeIsReused() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SelectActionEvent ev = enterPhase(game);
+        MctsAiPlayer ai = createMctsPlayer(game);
+
+        ai.createSearchTask(ev).search();
+        SearchTree tree = ai.getSearchTree();
+        int size = tree.size();
+        assertTrue(size > 1);
+        ai.createSearchTask(ev).search();
+        assertTrue(tree.size() > size);
+    }
+}
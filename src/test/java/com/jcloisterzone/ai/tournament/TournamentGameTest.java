@@ -0,0 +1,40 @@
+package com.jcloisterzone.ai.tournament;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.tournament.GameResult.Status;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.CustomRule;
+
+public class TournamentGameTest {
+
+    private GameResult play(int gameIndex, long seed) throws Exception {
+        String[] players = new String[] { DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName() };
+        TournamentGame game = new TournamentGame(gameIndex, seed, players, EnumSet.of(Expansion.BASIC),
+            EnumSet.noneOf(CustomRule.class), new Config(), 10000);
+        return game.call();
+    }
+
+    @Test
+    public void sameSeedSameGame() throws Exception {
+        GameResult first = play(0, 42);
+        GameResult second = play(0, 42);
+        assertEquals(Status.FINISHED, first.getStatus());
+        assertEquals(Status.FINISHED, second.getStatus());
+        assertEquals(first.getMoves(), second.getMoves());
+        assertArrayEquals(first.getPoints(), second.getPoints());
+    }
+
+    @Test
+    public void seatsAreRotated() throws Exception {
+        GameResult result = play(1, 42);
+        assertArrayEquals(new int[] { 1, 0 }, result.getSeats());
+    }
+}
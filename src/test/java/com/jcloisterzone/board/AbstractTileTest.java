@@ -2,7 +2,6 @@ package com.jcloisterzone.board;
 
 import org.junit.Before;
 import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.Expansion;
 import com.jcloisterzone.config.Config;
@@ -28,10 +27,8 @@ public class AbstractTileTest {
     }
 
     protected Tile createTile(Expansion exp, String id) {
-        Element el = packFactory.getExpansionDefinition(exp);
-        NodeList nl = el.getElementsByTagName("tile");
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element card = (Element) nl.item(i);
+        for (TileDefinition def : packFactory.getExpansionDefinition(exp).getTiles()) {
+            Element card = def.getElement();
             if (id.equals(card.getAttribute("id"))) {
                 return tileFactory.createTile(exp, id, card, false);
             }
@@ -0,0 +1,63 @@
+package com.jcloisterzone.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+
+public class DefaultTilePackTest extends AbstractIntegrationTest {
+
+    private List<Tile> getTiles(DefaultTilePack pack, boolean activeOnly) {
+        List<Tile> tiles = new ArrayList<>();
+        for (String groupId : pack.getGroups()) {
+            if (activeOnly && pack.getGroupState(groupId) != TileGroupState.ACTIVE) continue;
+            if (!activeOnly && groupId.equals(TilePack.INACTIVE_GROUP)) continue;
+            TileGroup group = pack.getGroup(groupId);
+            for (int i = 0; i < group.getSlotCount(); i++) {
+                if (group.getSlot(i) != null) tiles.add(group.getSlot(i));
+            }
+        }
+        return tiles;
+    }
+
+    @Test
+    public void drawTileFollowsRemainingTilesOrder() {
+        DefaultTilePack pack = (DefaultTilePack) createGame("/saved-games/tilePhase.jcz").getTilePack();
+        List<Tile> expected = getTiles(pack, true);
+        Random random = new Random(1);
+        while (!expected.isEmpty()) {
+            assertEquals(expected.size(), pack.size());
+            int index = random.nextInt(expected.size());
+            assertSame(expected.remove(index), pack.drawTile(index));
+        }
+        assertEquals(0, pack.size());
+    }
+
+    @Test
+    public void sizeForEdgePatternCountsAllFillings() {
+        Game game = createGame("/saved-games/tilePhase.jcz");
+        DefaultTilePack pack = (DefaultTilePack) game.getTilePack();
+        Random random = new Random(1);
+        for (int drawn = 0; drawn < 20; drawn++) {
+            List<Tile> tiles = getTiles(pack, false);
+            for (Position pos : game.getBoard().getAvailablePlacementPositions()) {
+                EdgePattern pattern = EdgePattern.forEmptyTile(game.getBoard(), pos);
+                int expected = 0;
+                for (EdgePattern filled : pattern.fill()) {
+                    for (Tile tile : tiles) {
+                        if (filled.equals(tile.getEdgePattern())) expected++;
+                    }
+                }
+                assertEquals(pattern.toString(), expected, pack.getSizeForEdgePattern(pattern));
+            }
+            pack.drawTile(random.nextInt(pack.size()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jcloisterzone.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+
+public class PackedTileMapTest {
+
+    @Test
+    public void packUnpack() {
+        for (int x = -3; x <= 3; x++) {
+            for (int y = -3; y <= 3; y++) {
+                long packed = Position.pack(x, y);
+                assertEquals(x, Position.unpackX(packed));
+                assertEquals(y, Position.unpackY(packed));
+            }
+        }
+        assertEquals(new Position(-70000, 70000), Position.unpack(new Position(-70000, 70000).pack()));
+    }
+
+    @Test
+    public void sameContentAsHashMap() {
+        Random random = new Random(1);
+        PackedTileMap map = new PackedTileMap();
+        Map<Position, Tile> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int x = random.nextInt(41) - 20;
+            int y = random.nextInt(41) - 20;
+            Position p = new Position(x, y);
+            if (random.nextInt(3) == 0) {
+                map.remove(x, y);
+                expected.remove(p);
+            } else {
+                Tile tile = new Tile(Expansion.BASIC, "T" + i);
+                map.put(x, y, tile);
+                expected.put(p, tile);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int x = -21; x <= 21; x++) {
+            for (int y = -21; y <= 21; y++) {
+                Tile tile = expected.get(new Position(x, y));
+                if (tile == null) {
+                    assertNull(map.get(x, y));
+                } else {
+                    assertEquals(tile, map.get(x, y));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jcloisterzone.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.EventBusExceptionHandler;
+
+public class GameEventBusTest {
+
+    private final GameEventBus bus = new GameEventBus(new EventBusExceptionHandler("test bus"));
+
+    public static class Recorder {
+        final List<Object> received = new ArrayList<>();
+
+        @Subscribe
+        public void handle(Object ev) {
+            received.add(ev);
+        }
+    }
+
+    public static class StringRecorder extends Recorder {
+        @Override
+        public void handle(Object ev) {
+            received.add("object:" + ev);
+        }
+
+        @Subscribe
+        public void handleString(String ev) {
+            received.add("string:" + ev);
+        }
+    }
+
+    @Test
+    public void dispatchBySubtype() {
+        StringRecorder recorder = new StringRecorder();
+        bus.register(recorder);
+        bus.post("a");
+        bus.post(1);
+        assertEquals(3, recorder.received.size());
+        assertEquals(true, recorder.received.contains("string:a"));
+        assertEquals(true, recorder.received.contains("object:a"));
+        assertEquals("object:1", recorder.received.get(2));
+    }
+
+    @Test
+    public void nestedPostIsQueued() {
+        final Recorder recorder = new Recorder() {
+            @Override
+            public void handle(Object ev) {
+                super.handle(ev);
+                if ("first".equals(ev)) {
+                    bus.post("nested");
+                    received.add("after nested post");
+                }
+            }
+        };
+        bus.register(recorder);
+        bus.post("first");
+        assertEquals("[first, after nested post, nested]", recorder.received.toString());
+    }
+
+    @Test
+    public void silentModeSkipsRegularListeners() {
+        Recorder ui = new Recorder();
+        Recorder core = new Recorder();
+        bus.register(ui);
+        bus.registerCore(core);
+        bus.setSilent(true);
+        bus.post("simulated");
+        bus.setSilent(false);
+        bus.post("played");
+        assertEquals("[played]", ui.received.toString());
+        assertEquals("[simulated, played]", core.received.toString());
+    }
+
+    @Test
+    public void unregister() {
+        Recorder recorder = new Recorder();
+        bus.register(recorder);
+        bus.register(recorder);
+        bus.post("a");
+        bus.unregister(recorder);
+        bus.post("b");
+        assertEquals("[a]", recorder.received.toString());
+        try {
+            bus.unregister(recorder);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+}
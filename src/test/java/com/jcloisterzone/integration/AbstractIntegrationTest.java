@@ -6,8 +6,10 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.jcloisterzone.ai.AiPlayer;
 import com.jcloisterzone.config.Config;
 import com.jcloisterzone.event.Event;
+import com.jcloisterzone.event.SelectActionEvent;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.Snapshot;
@@ -34,7 +36,14 @@ public class AbstractIntegrationTest {
     protected EventCatchingGame createGame(String save) {
         try {
             URI uri = getClass().getResource(save).toURI();
-            Snapshot snapshot = new Snapshot(new File(uri));
+            return createGame(new Snapshot(new File(uri)));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected EventCatchingGame createGame(Snapshot snapshot) {
+        try {
             EventCatchingGame game = (EventCatchingGame) snapshot.asGame(new EventCatchingGame());
             LoadGamePhase phase = new LoadGamePhase(game, snapshot, null);
             game.getPhases().put(phase.getClass(), phase);
@@ -48,6 +57,22 @@ public class AbstractIntegrationTest {
         }
     }
 
+    /** Enters current phase and returns action selection posted by it. */
+    protected SelectActionEvent enterPhase(EventCatchingGame game) {
+        game.getPhase().enter();
+        for (Event ev : game.events) {
+            if (ev instanceof SelectActionEvent) return (SelectActionEvent) ev;
+        }
+        throw new AssertionError("SelectActionEvent expected");
+    }
+
+    /** Binds AI player to game and its active player. */
+    protected <T extends AiPlayer> T createAiPlayer(EventCatchingGame game, T ai) {
+        ai.setGame(game);
+        ai.setPlayer(game.getActivePlayer());
+        return ai;
+    }
+
     protected String snapshotGame(Game game) {
         try {
             ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -0,0 +1,87 @@
+package com.jcloisterzone.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.EdgePattern;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.TilePhase;
+
+public class AvailablePlacementsTest extends AbstractIntegrationTest {
+
+    /** placements computed by checking every empty adjacent position against neighbours */
+    private Map<Position, Set<Rotation>> getPlacementsByFullScan(EventCatchingGame game, Tile tile) {
+        Board board = game.getBoard();
+        Rotation tileRotation = tile.getRotation();
+        Map<Position, Set<Rotation>> result = new HashMap<>();
+        for (Tile placed : board.getAllTiles()) {
+            for (Position offset : Position.ADJACENT.values()) {
+                Position p = placed.getPosition().add(offset);
+                if (board.get(p) != null || result.containsKey(p)) continue;
+                EnumSet<Rotation> allowed = EnumSet.noneOf(Rotation.class);
+                for (Rotation rotation : Rotation.values()) {
+                    tile.setRotation(rotation);
+                    if (board.isPlacementAllowed(tile, p) && game.isTilePlacementAllowed(tile, p)) {
+                        allowed.add(rotation);
+                    }
+                }
+                if (!allowed.isEmpty()) {
+                    result.put(p, allowed);
+                }
+            }
+        }
+        tile.setRotation(tileRotation);
+        return result;
+    }
+
+    @Test
+    public void indexMatchesFullScan() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        assertTrue(game.getPhase() instanceof TilePhase);
+        Tile tile = game.getCurrentTile();
+        Board board = game.getBoard();
+        board.refreshAvailablePlacements(tile);
+        assertFalse(board.getAvailablePlacements().isEmpty());
+        assertEquals(getPlacementsByFullScan(game, tile), board.getAvailablePlacements());
+    }
+
+    @Test
+    public void indexUpdatedOnUndo() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Tile tile = game.getCurrentTile();
+        Board board = game.getBoard();
+        Position pos = new Position(-2, 0);
+        Position adjacent = null;
+        for (Position offset : Position.ADJACENT.values()) {
+            if (board.getAvailMoveEdgePattern(pos.add(offset)) != null) {
+                adjacent = pos.add(offset);
+            }
+        }
+        EdgePattern before = board.getAvailMoveEdgePattern(adjacent);
+
+        Phase phase = game.getPhase();
+        phase.placeTile(Rotation.R90, pos);
+        assertEquals(EdgePattern.forEmptyTile(board, adjacent).toString(), board.getAvailMoveEdgePattern(adjacent).toString());
+
+        TileEvent ev = (TileEvent) game.events.get(0);
+        ev.undo(game);
+        game.setPhase(phase);
+
+        assertEquals(before.toString(), board.getAvailMoveEdgePattern(adjacent).toString());
+        board.refreshAvailablePlacements(tile);
+        assertEquals(getPlacementsByFullScan(game, tile), board.getAvailablePlacements());
+    }
+}
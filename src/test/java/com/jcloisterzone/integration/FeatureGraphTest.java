@@ -0,0 +1,92 @@
+package com.jcloisterzone.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.MultiTileFeature;
+import com.jcloisterzone.feature.visitor.SelfReturningVisitor;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.Phase;
+
+public class FeatureGraphTest extends AbstractIntegrationTest {
+
+    /** collects component by traversing edges */
+    private Set<MultiTileFeature> traverseEdges(MultiTileFeature start) {
+        Set<MultiTileFeature> visited = new HashSet<>();
+        Deque<MultiTileFeature> queue = new ArrayDeque<>();
+        queue.add(start);
+        visited.add(start);
+        while (!queue.isEmpty()) {
+            for (MultiTileFeature edge : queue.poll().getEdges()) {
+                if (edge != null && visited.add(edge)) {
+                    queue.add(edge);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void assertComponentsMatchEdges(Game game) {
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Feature f : tile.getFeatures()) {
+                if (!(f instanceof MultiTileFeature)) continue;
+                MultiTileFeature mf = (MultiTileFeature) f;
+                final Set<MultiTileFeature> walked = new HashSet<>();
+                mf.walk(new SelfReturningVisitor() {
+                    @Override
+                    public boolean visit(Feature feature) {
+                        walked.add((MultiTileFeature) feature);
+                        return true;
+                    }
+                });
+                Set<MultiTileFeature> expected = traverseEdges(mf);
+                assertEquals(expected, walked);
+                assertEquals(expected.size(), mf.getComponentSize());
+
+                MultiTileFeature master = mf;
+                boolean open = false, occupied = false;
+                for (MultiTileFeature part : expected) {
+                    if (part.getId() < master.getId()) master = part;
+                    for (MultiTileFeature edge : part.getEdges()) {
+                        if (edge == null) open = true;
+                    }
+                    if (!part.getMeeples().isEmpty()) occupied = true;
+                }
+                assertEquals(master, mf.getMaster());
+                assertEquals(open, mf.isComponentOpen());
+                assertEquals(occupied, mf.isComponentOccupied());
+            }
+        }
+    }
+
+    @Test
+    public void componentsOfLoadedGame() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        assertComponentsMatchEdges(game);
+        assertComponentsMatchEdges(game.copy(null));
+    }
+
+    @Test
+    public void componentsAfterUndo() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Phase phase = game.getPhase();
+        phase.placeTile(Rotation.R90, new Position(-2, 0));
+        assertComponentsMatchEdges(game);
+
+        TileEvent ev = (TileEvent) game.events.get(0);
+        ev.undo(game);
+        game.setPhase(phase);
+        assertComponentsMatchEdges(game);
+    }
+}
@@ -0,0 +1,77 @@
+package com.jcloisterzone.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.TilePhase;
+
+public class GameCopyTest extends AbstractIntegrationTest {
+
+    @Test
+    public void copyTilePhase() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Game copy = game.copy(null);
+        assertTrue(copy.getPhase() instanceof TilePhase);
+        assertEquals(snapshotGame(game), snapshotGame(copy));
+        assertEquals(game.getBoard().getAvailablePlacements(), copy.getBoard().getAvailablePlacements());
+        assertEquals(game.getTilePack().size(), copy.getTilePack().size());
+    }
+
+    @Test
+    public void copyActionPhase() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        Game copy = game.copy(null);
+        assertTrue(copy.getPhase() instanceof ActionPhase);
+        assertEquals(snapshotGame(game), snapshotGame(copy));
+    }
+
+    @Test
+    public void copySharesNoMutableState() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        String s1 = snapshotGame(game);
+        Game copy = game.copy(null);
+
+        Position pos = new Position(1, -3);
+        Tile tile = game.getBoard().get(pos);
+        Tile tileCopy = copy.getBoard().get(pos);
+        assertNotSame(tile, tileCopy);
+        assertTrue(tileCopy.getGame() == copy);
+        for (Feature f : tileCopy.getFeatures()) {
+            assertTrue(f.getTile() == tileCopy);
+        }
+
+        copy.getPhase().deployMeeple(pos, Location.NE, BigFollower.class);
+        assertEquals(1, tileCopy.getFeature(Location.NE).getMeeples().size());
+        assertTrue(tile.getFeature(Location.NE).getMeeples().isEmpty());
+        assertEquals(s1, snapshotGame(game));
+    }
+
+    @Test
+    public void copiedFeaturesAreMerged() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Game copy = game.copy(null);
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            Tile tileCopy = copy.getBoard().get(tile.getPosition());
+            for (Feature f : tile.getFeatures()) {
+                Feature master = f.getMaster();
+                Feature masterCopy = tileCopy.getFeature(f.getLocation()).getMaster();
+                assertEquals(master.getId(), masterCopy.getId());
+                assertTrue(masterCopy.getTile().getGame() == copy);
+            }
+        }
+        copy.getPhase().placeTile(Rotation.R90, new Position(-2, 0));
+        assertNull(game.getBoard().get(new Position(-2, 0)));
+    }
+}
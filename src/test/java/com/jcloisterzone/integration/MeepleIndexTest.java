@@ -0,0 +1,73 @@
+package com.jcloisterzone.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.event.MeepleEvent;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.Phase;
+
+public class MeepleIndexTest extends AbstractIntegrationTest {
+
+    private List<Meeple> scanDeployed(Game game, Position center, int distance) {
+        List<Meeple> result = new ArrayList<>();
+        for (Player player : game.getAllPlayers()) {
+            for (Meeple m : player.getMeeples()) {
+                if (m.isDeployed() && center.squareDistance(m.getPosition()) <= distance) {
+                    result.add(m);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void assertIndexMatchesScan(Game game) {
+        Position origin = new Position(0, 0);
+        assertEquals(scanDeployed(game, origin, Integer.MAX_VALUE / 2), game.getDeployedMeeples());
+        for (int distance = 0; distance < 5; distance++) {
+            assertEquals(scanDeployed(game, origin, distance), game.getMeepleIndex().getDeployedMeeples(origin, distance));
+        }
+        for (Meeple m : game.getDeployedMeeples()) {
+            assertTrue(game.getDeployedMeeples(m.getPosition()).contains(m));
+            assertTrue(game.getDeployedMeeples(m.getPlayer()).contains(m));
+        }
+    }
+
+    @Test
+    public void indexFollowsDeploymentAndUndo() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        assertFalse(game.getDeployedMeeples().isEmpty());
+        assertIndexMatchesScan(game);
+
+        Position pos = new Position(1, -3);
+        Phase phase = game.getPhase();
+        phase.deployMeeple(pos, Location.NE, BigFollower.class);
+        Meeple deployed = game.getMeeple(pos, Location.NE, BigFollower.class, game.getActivePlayer());
+        assertTrue(game.getDeployedMeeples(pos).contains(deployed));
+        assertIndexMatchesScan(game);
+
+        ((MeepleEvent) game.events.get(0)).undo(game);
+        assertFalse(game.getDeployedMeeples(pos).contains(deployed));
+        assertFalse(game.getDeployedMeeples().contains(deployed));
+        assertIndexMatchesScan(game);
+    }
+
+    @Test
+    public void gameCopyHasOwnIndex() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        Game copy = game.copy(null);
+        assertIndexMatchesScan(copy);
+        assertEquals(game.getDeployedMeeples().size(), copy.getDeployedMeeples().size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.jcloisterzone.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Test;
+
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.Snapshot.Format;
+
+public class SnapshotFormatTest extends AbstractIntegrationTest {
+
+    private Snapshot roundTrip(Snapshot snapshot, boolean gzip) throws Exception {
+        File file = File.createTempFile("snapshot", ".jcz");
+        try {
+            snapshot.save(new FileOutputStream(file), gzip);
+            return new Snapshot(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void binaryRoundTrip() throws Exception {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        String expected = snapshotGame(game);
+        for (boolean gzip : new boolean[] { true, false }) {
+            Snapshot snapshot = new Snapshot(game);
+            snapshot.setFormat(Format.BINARY);
+            Snapshot loaded = roundTrip(snapshot, gzip);
+            assertEquals(Format.BINARY, loaded.getFormat());
+            assertEquals(snapshot.saveToString(), loaded.saveToString());
+            assertEquals(expected, snapshotGame(createGame(loaded)));
+        }
+    }
+
+    @Test
+    public void plainXmlIsDetected() throws Exception {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Snapshot snapshot = new Snapshot(game);
+        Snapshot loaded = roundTrip(snapshot, false);
+        assertEquals(Format.XML, loaded.getFormat());
+        assertEquals(snapshot.saveToString(), loaded.saveToString());
+        assertEquals(snapshotGame(game), snapshotGame(createGame(loaded)));
+    }
+
+    @Test
+    public void binaryIsSmaller() throws Exception {
+        Snapshot snapshot = new Snapshot(createGame("/saved-games/actionPhase.jcz"));
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        snapshot.save(xml, false);
+        snapshot.setFormat(Format.BINARY);
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        snapshot.save(binary, false);
+        assertTrue(binary.size() * 2 < xml.size());
+    }
+}
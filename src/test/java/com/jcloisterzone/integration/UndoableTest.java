@@ -2,9 +2,17 @@ package com.jcloisterzone.integration;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Map;
 
 import org.junit.Test;
 
+import com.jcloisterzone.Player;
+import com.jcloisterzone.TradeResource;
+import com.jcloisterzone.ai.SavePoint;
+import com.jcloisterzone.ai.SavePointManager;
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Rotation;
@@ -13,6 +21,9 @@ import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.event.TowerIncreasedEvent;
 import com.jcloisterzone.figure.BigFollower;
 import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.game.capability.ClothWineGrainCapability;
+import com.jcloisterzone.game.capability.TowerCapability;
+import com.jcloisterzone.game.capability.TunnelCapability;
 import com.jcloisterzone.game.phase.ActionPhase;
 import com.jcloisterzone.game.phase.Phase;
 import com.jcloisterzone.game.phase.TilePhase;
@@ -93,4 +104,67 @@ public class UndoableTest extends AbstractIntegrationTest {
         assertEquals(s1, s2);
     }
 
+    @Test
+    public void savePointRestoresCapabilityState() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        ClothWineGrainCapability trade = game.getCapability(ClothWineGrainCapability.class);
+        TowerCapability tower = game.getCapability(TowerCapability.class);
+        Player player = game.getPlayer(0);
+
+        String s1 = snapshotGame(game);
+        SavePointManager spm = new SavePointManager(game);
+        spm.startRecording();
+        SavePoint sp = spm.save();
+        //second round changes state restored from save point, it must not modify save point
+        for (int i = 0; i < 2; i++) {
+            trade.addTradeResources(player, TradeResource.WINE, 3);
+            tower.decreaseTowerPieces(player);
+            tower.addPrisoner(player, game.getPlayer(1).getFollowers().get(0));
+            spm.restore(sp);
+            assertEquals(s1, snapshotGame(game));
+        }
+        spm.stopRecording();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void capabilityBackupIsNotModifiable() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        ClothWineGrainCapability trade = game.getCapability(ClothWineGrainCapability.class);
+        Player player = game.getPlayer(0);
+        int wine = trade.getTradeResources(player, TradeResource.WINE);
+
+        Map<Player, int[]> backup = (Map<Player, int[]>) trade.backup();
+        int[] backupResources = backup.get(player);
+        trade.addTradeResources(player, TradeResource.WINE, 3);
+        assertEquals(wine, backupResources[TradeResource.WINE.ordinal()]);
+        try {
+            backup.put(player, new int[TradeResource.values().length]);
+            fail("Backup must be unmodifiable.");
+        } catch (UnsupportedOperationException e) {
+            //expected
+        }
+
+        trade.restore(backup);
+        assertEquals(wine, trade.getTradeResources(player, TradeResource.WINE));
+    }
+
+    @Test
+    public void tunnelTokensAreRestored() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        //two players use both A and B tunnel tokens
+        game.setPlayers(Arrays.asList(game.getPlayer(0), game.getPlayer(1)), 0);
+        TunnelCapability tunnel = new TunnelCapability(game);
+        for (Player p : game.getAllPlayers()) {
+            tunnel.initPlayer(p);
+        }
+        Player player = game.getPlayer(0);
+
+        Object backup = tunnel.backup();
+        tunnel.decreaseTunnelTokens(player, false);
+        tunnel.decreaseTunnelTokens(player, true);
+        tunnel.restore(backup);
+        assertEquals(2, tunnel.getTunnelTokens(player, false));
+        assertEquals(2, tunnel.getTunnelTokens(player, true));
+    }
 }
@@ -0,0 +1,110 @@
+package com.jcloisterzone.ui.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.integration.AbstractIntegrationTest;
+import com.jcloisterzone.ui.ImmutablePoint;
+import com.jcloisterzone.ui.resources.ResourceManager;
+import com.jcloisterzone.ui.theme.FigureTheme;
+
+public class BoardRasterTest extends AbstractIntegrationTest {
+
+    private static final int SQUARE_SIZE = 20;
+
+    private static class PlainResourceManager implements ResourceManager {
+        private final Image tileImage = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+
+        @Override
+        public Image getTileImage(Tile tile) {
+            return tileImage;
+        }
+
+        @Override
+        public Image getAbbeyImage() {
+            return tileImage;
+        }
+
+        @Override
+        public Map<Location, Area> getFeatureAreas(Tile tile, int size, Set<Location> locations) {
+            return null;
+        }
+
+        @Override
+        public Map<Location, Area> getBarnTileAreas(Tile tile, int size, Set<Location> corners) {
+            return null;
+        }
+
+        @Override
+        public Map<Location, Area> getBridgeAreas(Tile tile, int size, Set<Location> locations) {
+            return null;
+        }
+
+        @Override
+        public ImmutablePoint getMeeplePlacement(Tile tile, Class<? extends Meeple> type, Location loc) {
+            return new ImmutablePoint(50, 50);
+        }
+    }
+
+    private static class PlainFigureTheme extends FigureTheme {
+        private final Image figureImage = new BufferedImage(30, 30, BufferedImage.TYPE_INT_ARGB);
+
+        public PlainFigureTheme() {
+            super(null);
+        }
+
+        @Override
+        public Image getFigureImage(Class<? extends Meeple> type, Color c, String extraDecoration) {
+            return figureImage;
+        }
+    }
+
+    @Test
+    public void onlyTouchedChunksAreRendered() {
+        Game game = createGame("/saved-games/actionPhase.jcz");
+        BoardRaster raster = new BoardRaster(game, new PlainResourceManager(), new PlainFigureTheme(), SQUARE_SIZE);
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            Position p = tile.getPosition();
+            minX = Math.min(minX, p.x);
+            maxX = Math.max(maxX, p.x);
+            minY = Math.min(minY, p.y);
+            maxY = Math.max(maxY, p.y);
+        }
+        BufferedImage img = raster.createBoardImage();
+        assertEquals((maxX - minX + 1) * SQUARE_SIZE, img.getWidth());
+        assertEquals((maxY - minY + 1) * SQUARE_SIZE, img.getHeight());
+        int initial = raster.getRenderedChunks();
+        assertTrue(initial > 0);
+
+        raster.createBoardImage();
+        assertEquals(initial, raster.getRenderedChunks());
+
+        Tile tile = game.getBoard().getAllTiles().iterator().next();
+        game.getEventBus().post(new TileEvent(TileEvent.PLACEMENT, null, tile, tile.getPosition()));
+        raster.createBoardImage();
+        int rendered = raster.getRenderedChunks() - initial;
+        assertTrue(rendered > 0 && rendered <= 4);
+
+        raster.dispose();
+        game.getEventBus().post(new TileEvent(TileEvent.PLACEMENT, null, tile, tile.getPosition()));
+        raster.createBoardImage();
+        assertEquals(initial + rendered, raster.getRenderedChunks());
+    }
+}
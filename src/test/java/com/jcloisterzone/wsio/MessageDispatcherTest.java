@@ -0,0 +1,57 @@
+package com.jcloisterzone.wsio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+
+public class MessageDispatcherTest {
+
+    static class Target {
+        Object context;
+        int undo, gameOver;
+
+        @WsSubscribe
+        public void handleUndo(UndoMessage msg) {
+            undo++;
+        }
+
+        @WsSubscribe
+        public void handleGameOver(Object context, GameOverMessage msg) {
+            this.context = context;
+            gameOver++;
+        }
+    }
+
+    @Test
+    public void dispatchToHandlers() {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        Target target = new Target();
+        Object context = new Object();
+        dispatcher.dispatch(new UndoMessage("g"), context, target);
+        dispatcher.dispatch(new UndoMessage("g"), context, target);
+        dispatcher.dispatch(new GameOverMessage("g"), context, target);
+        assertEquals(2, target.undo);
+        assertEquals(1, target.gameOver);
+        assertSame(context, target.context);
+    }
+
+    @Test
+    public void handlerExceptionIsPropagated() {
+        try {
+            new MessageDispatcher().dispatch(new UndoMessage("g"), null, new Object() {
+                @WsSubscribe
+                public void handleUndo(UndoMessage msg) {
+                    throw new IllegalStateException();
+                }
+            });
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jcloisterzone.wsio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.wsio.message.RmiMessage;
+
+public class RmiMessageTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    private Object[] roundTrip(RmiMessage msg) {
+        return ((RmiMessage) parser.fromJson(parser.toJson(msg))).getArguments();
+    }
+
+    @Test
+    public void typedArguments() {
+        Object[] args = new Object[] { new Position(-2, 3), Location.create(Location.N.getMask() | Location.E.getMask()), SmallFollower.class, 1 };
+        RmiMessage msg = new RmiMessage("g", "undeployMeeple", args);
+        assertNull(msg.getArgs());
+        assertArrayEquals(args, roundTrip(msg));
+
+        args = new Object[] { new FeaturePointer(new Position(0, -1), Location.INNER_FARM) };
+        assertArrayEquals(args, roundTrip(new RmiMessage("g", "moveMage", args)));
+
+        args = new Object[] { Rotation.R270, new Position(5, 0) };
+        assertArrayEquals(args, roundTrip(new RmiMessage("g", "placeTile", args)));
+    }
+
+    @Test
+    public void nullArguments() {
+        Object[] args = new Object[] { null, SmallFollower.class };
+        assertArrayEquals(args, roundTrip(new RmiMessage("g", "payRansom", args)));
+        assertEquals(0, roundTrip(new RmiMessage("g", "pass", null)).length);
+    }
+
+    @Test
+    public void legacyFallback() {
+        Object[] args = new Object[] { Rotation.R90, new Position(1, 1) };
+        RmiMessage msg = new RmiMessage("g", "placeTile", args);
+        RmiMessage legacy = msg.toLegacy();
+        assertNull(legacy.getParams());
+        assertArrayEquals(args, roundTrip(legacy));
+        //arguments shrink by order of magnitude
+        assertTrue(Arrays.toString(msg.getParams()).length() * 10 < legacy.getArgs().length());
+    }
+}
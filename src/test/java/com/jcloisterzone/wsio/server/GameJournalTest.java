@@ -0,0 +1,177 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.wsio.message.DrawMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+
+public class GameJournalTest {
+
+    private static final String GAME_ID = "journaled";
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private GameMessage createStartedGame() {
+        Set<Class<? extends Capability>> capabilities = new HashSet<>();
+        GameSetupMessage setup = new GameSetupMessage(GAME_ID, EnumSet.noneOf(CustomRule.class), EnumSet.of(Expansion.BASIC), capabilities);
+        GameMessage msg = new GameMessage(GAME_ID, "", GameState.RUNNING, setup);
+        msg.setSlots(new SlotMessage[] {
+            new SlotMessage(GAME_ID, 0, 1, "alice", "Alice"),
+            new SlotMessage(GAME_ID, 1, 2, "bob", "Bob")
+        });
+        return msg;
+    }
+
+    private void apply(JournalReplay live, GameJournal journal, WsInGameMessage msg) throws IOException {
+        journal.append(msg);
+        live.apply(msg);
+    }
+
+    /** plays given number of turns, every third tile placement is undone and repeated */
+    private void play(JournalReplay live, GameJournal journal, int turns) throws IOException {
+        Game game = live.getGame();
+        for (int turn = 0; turn < turns; turn++) {
+            apply(live, journal, new DrawMessage(GAME_ID, game.getTilePack().size(), new int[] { turn % 3 }));
+            Entry<Position, Set<Rotation>> placement = game.getBoard().getAvailablePlacements().entrySet().iterator().next();
+            Object[] args = new Object[] { placement.getValue().iterator().next(), placement.getKey() };
+            apply(live, journal, new RmiMessage(GAME_ID, "placeTile", args));
+            if (turn % 3 == 2) {
+                apply(live, journal, new UndoMessage(GAME_ID));
+                apply(live, journal, new RmiMessage(GAME_ID, "placeTile", args));
+            }
+            apply(live, journal, new RmiMessage(GAME_ID, "pass", new Object[0]));
+        }
+    }
+
+    private String snapshot(JournalReplay replay) throws Exception {
+        return replay.createSnapshot().saveToString();
+    }
+
+    @Test
+    public void recoverGame() throws Exception {
+        GameMessage started = createStartedGame();
+        GameJournal journal = GameJournal.create(dir, started, null, 1000, DIRECT_EXECUTOR);
+        JournalReplay live = new JournalReplay(started, new Config());
+        play(live, journal, 10);
+        journal.close();
+        assertEquals(11, live.getGame().getBoard().getAllTiles().size());
+
+        assertEquals(0, GameJournal.readCheckpoint(dir, GAME_ID).getSeq());
+        assertEquals(snapshot(live), snapshot(GameJournal.recover(dir, GAME_ID)));
+    }
+
+    @Test
+    public void checkpointBoundsReplay() throws Exception {
+        GameMessage started = createStartedGame();
+        GameJournal journal = GameJournal.create(dir, started, "host", 7, DIRECT_EXECUTOR);
+        JournalReplay live = new JournalReplay(started, new Config());
+        play(live, journal, 20);
+        journal.close();
+
+        GameJournal.Checkpoint cp = GameJournal.readCheckpoint(dir, GAME_ID);
+        assertTrue(cp.getSeq() > journal.getSeq() - 2 * 7);
+        assertEquals("host", cp.getHostClientId());
+        assertTrue(GameJournal.readRecords(dir, GAME_ID, cp.getSeq(), Integer.MAX_VALUE).size() < 2 * 7);
+        assertTrue(dir.listFiles().length <= 3);
+        assertEquals(snapshot(live), snapshot(GameJournal.recover(dir, GAME_ID)));
+    }
+
+    @Test
+    public void tornRecordIsIgnored() throws Exception {
+        GameMessage started = createStartedGame();
+        GameJournal journal = GameJournal.create(dir, started, null, 1000, DIRECT_EXECUTOR);
+        JournalReplay live = new JournalReplay(started, new Config());
+        play(live, journal, 3);
+        journal.close();
+        try (FileOutputStream os = new FileOutputStream(new File(dir, GAME_ID + ".0" + GameJournal.SEGMENT_SUFFIX), true)) {
+            os.write((journal.getSeq() + " {\"type\":\"RMI\",\"payl").getBytes("UTF-8"));
+        }
+        assertEquals(snapshot(live), snapshot(GameJournal.recover(dir, GAME_ID)));
+    }
+
+    @Test
+    public void reopenedJournalContinuesRecords() throws Exception {
+        GameMessage started = createStartedGame();
+        GameJournal journal = GameJournal.create(dir, started, null, 1000, DIRECT_EXECUTOR);
+        JournalReplay live = new JournalReplay(started, new Config());
+        play(live, journal, 3);
+        int seq = journal.getSeq();
+        journal.close();
+
+        journal = GameJournal.open(dir, GAME_ID, 1000, DIRECT_EXECUTOR);
+        assertEquals(seq, journal.getSeq());
+        play(live, journal, 3);
+        journal.close();
+        assertEquals(snapshot(live), snapshot(GameJournal.recover(dir, GAME_ID)));
+    }
+
+    @Test
+    public void recoveredRoomDiscardsJournal() throws Exception {
+        GameMessage started = createStartedGame();
+        GameJournal journal = GameJournal.create(dir, started, "host", 1000, DIRECT_EXECUTOR);
+        play(new JournalReplay(started, new Config()), journal, 2);
+        journal.close();
+
+        SimpleServer server = new SimpleServer(new InetSocketAddress(0), null);
+        server.setJournal(dir, 1000);
+        List<GameRoom> recovered = server.recoverGames();
+        assertEquals(1, recovered.size());
+        GameRoom room = recovered.get(0);
+        assertEquals(GAME_ID, room.getGameId());
+        assertEquals("host", room.getHostClientId());
+
+        room.discardJournal();
+        assertEquals(0, dir.listFiles().length);
+        assertTrue(server.recoverGames().isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.java_websocket.WebSocket;
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.server.OutboundQueue.Frame;
+import com.jcloisterzone.wsio.server.OutboundQueue.SlowConsumerPolicy;
+
+public class OutboundQueueTest {
+
+    /** executor running tasks only when test asks for it, immediate and delayed tasks are not distinguished */
+    private static class ManualExecutor implements InvocationHandler {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        ScheduledExecutorService create() {
+            return (ScheduledExecutorService) Proxy.newProxyInstance(ScheduledExecutorService.class.getClassLoader(),
+                new Class<?>[] { ScheduledExecutorService.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+            case "execute":
+            case "schedule":
+                tasks.add((Runnable) args[0]);
+                return null;
+            default: throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        /** Runs tasks submitted so far, tasks submitted by them are left pending. */
+        void runPending() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : pending) {
+                task.run();
+            }
+        }
+    }
+
+    private final ManualExecutor executor = new ManualExecutor();
+
+    /** socket records sent payloads, slow socket never flushes its buffer */
+    private static class FakeSocket implements InvocationHandler {
+        final boolean slow;
+        final List<String> sent = new ArrayList<>();
+        boolean closed;
+
+        FakeSocket(boolean slow) {
+            this.slow = slow;
+        }
+
+        WebSocket create() {
+            return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] { WebSocket.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+            case "send": sent.add((String) args[0]); return null;
+            case "close": closed = true; return null;
+            case "hasBufferedData": return slow;
+            case "isOpen": return !closed;
+            default: return null;
+            }
+        }
+    }
+
+    @Test
+    public void framesAreSentInOrder() {
+        FakeSocket socket = new FakeSocket(false);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 10, SlowConsumerPolicy.DISCONNECT);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(queue.offer(new Frame("m" + i, null)));
+            if (i % 5 == 4) executor.runPending(); //let writer run in between
+        }
+        while (!executor.tasks.isEmpty()) {
+            executor.runPending();
+        }
+        assertFalse(socket.closed);
+        assertEquals(100, socket.sent.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("m" + i, socket.sent.get(i));
+        }
+    }
+
+    @Test
+    public void writerStopsOnClosedQueue() {
+        FakeSocket socket = new FakeSocket(true);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 10, SlowConsumerPolicy.DISCONNECT);
+        queue.offer(new Frame("m0", null));
+        executor.runPending();
+        assertEquals(1, executor.tasks.size()); //retry scheduled, socket has buffered data
+        queue.close();
+        executor.runPending();
+        assertTrue(executor.tasks.isEmpty());
+        assertTrue(socket.sent.isEmpty());
+    }
+
+    @Test
+    public void slowConsumerIsDisconnected() {
+        FakeSocket socket = new FakeSocket(true);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 3, SlowConsumerPolicy.DISCONNECT);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(queue.offer(new Frame("m" + i, null)));
+        }
+        assertFalse(queue.offer(new Frame("m3", null)));
+        assertTrue(queue.isClosed());
+        assertTrue(socket.closed);
+    }
+
+    @Test
+    public void slowConsumerFramesAreDropped() {
+        FakeSocket socket = new FakeSocket(true);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 2, SlowConsumerPolicy.DROP);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(new Frame("chat" + i, null, true));
+        }
+        assertEquals(2, queue.size());
+        assertEquals(3, queue.getDropped());
+        assertFalse(socket.closed);
+        //game state frame replaces queued chat
+        assertTrue(queue.offer(new Frame("rmi", null)));
+        assertTrue(queue.offer(new Frame("rmi", null)));
+        assertEquals(5, queue.getDropped());
+        assertFalse(socket.closed);
+    }
+
+    @Test
+    public void slowConsumerIsDisconnectedWhenStateFrameDoesntFit() {
+        FakeSocket socket = new FakeSocket(true);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 2, SlowConsumerPolicy.DROP);
+        assertTrue(queue.offer(new Frame("rmi0", null)));
+        assertTrue(queue.offer(new Frame("rmi1", null)));
+        assertFalse(queue.offer(new Frame("rmi2", null)));
+        assertTrue(queue.isClosed());
+        assertTrue(socket.closed);
+    }
+
+    @Test
+    public void stateFramesAreCoalesced() {
+        FakeSocket socket = new FakeSocket(true);
+        OutboundQueue queue = new OutboundQueue(socket.create(), executor.create(), 2, SlowConsumerPolicy.COALESCE);
+        assertTrue(queue.offer(new Frame("rmi", null)));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(new Frame("clients" + i, "CLIENTS")));
+        }
+        assertEquals(2, queue.size());
+        assertFalse(socket.closed);
+        assertFalse(queue.offer(new Frame("rmi", null)));
+        assertTrue(socket.closed);
+    }
+}
@@ -0,0 +1,232 @@
+package com.jcloisterzone.wsio.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.java_websocket.WebSocket;
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.ClientListMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
+import com.jcloisterzone.wsio.message.LeaveGameMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+import com.jcloisterzone.wsio.message.TakeSlotMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+import com.jcloisterzone.wsio.server.OutboundQueue.SlowConsumerPolicy;
+
+public class SimpleServerTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    /** writers run immediately in calling thread, so sent messages are available after each call */
+    private final ScheduledExecutorService directWriters = (ScheduledExecutorService) Proxy.newProxyInstance(
+        ScheduledExecutorService.class.getClassLoader(), new Class<?>[] { ScheduledExecutorService.class },
+        new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                case "execute": ((Runnable) args[0]).run(); return null;
+                case "schedule": return null; //retry of slow client writer, queued frames stay
+                default: throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+
+    private final SimpleServer server = new SimpleServer(new InetSocketAddress(0), null, directWriters);
+
+    /** connected client, records received messages */
+    private class Client implements InvocationHandler {
+        final WebSocket ws = (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] { WebSocket.class }, this);
+        final List<WsMessage> received = new ArrayList<>();
+        /** slow client doesn't read, messages stay in outbound queue */
+        boolean slow;
+        /** close code if server closed connection */
+        Integer closeCode;
+
+        Client() {
+            server.onOpen(ws, null);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+            case "send": received.add(parser.fromJson((String) args[0])); return null;
+            case "getRemoteSocketAddress": return new InetSocketAddress(InetAddress.getLoopbackAddress(), 1234);
+            case "hasBufferedData": return slow;
+            case "close": closeCode = args == null ? 1000 : (Integer) args[0]; return null;
+            case "hashCode": return System.identityHashCode(proxy);
+            case "equals": return proxy == args[0];
+            default: return null;
+            }
+        }
+
+        void post(WsMessage msg) {
+            server.onMessage(ws, parser.toJson(msg));
+        }
+
+        void hello(String nickname) {
+            post(new HelloMessage(nickname, null, null));
+        }
+
+        @SuppressWarnings("unchecked")
+        <T extends WsMessage> List<T> getReceived(Class<T> type) {
+            List<T> result = new ArrayList<>();
+            for (WsMessage msg : received) {
+                if (type.isInstance(msg)) result.add((T) msg);
+            }
+            return result;
+        }
+
+        <T extends WsMessage> T getLast(Class<T> type) {
+            List<T> messages = getReceived(type);
+            return messages.isEmpty() ? null : messages.get(messages.size() - 1);
+        }
+    }
+
+    private String createGame(Client client) {
+        client.post(new CreateGameMessage(null, null));
+        return client.getLast(GameMessage.class).getGameId();
+    }
+
+    private void chat(Client client, String gameId, String text) {
+        PostChatMessage msg = new PostChatMessage(text);
+        msg.setGameId(gameId);
+        client.post(msg);
+    }
+
+    @Test
+    public void clientsCreateAndJoinRooms() {
+        Client alice = new Client(), bob = new Client();
+        alice.hello("alice");
+        bob.hello("bob");
+
+        String gameId = createGame(alice);
+        assertEquals(1, server.getRoomCount());
+        assertEquals(1, alice.getLast(ClientListMessage.class).getClients().length);
+
+        bob.post(new JoinGameMessage(gameId));
+        assertEquals(gameId, bob.getLast(GameMessage.class).getGameId());
+        assertEquals(2, alice.getLast(ClientListMessage.class).getClients().length);
+        assertEquals(2, bob.getLast(ClientListMessage.class).getClients().length);
+        assertEquals(2, server.getRoom(gameId).getMembers().size());
+    }
+
+    @Test
+    public void messagesAreBroadcastToRoomMembersOnly() {
+        Client alice = new Client(), bob = new Client(), carol = new Client();
+        alice.hello("alice");
+        bob.hello("bob");
+        carol.hello("carol");
+        String aliceGame = createGame(alice);
+        String bobGame = createGame(bob);
+        carol.post(new JoinGameMessage(aliceGame));
+
+        chat(alice, aliceGame, "hi");
+        assertEquals("hi", alice.getLast(ChatMessage.class).getText());
+        assertEquals("hi", carol.getLast(ChatMessage.class).getText());
+        assertNull(bob.getLast(ChatMessage.class));
+
+        try {
+            chat(bob, aliceGame, "intruder");
+            fail("Message to other room must be rejected.");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        assertEquals(1, carol.getReceived(ChatMessage.class).size());
+        assertEquals(2, server.getRoomCount());
+        assertEquals(1, server.getRoom(bobGame).getMembers().size());
+    }
+
+    @Test
+    public void leavingReleasesSlotsAndRemovesEmptyRoom() {
+        Client alice = new Client(), bob = new Client();
+        alice.hello("alice");
+        bob.hello("bob");
+        String gameId = createGame(alice);
+        bob.post(new JoinGameMessage(gameId));
+        bob.post(new TakeSlotMessage(gameId, 0, "bob"));
+        assertEquals("bob", alice.getLast(SlotMessage.class).getNickname());
+
+        server.onClose(bob.ws, 0, "", true);
+        assertNull(alice.getLast(SlotMessage.class).getOwner());
+        assertEquals(1, alice.getLast(ClientListMessage.class).getClients().length);
+
+        alice.post(new LeaveGameMessage(gameId));
+        assertEquals(0, server.getRoomCount());
+    }
+
+    @Test
+    public void clientWithoutHelloIsRejected() {
+        Client alice = new Client(), anonymous = new Client();
+        alice.hello("alice");
+        String gameId = createGame(alice);
+
+        try {
+            anonymous.post(new CreateGameMessage(null, null));
+            fail("Create game without hello must be rejected.");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        try {
+            anonymous.post(new JoinGameMessage(gameId));
+            fail("Join game without hello must be rejected.");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        assertEquals(1, server.getRoomCount());
+        assertEquals(1, server.getRoom(gameId).getMembers().size());
+        assertTrue(anonymous.received.isEmpty());
+
+        server.onClose(anonymous.ws, 0, "", true);
+        server.onClose(alice.ws, 0, "", true);
+        assertEquals(0, server.getRoomCount());
+    }
+
+    @Test
+    public void slowConsumerDisconnectReleasesSlotAndRoom() {
+        server.setOutboundCapacity(2);
+        server.setSlowConsumerPolicy(SlowConsumerPolicy.DISCONNECT);
+        Client alice = new Client(), bob = new Client();
+        alice.hello("alice");
+        bob.hello("bob");
+        String gameId = createGame(alice);
+        bob.post(new JoinGameMessage(gameId));
+        bob.post(new TakeSlotMessage(gameId, 0, "bob"));
+
+        bob.slow = true;
+        for (int i = 0; i < 3; i++) {
+            chat(alice, gameId, "msg " + i);
+        }
+        assertEquals(Integer.valueOf(OutboundQueue.CLOSE_POLICY_VIOLATION), bob.closeCode);
+
+        //server initiated close is reported as not remote
+        server.onClose(bob.ws, bob.closeCode, "Slow consumer", false);
+        assertNull(alice.getLast(SlotMessage.class).getOwner());
+        assertEquals(1, alice.getLast(ClientListMessage.class).getClients().length);
+        assertEquals(1, server.getRoom(gameId).getMembers().size());
+
+        alice.slow = true;
+        for (int i = 0; i < 3; i++) {
+            chat(alice, gameId, "echo " + i);
+        }
+        server.onClose(alice.ws, alice.closeCode, "Slow consumer", false);
+        assertEquals(0, server.getRoomCount());
+    }
+}